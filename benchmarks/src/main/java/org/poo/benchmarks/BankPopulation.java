@@ -0,0 +1,394 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.poo.banking.Bank;
+import org.poo.banking.ClassicAccount;
+import org.poo.banking.ClassicCard;
+import org.poo.banking.CurrencyConverter;
+import org.poo.banking.User;
+import org.poo.fileio.BufferedOutputSink;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommerciantInput;
+import org.poo.fileio.ExchangeInput;
+import org.poo.fileio.UserInput;
+import org.poo.main.Main;
+import org.poo.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Populatie generata pentru benchmark-uri: utilizatori, conturi, carduri, comercianti
+ * si un istoric de plati de adancime data. Populatia este construita prin aceleasi
+ * comenzi ca un fisier de intrare, deci structurile bancii sunt identice cu cele
+ * dintr-o rulare reala. Banca este reconstruita la fiecare iteratie, astfel incat
+ * benchmark-urile care adauga tranzactii nu modifica adancimea istoricului masurat.
+ */
+@State(Scope.Benchmark)
+public class BankPopulation {
+    /** Soldul initial al fiecarui cont, suficient pentru toate platile generate. */
+    public static final double INITIAL_FUNDS = 1.0e9;
+    /** Suma unei plati din istoric (sub pragul de upgrade automat la silver). */
+    public static final double PAYMENT_AMOUNT = 10.0;
+    /** Numarul maxim de asociati ai contului business. */
+    public static final int MAX_ASSOCIATES = 20;
+
+    private static final String[] ACCOUNT_CURRENCIES = {"RON", "EUR", "USD"};
+    private static final String[][] EXCHANGE_RATES = {
+            {"USD", "EUR", "0.9"},
+            {"EUR", "RON", "5.0"},
+            {"USD", "RON", "4.5"},
+            {"USD", "GBP", "0.8"},
+            {"USD", "AUD", "1.5"},
+            {"USD", "CAD", "1.3"},
+            {"USD", "CHF", "1.1"},
+            {"USD", "CNY", "7.0"},
+            {"EUR", "INR", "90.0"},
+            {"EUR", "NZD", "1.8"},
+            {"USD", "MXN", "17.0"},
+    };
+    private static final String[][] COMMERCIANTS = {
+            {"Amazon", "Tech", "spendingThreshold"},
+            {"H&M", "Clothes", "spendingThreshold"},
+            {"Burger King", "Food", "nrOfTransactions"},
+            {"Samsung", "Tech", "nrOfTransactions"},
+            {"Netflix", "Entertainment", "spendingThreshold"},
+    };
+    private static final int FIRST_COMMERCIANT_ID = 79;
+    private static final String COMMERCIANT_IBAN_PREFIX = "RO00POOB";
+    private static final String COMMERCIANT_IBAN_FORMAT = "%016d";
+
+    /** Numarul de utilizatori generati. */
+    @Param({"100", "1000"})
+    protected int userCount;
+
+    /** Numarul de conturi clasice ale fiecarui utilizator. */
+    @Param({"2"})
+    protected int accountsPerUser;
+
+    /** Numarul de carduri ale fiecarui cont. */
+    @Param({"2"})
+    protected int cardsPerAccount;
+
+    /** Numarul de plati din istoricul fiecarui cont. */
+    @Param({"10", "100"})
+    protected int historyDepth;
+
+    private Bank bank;
+    private CurrencyConverter converter;
+    private BufferedOutputSink output;
+    private int timestamp;
+
+    private final List<String> emails = new ArrayList<>();
+    private final List<String> ibans = new ArrayList<>();
+    private final List<String> cardNumbers = new ArrayList<>();
+    private final List<String> cardOwners = new ArrayList<>();
+    private String businessIban;
+
+    /**
+     * Construieste banca si istoricul de plati.
+     */
+    @Setup(Level.Iteration)
+    public void populate() {
+        bank = Bank.getInstance();
+        bank.reset();
+        Utils.resetRandom();
+        output = new BufferedOutputSink();
+        timestamp = 0;
+        emails.clear();
+        ibans.clear();
+        cardNumbers.clear();
+        cardOwners.clear();
+
+        Main.createUsers(generateUsers());
+        Main.createCommerciants(generateCommerciants());
+        Main.executeCommands(new CommandInput[0], generateExchangeRates(),
+                new CommerciantInput[0], output);
+        converter = bank.getCurrencyConverter();
+
+        for (String email : emails) {
+            openAccounts(email);
+        }
+        openBusinessAccount();
+        generateHistory();
+        output.clear();
+    }
+
+    /**
+     * Goleste banca dupa fiecare iteratie.
+     */
+    @TearDown(Level.Iteration)
+    public void clear() {
+        bank.reset();
+        Utils.resetRandom();
+    }
+
+    private UserInput[] generateUsers() {
+        UserInput[] users = new UserInput[userCount];
+        for (int i = 0; i < userCount; i++) {
+            UserInput user = new UserInput();
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user" + i + "@bench.poo");
+            user.setBirthDate("1990-01-01");
+            user.setOccupation("engineer");
+            users[i] = user;
+            emails.add(user.getEmail());
+        }
+        return users;
+    }
+
+    private static CommerciantInput[] generateCommerciants() {
+        CommerciantInput[] commerciants = new CommerciantInput[COMMERCIANTS.length];
+        for (int i = 0; i < COMMERCIANTS.length; i++) {
+            CommerciantInput commerciant = new CommerciantInput();
+            commerciant.setCommerciant(COMMERCIANTS[i][0]);
+            commerciant.setId(FIRST_COMMERCIANT_ID + i);
+            commerciant.setAccount(COMMERCIANT_IBAN_PREFIX
+                    + String.format(COMMERCIANT_IBAN_FORMAT, i));
+            commerciant.setType(COMMERCIANTS[i][1]);
+            commerciant.setCashbackStrategy(COMMERCIANTS[i][2]);
+            commerciants[i] = commerciant;
+        }
+        return commerciants;
+    }
+
+    /**
+     * Genereaza ratele de schimb ale populatiei, in formatul fisierelor de intrare.
+     *
+     * @return Vectorul de rate de schimb.
+     */
+    public static ExchangeInput[] generateExchangeRates() {
+        ExchangeInput[] rates = new ExchangeInput[EXCHANGE_RATES.length];
+        for (int i = 0; i < EXCHANGE_RATES.length; i++) {
+            ExchangeInput rate = new ExchangeInput();
+            rate.setFrom(EXCHANGE_RATES[i][0]);
+            rate.setTo(EXCHANGE_RATES[i][1]);
+            rate.setRate(Double.parseDouble(EXCHANGE_RATES[i][2]));
+            rates[i] = rate;
+        }
+        return rates;
+    }
+
+    private void openAccounts(final String email) {
+        User user = bank.getUserByEmail(email);
+        for (int i = 0; i < accountsPerUser; i++) {
+            CommandInput addAccount = command("addAccount");
+            addAccount.setEmail(email);
+            addAccount.setAccountType("classic");
+            addAccount.setCurrency(ACCOUNT_CURRENCIES[i % ACCOUNT_CURRENCIES.length]);
+            execute(addAccount);
+
+            ClassicAccount account = user.getAccounts().get(user.getAccounts().size() - 1);
+            ibans.add(account.getIban());
+            fund(email, account.getIban());
+            for (int j = 0; j < cardsPerAccount; j++) {
+                CommandInput createCard = command("createCard");
+                createCard.setEmail(email);
+                createCard.setAccount(account.getIban());
+                execute(createCard);
+            }
+            for (ClassicCard card : account.getCards()) {
+                cardNumbers.add(card.getCardNumber());
+                cardOwners.add(email);
+            }
+        }
+    }
+
+    private void openBusinessAccount() {
+        String ownerEmail = emails.get(0);
+        User owner = bank.getUserByEmail(ownerEmail);
+        CommandInput addAccount = command("addAccount");
+        addAccount.setEmail(ownerEmail);
+        addAccount.setAccountType("business");
+        addAccount.setCurrency("RON");
+        execute(addAccount);
+
+        ClassicAccount account = owner.getAccounts().get(owner.getAccounts().size() - 1);
+        businessIban = account.getIban();
+        fund(ownerEmail, businessIban);
+
+        CommandInput createCard = command("createCard");
+        createCard.setEmail(ownerEmail);
+        createCard.setAccount(businessIban);
+        execute(createCard);
+
+        for (int i = 1; i < Math.min(emails.size(), MAX_ASSOCIATES + 1); i++) {
+            CommandInput associate = command("addNewBusinessAssociate");
+            associate.setAccount(businessIban);
+            associate.setRole(i % 2 == 0 ? "manager" : "employee");
+            associate.setEmail(emails.get(i));
+            execute(associate);
+        }
+    }
+
+    private void fund(final String email, final String iban) {
+        CommandInput addFunds = command("addFunds");
+        addFunds.setEmail(email);
+        addFunds.setAccount(iban);
+        addFunds.setAmount(INITIAL_FUNDS);
+        execute(addFunds);
+    }
+
+    private void generateHistory() {
+        String businessCard = bank.getAccountByIban(businessIban).getCards().get(0)
+                .getCardNumber();
+        int associates = Math.min(emails.size(), MAX_ASSOCIATES + 1);
+        for (int depth = 0; depth < historyDepth; depth++) {
+            for (int i = 0; i < ibans.size(); i++) {
+                if (cardsPerAccount > 0) {
+                    int card = i * cardsPerAccount + depth % cardsPerAccount;
+                    execute(payment(cardOwners.get(card), cardNumbers.get(card), depth));
+                }
+            }
+            String associate = emails.get(depth % associates);
+            execute(payment(associate, businessCard, depth));
+            output.clear();
+        }
+    }
+
+    private static CommandInput payment(final String email, final String cardNumber,
+                                        final int index) {
+        CommandInput payOnline = command("payOnline");
+        payOnline.setEmail(email);
+        payOnline.setCardNumber(cardNumber);
+        payOnline.setAmount(PAYMENT_AMOUNT);
+        payOnline.setCurrency("RON");
+        payOnline.setDescription("Online payment");
+        payOnline.setCommerciant(COMMERCIANTS[index % COMMERCIANTS.length][0]);
+        return payOnline;
+    }
+
+    private static CommandInput command(final String name) {
+        CommandInput commandInput = new CommandInput();
+        commandInput.setCommand(name);
+        return commandInput;
+    }
+
+    /**
+     * Creeaza o plata online cu primul card al unui cont generat.
+     *
+     * @param accountIndex Indexul contului in lista tuturor conturilor clasice.
+     * @return Comanda payOnline, cu timestamp-ul urmator.
+     */
+    public CommandInput nextPayment(final int accountIndex) {
+        int card = (accountIndex % ibans.size()) * cardsPerAccount;
+        CommandInput payOnline = payment(cardOwners.get(card), cardNumbers.get(card),
+                accountIndex);
+        payOnline.setTimestamp(++timestamp);
+        return payOnline;
+    }
+
+    /**
+     * Creeaza un transfer intre doua conturi generate, apartinand unor utilizatori diferiti.
+     *
+     * @param accountIndex Indexul contului sursa in lista tuturor conturilor clasice.
+     * @return Comanda sendMoney, cu timestamp-ul urmator.
+     */
+    public CommandInput nextTransfer(final int accountIndex) {
+        int from = accountIndex % ibans.size();
+        int to = (from + accountsPerUser) % ibans.size();
+        CommandInput sendMoney = command("sendMoney");
+        sendMoney.setEmail(emails.get(from / accountsPerUser));
+        sendMoney.setAccount(ibans.get(from));
+        sendMoney.setReceiver(ibans.get(to));
+        sendMoney.setAmount(PAYMENT_AMOUNT);
+        sendMoney.setDescription("Transfer");
+        sendMoney.setTimestamp(++timestamp);
+        return sendMoney;
+    }
+
+    /**
+     * Creeaza o comanda de raport pe tot istoricul unui cont.
+     *
+     * @param name Numele comenzii (report, spendingsReport sau businessReport).
+     * @param iban Contul pentru care se cere raportul.
+     * @return Comanda de raport, cu timestamp-ul urmator.
+     */
+    public CommandInput nextReport(final String name, final String iban) {
+        CommandInput report = command(name);
+        report.setAccount(iban);
+        report.setStartTimestamp(0);
+        report.setEndTimestamp(timestamp);
+        report.setType("transaction");
+        report.setTimestamp(++timestamp);
+        return report;
+    }
+
+    /**
+     * Executa o comanda asupra bancii generate.
+     *
+     * @param commandInput Comanda de executat.
+     * @return Sink-ul cu rezultatele comenzii.
+     */
+    public BufferedOutputSink execute(final CommandInput commandInput) {
+        if (commandInput.getTimestamp() == 0) {
+            commandInput.setTimestamp(++timestamp);
+        }
+        Main.executeCommand(commandInput, bank, output);
+        return output;
+    }
+
+    /**
+     * Goleste rezultatele acumulate de comenzile executate.
+     */
+    public void clearOutput() {
+        output.clear();
+    }
+
+    /**
+     * @return Banca generata.
+     */
+    public Bank getBank() {
+        return bank;
+    }
+
+    /**
+     * @return Convertorul valutar al bancii generate.
+     */
+    public CurrencyConverter getConverter() {
+        return converter;
+    }
+
+    /**
+     * @return Emailurile utilizatorilor generati, in ordinea crearii.
+     */
+    public List<String> getEmails() {
+        return emails;
+    }
+
+    /**
+     * @return IBAN-urile conturilor clasice generate, grupate pe utilizatori.
+     */
+    public List<String> getIbans() {
+        return ibans;
+    }
+
+    /**
+     * @return IBAN-ul contului business.
+     */
+    public String getBusinessIban() {
+        return businessIban;
+    }
+
+    /**
+     * @return Numarul de conturi clasice ale fiecarui utilizator.
+     */
+    public int getAccountsPerUser() {
+        return accountsPerUser;
+    }
+
+    /**
+     * Avanseaza si returneaza timestamp-ul curent.
+     *
+     * @return Timestamp-ul urmator.
+     */
+    public int nextTimestamp() {
+        return ++timestamp;
+    }
+}
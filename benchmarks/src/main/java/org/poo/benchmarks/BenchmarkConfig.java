@@ -0,0 +1,20 @@
+package org.poo.benchmarks;
+
+/**
+ * Setarile comune ale rularilor JMH. Pot fi suprascrise din linia de comanda
+ * (de exemplu -wi, -i, -r, -f).
+ */
+public final class BenchmarkConfig {
+    /** Numarul de iteratii de incalzire. */
+    public static final int WARMUP_ITERATIONS = 3;
+    /** Numarul de iteratii masurate. */
+    public static final int MEASUREMENT_ITERATIONS = 5;
+    /** Durata unei iteratii, in secunde. */
+    public static final int ITERATION_SECONDS = 1;
+
+    /**
+     * for coding style
+     */
+    private BenchmarkConfig() {
+    }
+}
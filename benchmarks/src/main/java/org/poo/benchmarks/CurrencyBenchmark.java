@@ -0,0 +1,92 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.banking.Currency;
+import org.poo.banking.CurrencyConverter;
+import org.poo.banking.Graph;
+import org.poo.fileio.ExchangeInput;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara cautarea drumului in graful de conversie (Graph.getPath) cu tabela
+ * precalculata din CurrencyConverter, pentru toate perechile de monede.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = BenchmarkConfig.WARMUP_ITERATIONS,
+        time = BenchmarkConfig.ITERATION_SECONDS)
+@Measurement(iterations = BenchmarkConfig.MEASUREMENT_ITERATIONS,
+        time = BenchmarkConfig.ITERATION_SECONDS)
+@Fork(1)
+public class CurrencyBenchmark {
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private Graph<Currency> graph;
+    private CurrencyConverter converter;
+
+    /**
+     * Construieste graful si convertorul din ratele folosite de populatia generata.
+     */
+    @Setup
+    public void setup() {
+        graph = new Graph<>();
+        for (ExchangeInput exchangeInput : BankPopulation.generateExchangeRates()) {
+            Currency from = Currency.valueOf(exchangeInput.getFrom());
+            Currency to = Currency.valueOf(exchangeInput.getTo());
+            graph.addEdge(from, to, exchangeInput.getRate());
+            graph.addEdge(to, from, 1.0 / exchangeInput.getRate());
+        }
+        converter = new CurrencyConverter(graph);
+    }
+
+    /**
+     * Conversie prin cautarea drumului in graf si inmultirea ratelor.
+     *
+     * @return Suma ratelor tuturor perechilor.
+     */
+    @Benchmark
+    public double graphPath() {
+        double total = 0;
+        for (Currency from : CURRENCIES) {
+            for (Currency to : CURRENCIES) {
+                ArrayList<Graph<Currency>.Edge> path = graph.getPath(from, to);
+                double rate = 1.0;
+                if (path != null) {
+                    for (Graph<Currency>.Edge edge : path) {
+                        rate *= edge.getCost();
+                    }
+                }
+                total += rate;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Conversie prin tabela densa de rate.
+     *
+     * @return Suma ratelor tuturor perechilor.
+     */
+    @Benchmark
+    public double converterLookup() {
+        double total = 0;
+        for (Currency from : CURRENCIES) {
+            for (Currency to : CURRENCIES) {
+                total += converter.getRate(from, to);
+            }
+        }
+        return total;
+    }
+}
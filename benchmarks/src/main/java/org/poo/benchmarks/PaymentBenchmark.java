@@ -0,0 +1,55 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.fileio.BufferedOutputSink;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark-uri pentru comenzile de plata: payOnline si sendMoney.
+ * Fiecare invocare foloseste urmatorul cont din populatie, deci cautarile
+ * de carduri si conturi nu lovesc mereu aceleasi intrari.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = BenchmarkConfig.WARMUP_ITERATIONS,
+        time = BenchmarkConfig.ITERATION_SECONDS)
+@Measurement(iterations = BenchmarkConfig.MEASUREMENT_ITERATIONS,
+        time = BenchmarkConfig.ITERATION_SECONDS)
+@Fork(1)
+public class PaymentBenchmark {
+    private int next;
+
+    /**
+     * Plata online cu un card al urmatorului cont.
+     *
+     * @param population Populatia generata.
+     * @return Rezultatele comenzii.
+     */
+    @Benchmark
+    public BufferedOutputSink payOnline(final BankPopulation population) {
+        population.clearOutput();
+        return population.execute(population.nextPayment(next++));
+    }
+
+    /**
+     * Transfer din urmatorul cont catre contul unui alt utilizator.
+     *
+     * @param population Populatia generata.
+     * @return Rezultatele comenzii.
+     */
+    @Benchmark
+    public BufferedOutputSink sendMoney(final BankPopulation population) {
+        population.clearOutput();
+        return population.execute(population.nextTransfer(next++));
+    }
+}
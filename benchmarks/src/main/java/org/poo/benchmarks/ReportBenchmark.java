@@ -0,0 +1,73 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.fileio.BufferedOutputSink;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark-uri pentru rapoarte: report, spendingsReport si businessReport.
+ * Fiecare raport acopera tot istoricul generat al contului.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = BenchmarkConfig.WARMUP_ITERATIONS,
+        time = BenchmarkConfig.ITERATION_SECONDS)
+@Measurement(iterations = BenchmarkConfig.MEASUREMENT_ITERATIONS,
+        time = BenchmarkConfig.ITERATION_SECONDS)
+@Fork(1)
+public class ReportBenchmark {
+    private int next;
+
+    private String nextIban(final BankPopulation population) {
+        next = (next + 1) % population.getIbans().size();
+        return population.getIbans().get(next);
+    }
+
+    /**
+     * Raportul de tranzactii al urmatorului cont.
+     *
+     * @param population Populatia generata.
+     * @return Rezultatele comenzii.
+     */
+    @Benchmark
+    public BufferedOutputSink report(final BankPopulation population) {
+        population.clearOutput();
+        return population.execute(population.nextReport("report", nextIban(population)));
+    }
+
+    /**
+     * Raportul de cheltuieli pe comercianti al urmatorului cont.
+     *
+     * @param population Populatia generata.
+     * @return Rezultatele comenzii.
+     */
+    @Benchmark
+    public BufferedOutputSink spendingsReport(final BankPopulation population) {
+        population.clearOutput();
+        return population.execute(population.nextReport("spendingsReport",
+                nextIban(population)));
+    }
+
+    /**
+     * Raportul de tranzactii al contului business.
+     *
+     * @param population Populatia generata.
+     * @return Rezultatele comenzii.
+     */
+    @Benchmark
+    public BufferedOutputSink businessReport(final BankPopulation population) {
+        population.clearOutput();
+        return population.execute(population.nextReport("businessReport",
+                population.getBusinessIban()));
+    }
+}
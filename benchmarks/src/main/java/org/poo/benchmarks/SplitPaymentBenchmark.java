@@ -0,0 +1,81 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.banking.Bank;
+import org.poo.banking.ClassicAccount;
+import org.poo.banking.Currency;
+import org.poo.banking.SplitPaymentEvent;
+import org.poo.banking.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark pentru SplitPaymentEvent.accept: toti participantii accepta, iar ultima
+ * acceptare retrage sumele si adauga tranzactiile in istoricul fiecarui participant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = BenchmarkConfig.WARMUP_ITERATIONS,
+        time = BenchmarkConfig.ITERATION_SECONDS)
+@Measurement(iterations = BenchmarkConfig.MEASUREMENT_ITERATIONS,
+        time = BenchmarkConfig.ITERATION_SECONDS)
+@Fork(1)
+public class SplitPaymentBenchmark {
+    /** Numarul maxim de participanti la o plata distribuita. */
+    public static final int MAX_PARTICIPANTS = 20;
+
+    private final List<User> participants = new ArrayList<>();
+    private SplitPaymentEvent event;
+
+    /**
+     * Creeaza o plata distribuita noua, cu primul cont al fiecarui participant.
+     *
+     * @param population Populatia generata.
+     */
+    @Setup(Level.Invocation)
+    public void createEvent(final BankPopulation population) {
+        Bank bank = population.getBank();
+        List<String> emails = population.getEmails();
+        int count = Math.min(emails.size(), MAX_PARTICIPANTS);
+
+        participants.clear();
+        List<ClassicAccount> accounts = new ArrayList<>();
+        List<Double> amounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = bank.getUserByEmail(emails.get(i));
+            participants.add(user);
+            accounts.add(bank.getAccountByIban(
+                    population.getIbans().get(i * population.getAccountsPerUser())));
+            amounts.add(BankPopulation.PAYMENT_AMOUNT);
+        }
+        event = new SplitPaymentEvent(Currency.RON, accounts,
+                BankPopulation.PAYMENT_AMOUNT * count, amounts, "custom",
+                population.nextTimestamp(), bank, population.getConverter());
+    }
+
+    /**
+     * Acceptarea platii de catre toti participantii.
+     *
+     * @return Evenimentul procesat.
+     */
+    @Benchmark
+    public SplitPaymentEvent acceptAll() {
+        for (User user : participants) {
+            event.accept(user);
+        }
+        return event;
+    }
+}
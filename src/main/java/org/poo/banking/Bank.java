@@ -1,18 +1,46 @@
 package org.poo.banking;
 
 import org.poo.commerciants.Commerciant;
+import org.poo.commerciants.CommerciantRegistry;
+import org.poo.metrics.Metrics;
+import org.poo.observer.EventBus;
+import org.poo.observer.PlanUpgradeObserver;
+import org.poo.utils.Identifiers;
+import org.poo.utils.LongHashMap;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public final class Bank {
+public final class Bank implements AutoCloseable {
     private static Bank instance;
     private List<User> users;
-    private List<Commerciant> commerciants;
+    private final CommerciantRegistry commerciants;
+
+    // indecsi pentru cautari in O(1); se actualizeaza doar prin metodele bancii.
+    // IBAN-urile si numerele de card sunt chei long (vezi Identifiers)
+    private final Map<String, User> usersByEmail;
+    private final LongHashMap<ClassicAccount> accountsByIban;
+    private final LongHashMap<User> ownersByIban;
+    private final LongHashMap<ClassicCard> cardsByNumber;
+    private final LongHashMap<ClassicAccount> accountsByCardNumber;
+    private final EventBus eventBus;
+    private final Metrics metrics = new Metrics();
+    private final SplitPaymentCoordinator splitPayments;
 
     private Bank() {
         users = new ArrayList<>();
-        commerciants = new ArrayList<>();
+        commerciants = new CommerciantRegistry();
+        usersByEmail = new HashMap<>();
+        accountsByIban = new LongHashMap<>();
+        ownersByIban = new LongHashMap<>();
+        cardsByNumber = new LongHashMap<>();
+        accountsByCardNumber = new LongHashMap<>();
+        eventBus = new EventBus(EventBus.DEFAULT_CAPACITY);
+        eventBus.subscribe(new PlanUpgradeObserver(this));
+        eventBus.subscribe(event -> metrics.recordTransactionAppended());
+        splitPayments = new SplitPaymentCoordinator();
     }
 
     /**
@@ -28,6 +56,15 @@ public final class Bank {
         return instance;
     }
 
+    /**
+     * Creeaza o banca noua, independenta de instanta globala.
+     * Folosita cand mai multe fisiere sunt procesate in paralel, fiecare cu banca lui.
+     * @return o banca noua, goala.
+     */
+    public static Bank createInstance() {
+        return new Bank();
+    }
+
     /**
      * Gaseste un utilizator pe baza unui IBAN al unui cont.
      *
@@ -35,14 +72,10 @@ public final class Bank {
      * @return utilizatorul care detine contul sau null daca nu este gasit.
      */
     public User getUserByAccount(final String iban) {
-        for (User user : users) {
-            for (ClassicAccount account : user.getAccounts()) {
-                if (account.getIban().equals(iban)) {
-                    return user;
-                }
-            }
+        if (iban == null) {
+            return null;
         }
-        return null;
+        return recordMiss(ownersByIban.get(Identifiers.encodeIban(iban)));
     }
 
     /**
@@ -52,13 +85,10 @@ public final class Bank {
      * @return contul clasic gasit sau null daca nu este gasit.
      */
     public ClassicAccount getAccountByIban(final String iban) {
-        for (User user : users) {
-            ClassicAccount account = user.getAccountByIban(iban);
-            if (account != null) {
-                return account;
-            }
+        if (iban == null) {
+            return null;
         }
-        return null;
+        return recordMiss(accountsByIban.get(Identifiers.encodeIban(iban)));
     }
 
     /**
@@ -68,12 +98,11 @@ public final class Bank {
      * @return utilizatorul care detine cardul sau null daca nu este gasit.
      */
     public User getUserByCardNumber(final String cardNumber) {
-        for (User user : users) {
-            if (user.getCardByNumber(cardNumber) != null) {
-                return user;
-            }
+        ClassicAccount account = getAccountByCardNumber(cardNumber);
+        if (account == null) {
+            return null;
         }
-        return null;
+        return ownersByIban.get(Identifiers.encodeIban(account.getIban()));
     }
 
     /**
@@ -83,13 +112,10 @@ public final class Bank {
      * @return cardul clasic gasit sau null daca nu este gasit.
      */
     public ClassicCard getCardByNumber(final String cardNumber) {
-        for (User user : users) {
-            ClassicCard card = user.getCardByNumber(cardNumber);
-            if (card != null) {
-                return card;
-            }
+        if (cardNumber == null) {
+            return null;
         }
-        return null;
+        return recordMiss(cardsByNumber.get(Identifiers.encodeCardNumber(cardNumber)));
     }
 
     /**
@@ -99,20 +125,73 @@ public final class Bank {
      * @return utilizatorul gasit sau null daca nu este gasit.
      */
     public User getUserByEmail(final String email) {
-        for (User user : users) {
-            if (email != null && email.equals(user.getEmail())) {
-                return user;
-            }
+        if (email == null) {
+            return null;
+        }
+        return recordMiss(usersByEmail.get(email));
+    }
+
+    /**
+     * Numara in {@link Metrics} rezultatul unei cautari intr-un index daca nu a fost gasit.
+     */
+    private <T> T recordMiss(final T value) {
+        if (value == null) {
+            metrics.recordIndexMiss();
         }
-        return null;
+        return value;
+    }
+
+    /**
+     * Returneaza magistrala de evenimente a bancii, observatorul fiecarui utilizator.
+     *
+     * @return Magistrala de evenimente.
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Returneaza metricile rularii curente a bancii; sunt golite de {@link #reset()}.
+     *
+     * @return Metricile bancii.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returneaza indexul platilor impartite in asteptare.
+     *
+     * @return Coordonatorul platilor impartite.
+     */
+    public SplitPaymentCoordinator getSplitPayments() {
+        return splitPayments;
     }
 
     /**
-     * Reseteaza lista de utilizatori.
+     * Reseteaza lista de utilizatori si metricile, dupa ce evenimentele asincrone in
+     * asteptare au fost livrate. Abonatii magistralei de evenimente raman.
      */
     public void reset() {
+        eventBus.flush();
+        metrics.reset();
         users.clear();
         commerciants.clear();
+        usersByEmail.clear();
+        accountsByIban.clear();
+        ownersByIban.clear();
+        cardsByNumber.clear();
+        accountsByCardNumber.clear();
+        splitPayments.clear();
+    }
+
+    /**
+     * Livreaza evenimentele asincrone ramase si opreste firul magistralei de evenimente.
+     * Bancile create cu {@link #createInstance()} trebuie inchise dupa folosire.
+     */
+    @Override
+    public void close() {
+        eventBus.close();
     }
 
     /**
@@ -131,23 +210,130 @@ public final class Bank {
      */
     public void addUser(final User user) {
         users.add(user);
+        usersByEmail.putIfAbsent(user.getEmail(), user);
+        for (ClassicAccount account : user.getAccounts()) {
+            indexAccount(user, account);
+        }
+    }
+
+    /**
+     * Deschide un cont nou pentru utilizator si il inregistreaza in indecsii bancii.
+     *
+     * @param user utilizatorul care detine contul.
+     * @param account contul de adaugat.
+     */
+    public void addAccount(final User user, final ClassicAccount account) {
+        user.addAccount(account);
+        indexAccount(user, account);
+    }
+
+    /**
+     * Sterge contul utilizatorului (daca nu mai are fonduri) impreuna cu cardurile lui
+     * din indecsii bancii.
+     *
+     * @param user utilizatorul care detine contul.
+     * @param iban IBAN-ul contului de sters.
+     * @return true daca stergerea a fost realizata, altfel false.
+     */
+    public boolean deleteAccount(final User user, final String iban) {
+        ClassicAccount account = user.getAccountByIban(iban);
+        if (!user.deleteAccountByIban(iban)) {
+            return false;
+        }
+        long ibanId = Identifiers.encodeIban(iban);
+        accountsByIban.remove(ibanId);
+        ownersByIban.remove(ibanId);
+        for (ClassicCard card : account.getCards()) {
+            cardsByNumber.remove(card.getCardId());
+            accountsByCardNumber.remove(card.getCardId());
+        }
+        return true;
     }
 
     /**
-     * Adauga un comerciant in lista comerciantilor.
+     * Adauga un card in cont si il inregistreaza in indecsii bancii.
+     *
+     * @param account contul caruia i se adauga cardul.
+     * @param card cardul de adaugat.
+     */
+    public void addCard(final ClassicAccount account, final ClassicCard card) {
+        account.addCard(card);
+        cardsByNumber.put(card.getCardId(), card);
+        accountsByCardNumber.put(card.getCardId(), account);
+    }
+
+    /**
+     * Sterge un card din cont si din indecsii bancii.
+     *
+     * @param account contul care detine cardul.
+     * @param cardNumber numarul cardului de sters.
+     * @return true daca cardul a fost sters, false daca nu a fost gasit in cont.
+     */
+    public boolean deleteCard(final ClassicAccount account, final String cardNumber) {
+        if (!account.deleteCardByNumber(cardNumber)) {
+            return false;
+        }
+        long cardId = Identifiers.encodeCardNumber(cardNumber);
+        cardsByNumber.remove(cardId);
+        accountsByCardNumber.remove(cardId);
+        return true;
+    }
+
+    /**
+     * Schimba numarul unui card (ex. dupa folosirea unui OneTimeCard) pastrand
+     * indecsii bancii consistenti.
+     *
+     * @param card cardul care primeste numar nou.
+     * @param newCardNumber noul numar al cardului.
+     */
+    public void changeCardNumber(final ClassicCard card, final String newCardNumber) {
+        long oldCardId = card.getCardId();
+        ClassicAccount account = accountsByCardNumber.remove(oldCardId);
+        cardsByNumber.remove(oldCardId);
+        card.setCardNumber(newCardNumber);
+        cardsByNumber.put(card.getCardId(), card);
+        if (account != null) {
+            accountsByCardNumber.put(card.getCardId(), account);
+        }
+    }
+
+    private void indexAccount(final User user, final ClassicAccount account) {
+        long ibanId = Identifiers.encodeIban(account.getIban());
+        if (ibanId == Identifiers.INVALID) {
+            throw new IllegalArgumentException("Invalid IBAN: " + account.getIban());
+        }
+        accountsByIban.putIfAbsent(ibanId, account);
+        ownersByIban.putIfAbsent(ibanId, user);
+        for (ClassicCard card : account.getCards()) {
+            cardsByNumber.put(card.getCardId(), card);
+            accountsByCardNumber.put(card.getCardId(), account);
+        }
+    }
+
+    /**
+     * Adauga un comerciant in registrul comerciantilor.
      *
      * @param commerciant Comerciantul care urmeaza sa fie adaugat.
      */
     public void addCommerciant(final Commerciant commerciant) {
-        commerciants.add(commerciant);
+        commerciants.register(commerciant);
     }
 
     /**
      * Returneaza lista comerciantilor.
      *
-     * @return O lista cu toti comerciantii disponibili.
+     * @return O lista nemodificabila cu toti comerciantii, in ordinea adaugarii.
      */
     public List<Commerciant> getCommerciants() {
+        return commerciants.all();
+    }
+
+    /**
+     * Returneaza registrul comerciantilor, care atribuie fiecaruia un id dens.
+     *
+     * @return Registrul comerciantilor.
+     */
+    public CommerciantRegistry getCommerciantRegistry() {
         return commerciants;
     }
 
@@ -161,12 +347,7 @@ public final class Bank {
         if (name == null || name.isEmpty()) {
             return null;
         }
-        for (Commerciant commerciant : commerciants) {
-            if (commerciant.getName().equals(name)) {
-                return commerciant;
-            }
-        }
-        return null;
+        return recordMiss(commerciants.getByName(name));
     }
 
     /**
@@ -179,44 +360,79 @@ public final class Bank {
         if (account == null || account.isEmpty()) {
             return null;
         }
-        for (Commerciant commerciant : commerciants) {
-            if (commerciant.getAccount().equals(account)) {
-                return commerciant;
-            }
-        }
-        return null;
+        return recordMiss(commerciants.getByIban(account));
     }
 
     /**
      * Returneaza contul clasic asociat cu un numar de card specificat.
      *
-     * Metoda parcurge toti utilizatorii si toate conturile lor pentru a gasi
-     * contul care contine cardul cu numarul specificat.
+     * Cautarea se face in indexul card -> cont, actualizat la crearea,
+     * stergerea si renumerotarea cardurilor.
      *
      * @param cardNumber Numarul cardului cautat. Nu poate fi null.
      * @return Contul clasic care contine cardul cu numarul specificat sau null daca nu este gasit.
      */
     public ClassicAccount getAccountByCardNumber(final String cardNumber) {
-        // itereaza toti userii, toate conturile,
-        // cauta contul care contine cardNumber în .getCards().
-        for (User u : users) {
-            for (ClassicAccount acc : u.getAccounts()) {
-                if (acc.getCardByNumber(cardNumber) != null) {
-                    return acc;
-                }
-            }
+        if (cardNumber == null) {
+            return null;
         }
-        return null; // nu e găsit
+        return recordMiss(accountsByCardNumber.get(Identifiers.encodeCardNumber(cardNumber)));
+    }
+
+    /**
+     * Returneaza contul care contine cardul dat, fara conversia numarului in String.
+     *
+     * @param card Cardul cautat.
+     * @return Contul care contine cardul sau null daca nu este gasit.
+     */
+    public ClassicAccount getAccountByCard(final ClassicCard card) {
+        return recordMiss(accountsByCardNumber.get(card.getCardId()));
     }
 
     private Graph<Currency> currencyGraph; // = null initial
+    private CurrencyConverter currencyConverter;
+    private volatile FeeSchedule feeSchedule;
 
     public Graph<Currency> getCurrencyGraph() {
         return currencyGraph;
     }
 
+    /**
+     * Seteaza graful de conversie valutara si reconstruieste tabela de rate
+     * derivata din el. Tabela de comisioane este invalidata si recalculata la
+     * prima folosire.
+     *
+     * @param currencyGraph Graful de conversie valutara.
+     */
     public void setCurrencyGraph(final Graph<Currency> currencyGraph) {
         this.currencyGraph = currencyGraph;
+        this.currencyConverter = new CurrencyConverter(currencyGraph, metrics);
+        this.feeSchedule = null;
+    }
+
+    /**
+     * Returneaza tabela de rate construita din graful de conversie curent.
+     *
+     * @return Convertorul valutar al bancii.
+     */
+    public CurrencyConverter getCurrencyConverter() {
+        return currencyConverter;
+    }
+
+    /**
+     * Returneaza tabela de comisioane pentru ratele de schimb curente, construind-o
+     * la prima folosire dupa {@link #setCurrencyGraph(Graph)}. Tabela nu se modifica
+     * dupa construire, deci o constructie dubla din fire diferite nu are efect.
+     *
+     * @return Tabela de comisioane a bancii.
+     */
+    public FeeSchedule getFeeSchedule() {
+        FeeSchedule schedule = feeSchedule;
+        if (schedule == null) {
+            schedule = new FeeSchedule(currencyConverter);
+            feeSchedule = schedule;
+        }
+        return schedule;
     }
 
 }
@@ -1,14 +1,17 @@
 package org.poo.banking;
 
 import org.poo.transactions.BusinessTransaction;
-import org.poo.transactions.TransactionType;
+import org.poo.utils.Identifiers;
+import org.poo.utils.LongHashMap;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Reprezinta un cont de business care extinde clasa ClassicAccount.
@@ -19,13 +22,16 @@ public class BusinessAccount extends ClassicAccount {
 
     private static final double DEFAULT_LIMIT_INCASARE = 500.0;
     private static final double DEFAULT_LIMIT_TRANSFER = 500.0;
+    private final Bank bank;
     private String ownerEmail;
     private Set<String> employees;
     private Set<String> managers;
     private Map<String, Double> defaultLimits;
     private Map<String, Double> customLimits;
-    private Map<String, String> cardOwnership;
+    private LongHashMap<String> cardOwnership;
     private List<BusinessTransaction> businessTransactions;
+    private Map<String, MemberLedger> memberLedgers;
+    private Map<String, CommerciantLedger> commerciantLedgers;
 
     /**
      * Constructor pentru crearea unui cont de business.
@@ -33,16 +39,20 @@ public class BusinessAccount extends ClassicAccount {
      * @param iban IBAN-ul contului.
      * @param currency Moneda contului.
      * @param ownerEmail Email-ul proprietarului contului.
+     * @param bank Banca din care face parte contul (pentru conversia limitelor).
      */
     public BusinessAccount(final String iban, final Currency currency,
-                           final String ownerEmail) {
+                           final String ownerEmail, final Bank bank) {
         super(iban, currency);
         this.ownerEmail = ownerEmail;
+        this.bank = bank;
 
         this.employees = new LinkedHashSet<>();
         this.managers = new LinkedHashSet<>();
-        this.cardOwnership = new HashMap<>();
+        this.cardOwnership = new LongHashMap<>();
         this.businessTransactions = new ArrayList<>();
+        this.memberLedgers = new HashMap<>();
+        this.commerciantLedgers = new TreeMap<>();
 
         this.defaultLimits = new HashMap<>();
         defaultLimits.put("incasare", DEFAULT_LIMIT_INCASARE);
@@ -172,23 +182,8 @@ public class BusinessAccount extends ClassicAccount {
      * @return Valoarea convertita.
      */
     private double convertRonToCurrency(final double ron, final Currency targetCurrency) {
-        if (targetCurrency == Currency.RON) {
-            return ron;
-        }
-
-        Graph<Currency> graph = Bank.getInstance().getCurrencyGraph();
-
-        ArrayList<Graph<Currency>.Edge> path = graph.getPath(Currency.RON, targetCurrency);
-        if (path == null) {
-            return ron;
-        }
-
-        double rate = 1.0;
-        for (Graph<Currency>.Edge edge : path) {
-            rate *= edge.getCost();
-        }
-
-        return ron * rate;
+        CurrencyConverter converter = bank.getCurrencyConverter();
+        return converter.convert(ron, Currency.RON, targetCurrency);
     }
 
     /**
@@ -219,7 +214,7 @@ public class BusinessAccount extends ClassicAccount {
      * @param createdByEmail Email-ul utilizatorului care a creat cardul.
      */
     public void recordCardCreation(final String cardNumber, final String createdByEmail) {
-        cardOwnership.put(cardNumber, createdByEmail);
+        cardOwnership.put(Identifiers.requireCardNumber(cardNumber), createdByEmail);
     }
 
     /**
@@ -233,7 +228,7 @@ public class BusinessAccount extends ClassicAccount {
         if (isOwner(requesterEmail) || isManager(requesterEmail)) {
             return true;
         }
-        String cardCreator = cardOwnership.get(cardNumber);
+        String cardCreator = cardOwnership.get(Identifiers.encodeCardNumber(cardNumber));
         return (cardCreator != null && cardCreator.equals(requesterEmail));
     }
 
@@ -244,10 +239,13 @@ public class BusinessAccount extends ClassicAccount {
      */
     public void logTransaction(final BusinessTransaction trx) {
         businessTransactions.add(trx);
+        memberLedgers.computeIfAbsent(trx.getUserEmail(), email -> new MemberLedger())
+                .add(trx.getType(), trx.getTimestamp(), trx.getAmount());
     }
 
     /**
-     * Calculeaza suma cheltuita de un utilizator intr-un interval de timp specific.
+     * Calculeaza suma cheltuita de un utilizator intr-un interval de timp specific,
+     * din sumele prefix ale utilizatorului (cost logaritmic in numarul de timestamp-uri).
      *
      * @param userEmail Email-ul utilizatorului.
      * @param startTs Timpul de inceput (timestamp).
@@ -255,24 +253,13 @@ public class BusinessAccount extends ClassicAccount {
      * @return Suma cheltuita.
      */
     public double getSpentForUser(final String userEmail, final int startTs, final int endTs) {
-        double spent = 0.0;
-        for (BusinessTransaction trx : businessTransactions) {
-            if (!trx.getUserEmail().equals(userEmail)) {
-                continue;
-            }
-            int ts = trx.getTimestamp();
-            if (ts < startTs || ts > endTs) {
-                continue;
-            }
-            if (trx.getType() == TransactionType.SPENT) {
-                spent += trx.getAmount();
-            }
-        }
-        return spent;
+        MemberLedger ledger = memberLedgers.get(userEmail);
+        return ledger == null ? 0.0 : ledger.getSpent(startTs, endTs);
     }
 
     /**
-     * Calculeaza suma depusa de un utilizator intr-un interval de timp specific.
+     * Calculeaza suma depusa de un utilizator intr-un interval de timp specific,
+     * din sumele prefix ale utilizatorului (cost logaritmic in numarul de timestamp-uri).
      *
      * @param userEmail Email-ul utilizatorului.
      * @param startTs Timpul de inceput (timestamp).
@@ -281,20 +268,144 @@ public class BusinessAccount extends ClassicAccount {
      */
     public double getDepositedForUser(final String userEmail, final int startTs,
                                       final int endTs) {
-        double dep = 0.0;
-        for (BusinessTransaction trx : businessTransactions) {
-            if (!trx.getUserEmail().equals(userEmail)) {
-                continue;
+        MemberLedger ledger = memberLedgers.get(userEmail);
+        return ledger == null ? 0.0 : ledger.getDeposited(startTs, endTs);
+    }
+
+    /**
+     * Inregistreaza plata unui asociat catre un comerciant, pentru raportul
+     * "commerciant".
+     *
+     * @param commerciant Numele comerciantului.
+     * @param email Email-ul asociatului care a platit.
+     * @param timestamp Timestamp-ul platii.
+     * @param amount Suma platita, in moneda contului.
+     */
+    public void recordCommerciantPayment(final String commerciant, final String email,
+                                         final int timestamp, final double amount) {
+        commerciantLedgers.computeIfAbsent(commerciant, name -> new CommerciantLedger())
+                .add(email, timestamp, amount);
+    }
+
+    /**
+     * Calculeaza statisticile comerciantilor intr-un interval de timp, in ordinea
+     * alfabetica a comerciantilor. Sunt luate in calcul doar platile managerilor si
+     * angajatilor curenti; comerciantii fara astfel de plati in interval sunt omisi.
+     * Totalurile vin din sumele prefix ale fiecarui asociat, iar platile din interval
+     * sunt gasite prin cautare binara, deci istoricul nu este parcurs.
+     *
+     * @param startTs Timpul de inceput (timestamp).
+     * @param endTs Timpul de sfarsit (timestamp).
+     * @return Statisticile comerciantilor.
+     */
+    public List<CommerciantStatistics> getCommerciantStatistics(final int startTs,
+                                                                final int endTs) {
+        List<CommerciantStatistics> statistics = new ArrayList<>();
+        for (Map.Entry<String, CommerciantLedger> entry : commerciantLedgers.entrySet()) {
+            CommerciantLedger ledger = entry.getValue();
+            long total = 0;
+            for (Map.Entry<String, MemberLedger> member : ledger.getMembers().entrySet()) {
+                if (alreadyEmployeeOrManager(member.getKey())) {
+                    total = Money.add(total, member.getValue().getSpentUnits(startTs, endTs));
+                }
             }
-            int ts = trx.getTimestamp();
-            if (ts < startTs || ts > endTs) {
-                continue;
+            List<String> paidManagers = new ArrayList<>();
+            List<String> paidEmployees = new ArrayList<>();
+            int to = ledger.upperBound(endTs);
+            for (int i = ledger.upperBound(startTs - 1); i < to; i++) {
+                String payer = ledger.getPayer(i);
+                if (isManager(payer)) {
+                    paidManagers.add(payer);
+                } else if (isEmployee(payer)) {
+                    paidEmployees.add(payer);
+                }
             }
-            if (trx.getType() == TransactionType.DEPOSIT) {
-                dep += trx.getAmount();
+            if (!paidManagers.isEmpty() || !paidEmployees.isEmpty()) {
+                statistics.add(new CommerciantStatistics(entry.getKey(), Money.toDouble(total),
+                        paidManagers, paidEmployees));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Returneaza numarul platilor catre comercianti inregistrate.
+     *
+     * @return Numarul platilor.
+     */
+    public int getCommerciantPaymentCount() {
+        int count = 0;
+        for (CommerciantLedger ledger : commerciantLedgers.values()) {
+            count += ledger.size();
+        }
+        return count;
+    }
+
+    /**
+     * Parcurge platile catre comercianti, pe comercianti in ordine alfabetica si, pentru
+     * fiecare comerciant, in ordinea timestamp-urilor.
+     *
+     * @param consumer Primeste fiecare plata.
+     */
+    public void forEachCommerciantPayment(final CommerciantPaymentConsumer consumer) {
+        for (Map.Entry<String, CommerciantLedger> entry : commerciantLedgers.entrySet()) {
+            CommerciantLedger ledger = entry.getValue();
+            for (int i = 0; i < ledger.size(); i++) {
+                consumer.accept(entry.getKey(), ledger.getPayer(i), ledger.getTimestamp(i),
+                        ledger.getAmount(i));
             }
         }
-        return dep;
+    }
+
+    /**
+     * Primeste platile parcurse de {@link #forEachCommerciantPayment}.
+     */
+    @FunctionalInterface
+    public interface CommerciantPaymentConsumer {
+        /**
+         * @param commerciant Numele comerciantului.
+         * @param email Email-ul asociatului care a platit.
+         * @param timestamp Timestamp-ul platii.
+         * @param amount Suma platita, in moneda contului.
+         */
+        void accept(String commerciant, String email, int timestamp, double amount);
+    }
+
+    /**
+     * Returneaza limitele stabilite explicit pentru angajati, pe tip de tranzactie.
+     *
+     * @return Vedere nemodificabila asupra limitelor.
+     */
+    public Map<String, Double> getCustomLimits() {
+        return Collections.unmodifiableMap(customLimits);
+    }
+
+    /**
+     * Returneaza numarul cardurilor create in cont.
+     *
+     * @return Numarul asocierilor card - creator.
+     */
+    public int getCardOwnershipCount() {
+        return cardOwnership.size();
+    }
+
+    /**
+     * Parcurge asocierile card - creator: numarul cardului (codificat, vezi
+     * {@link Identifiers}) si email-ul celui care l-a creat.
+     *
+     * @param consumer Primeste fiecare asociere.
+     */
+    public void forEachCardOwnership(final LongHashMap.EntryConsumer<String> consumer) {
+        cardOwnership.forEach(consumer);
+    }
+
+    /**
+     * Returneaza tranzactiile asociatilor, in ordinea logarii.
+     *
+     * @return Vedere nemodificabila asupra tranzactiilor.
+     */
+    public List<BusinessTransaction> getBusinessTransactions() {
+        return Collections.unmodifiableList(businessTransactions);
     }
 
     /**
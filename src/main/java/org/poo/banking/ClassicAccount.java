@@ -1,22 +1,34 @@
 package org.poo.banking;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.poo.utils.Identifiers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Getter
 public class ClassicAccount {
     private String iban;
-    private double balance;
+    // soldul si pragul de cheltuieli sunt pastrate in virgula fixa (vezi Money)
+    private volatile long balanceUnits;
+    // modificarile soldului se fac sub acest lock; Settlement il tine pe durata unei decontari
+    @Getter(AccessLevel.PACKAGE)
+    private final ReentrantLock lock = new ReentrantLock();
     private double minimumBalance;
     private Currency currency;
     private List<ClassicCard> cards;
 
-    private Map<String, Integer> transactionCommerciants;
-    private double totalSpendingThreshold; //
+    /** Numarul de plati la fiecare comerciant, indexat dupa id-ul dens al acestuia. */
+    @Getter(AccessLevel.NONE)
+    private int[] commerciantTransactionCounts;
+    /** Platile cu cardul din cont, inregistrate in istoricul proprietarului. */
+    private final CommerciantSpendings commerciantSpendings = new CommerciantSpendings();
+    private long totalSpendingThresholdUnits;
     private boolean gotFoodCashback = false;
     private boolean gotClothesCashback = false;
     private boolean gotTechCashback = false;
@@ -24,11 +36,11 @@ public class ClassicAccount {
 
     public ClassicAccount(final String iban, final Currency currency) {
         this.iban = iban;
-        this.balance = 0;
+        this.balanceUnits = 0;
         this.currency = currency;
         cards = new ArrayList<>();
-        this.transactionCommerciants = new HashMap<>();
-        this.totalSpendingThreshold = 0.0;
+        this.commerciantTransactionCounts = new int[0];
+        this.totalSpendingThresholdUnits = 0;
         this.cashbacks = new HashMap<>();
     }
 
@@ -38,7 +50,16 @@ public class ClassicAccount {
      * @return Pragul total de cheltuieli.
      */
     public double getTotalSpendingThreshold() {
-        return totalSpendingThreshold;
+        return Money.toDouble(totalSpendingThresholdUnits);
+    }
+
+    /**
+     * Returneaza pragul total de cheltuieli in unitati {@link Money}.
+     *
+     * @return Pragul total de cheltuieli, in unitati.
+     */
+    public long getTotalSpendingThresholdUnits() {
+        return totalSpendingThresholdUnits;
     }
 
     /**
@@ -57,36 +78,57 @@ public class ClassicAccount {
      * @param amount Suma care trebuie adaugata la pragul de cheltuieli.
      */
     public void addSpendingThreshold(final double amount) {
-        this.totalSpendingThreshold += amount;
+        addSpendingThresholdUnits(Money.toUnits(amount));
+    }
+
+    /**
+     * Adauga o suma exprimata in unitati {@link Money} la pragul total de cheltuieli.
+     *
+     * @param units Suma, in unitati.
+     */
+    public void addSpendingThresholdUnits(final long units) {
+        this.totalSpendingThresholdUnits = Money.add(totalSpendingThresholdUnits, units);
     }
 
     /**
      * Returneaza numarul de tranzactii efectuate cu un comerciant specific.
      *
-     * @param name Numele comerciantului.
-     * @return Numarul de tranzactii cu comerciantul respectiv sau null daca nu exista.
+     * @param commerciantId Id-ul dens al comerciantului (vezi
+     *                      {@link org.poo.commerciants.CommerciantRegistry}).
+     * @return Numarul de tranzactii cu comerciantul respectiv (0 daca nu exista).
      */
-    public Integer getTransactionCount(final String name) {
-        if (transactionCommerciants.containsKey(name)) {
-            return transactionCommerciants.get(name);
-        }
-        return null;
+    public int getTransactionCount(final int commerciantId) {
+        return commerciantId < commerciantTransactionCounts.length
+                ? commerciantTransactionCounts[commerciantId] : 0;
+    }
+
+    /**
+     * Seteaza numarul de tranzactii cu un comerciant (la refacerea dintr-un snapshot).
+     *
+     * @param commerciantId Id-ul dens al comerciantului.
+     * @param count Numarul de tranzactii.
+     */
+    public void setTransactionCount(final int commerciantId, final int count) {
+        ensureCommerciantCapacity(commerciantId);
+        commerciantTransactionCounts[commerciantId] = count;
     }
 
     /**
      * Incrementeaza numarul de tranzactii asociate unui comerciant.
-     * Daca comerciantul nu exista, este adaugat cu o valoare initiala de 1.
      *
-     * @param name Numele comerciantului.
+     * @param commerciantId Id-ul dens al comerciantului.
      * @return Numarul actualizat de tranzactii pentru comerciantul respectiv.
      */
-    public Integer incrementTransactionCount(final String name) {
-        if (transactionCommerciants.containsKey(name)) {
-            transactionCommerciants.put(name, transactionCommerciants.get(name) + 1);
-        } else {
-            transactionCommerciants.put(name, 1);
+    public int incrementTransactionCount(final int commerciantId) {
+        ensureCommerciantCapacity(commerciantId);
+        return ++commerciantTransactionCounts[commerciantId];
+    }
+
+    private void ensureCommerciantCapacity(final int commerciantId) {
+        if (commerciantId >= commerciantTransactionCounts.length) {
+            commerciantTransactionCounts = Arrays.copyOf(commerciantTransactionCounts,
+                    Math.max(commerciantId + 1, commerciantTransactionCounts.length * 2));
         }
-        return transactionCommerciants.get(name);
     }
 
     /**
@@ -94,7 +136,67 @@ public class ClassicAccount {
      * @param amount Suma de adaugat.
      */
     public void addFunds(final double amount) {
-        balance += amount;
+        addFundsUnits(Money.toUnits(amount));
+    }
+
+    /**
+     * Adauga o suma exprimata in unitati {@link Money} la soldul contului. Modificarea
+     * asteapta terminarea unei eventuale {@link Settlement} care tine contul blocat.
+     * @param units Suma de adaugat, in unitati.
+     */
+    public void addFundsUnits(final long units) {
+        lock.lock();
+        try {
+            balanceUnits = Money.add(balanceUnits, units);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Debiteaza contul doar daca soldul acopera suma. Verificarea si debitarea se fac sub
+     * lock-ul contului, deci nicio alta debitare nu poate consuma soldul intre ele.
+     * @param amount Suma de debitat, in moneda contului.
+     * @return true daca suma a fost debitata, false daca soldul este insuficient.
+     */
+    public boolean tryDebit(final double amount) {
+        lock.lock();
+        try {
+            if (!canDebitLocked(amount)) {
+                return false;
+            }
+            debitLocked(amount);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Verifica daca soldul acopera suma; apelantul trebuie sa tina lock-ul contului.
+     * @param amount Suma de verificat, in moneda contului.
+     * @return true daca soldul este cel putin egal cu suma.
+     */
+    boolean canDebitLocked(final double amount) {
+        requireLock();
+        return getBalance() >= amount;
+    }
+
+    /**
+     * Scade suma din sold; apelantul trebuie sa tina lock-ul contului, obtinut inainte
+     * de verificarea facuta cu {@link #canDebitLocked(double)}.
+     * @param amount Suma de debitat, in moneda contului.
+     */
+    void debitLocked(final double amount) {
+        requireLock();
+        // rotunjirea se face pe suma negativa, exact ca la addFunds(-amount)
+        balanceUnits = Money.add(balanceUnits, Money.toUnits(-amount));
+    }
+
+    private void requireLock() {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Account lock not held: " + iban);
+        }
     }
 
     /**
@@ -112,8 +214,9 @@ public class ClassicAccount {
      * @return Cardul gasit sau null daca nu este gasit.
      */
     public ClassicCard getCardByNumber(final String cardNumber) {
+        long cardId = Identifiers.encodeCardNumber(cardNumber);
         for (ClassicCard card : cards) {
-            if (card.getCardNumber().equals(cardNumber)) {
+            if (card.getCardId() == cardId) {
                 return card;
             }
         }
@@ -125,7 +228,7 @@ public class ClassicAccount {
      * @param cardNumber Numarul cardului de sters.
      * @return True daca cardul a fost sters, false daca nu a fost gasit.
      */
-    public Boolean deleteCardByNumber(final String cardNumber) {
+    Boolean deleteCardByNumber(final String cardNumber) {
         ClassicCard card = this.getCardByNumber(cardNumber);
         if (card == null) {
             return false;
@@ -138,7 +241,7 @@ public class ClassicAccount {
      * Adauga un card in lista de carduri asociate contului.
      * @param card Cardul de adaugat.
      */
-    public void addCard(final ClassicCard card) {
+    void addCard(final ClassicCard card) {
         cards.add(card);
     }
 
@@ -163,7 +266,15 @@ public class ClassicAccount {
      * @return Soldul contului.
      */
     public double getBalance() {
-        return balance;
+        return Money.toDouble(balanceUnits);
+    }
+
+    /**
+     * Returneaza soldul curent al contului in unitati {@link Money}.
+     * @return Soldul contului, in unitati.
+     */
+    public long getBalanceUnits() {
+        return balanceUnits;
     }
 
     /**
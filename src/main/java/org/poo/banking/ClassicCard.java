@@ -1,11 +1,14 @@
 package org.poo.banking;
 
+import org.poo.utils.Identifiers;
+
 public class ClassicCard {
-    private String cardNumber;
+    /** Numarul cardului, codificat de {@link Identifiers#encodeCardNumber(String)}. */
+    private long cardNumber;
     private Boolean status;
 
     public ClassicCard(final String cardNumber) {
-        this.cardNumber = cardNumber;
+        this.cardNumber = Identifiers.requireCardNumber(cardNumber);
         this.status = true;
     }
 
@@ -32,10 +35,18 @@ public class ClassicCard {
     }
 
     /**
-     * Returneaza numarul cardului.
+     * Returneaza numarul cardului, pentru afisare.
      * @return Numarul cardului ca String.
      */
     public String getCardNumber() {
+        return Identifiers.decodeCardNumber(cardNumber);
+    }
+
+    /**
+     * Returneaza numarul cardului codificat, folosit la cautari si comparatii.
+     * @return Numarul cardului ca long.
+     */
+    public long getCardId() {
         return cardNumber;
     }
 
@@ -43,8 +54,8 @@ public class ClassicCard {
      * Seteaza numarul cardului.
      * @param cardNumber Noua valoare a numarului cardului.
      */
-    public void setCardNumber(final String cardNumber) {
-        this.cardNumber = cardNumber;
+    void setCardNumber(final String cardNumber) {
+        this.cardNumber = Identifiers.requireCardNumber(cardNumber);
     }
 
     /**
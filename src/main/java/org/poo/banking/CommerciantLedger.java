@@ -0,0 +1,90 @@
+package org.poo.banking;
+
+import org.poo.transactions.TransactionType;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Platile facute de asociatii unui cont business la un singur comerciant, actualizate
+ * la fiecare plata. Pentru fiecare asociat sumele sunt pastrate ca sume prefix pe
+ * timestamp-uri ({@link MemberLedger}), deci totalul primit pe un interval nu parcurge
+ * platile. Platile sunt pastrate si sortate dupa timestamp, pentru lista celor care
+ * au platit; un interval se gaseste prin cautare binara.
+ */
+final class CommerciantLedger {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final Map<String, MemberLedger> members = new LinkedHashMap<>();
+    private int[] timestamps = new int[INITIAL_CAPACITY];
+    private String[] payers = new String[INITIAL_CAPACITY];
+    private double[] amounts = new double[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adauga o plata, pastrand ordinea dupa timestamp.
+     *
+     * @param email Email-ul asociatului care a platit.
+     * @param timestamp Timestamp-ul platii.
+     * @param amount Suma platita, in moneda contului.
+     */
+    void add(final String email, final int timestamp, final double amount) {
+        members.computeIfAbsent(email, ignored -> new MemberLedger())
+                .add(TransactionType.SPENT, timestamp, amount);
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            payers = Arrays.copyOf(payers, size * 2);
+            amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        int index = upperBound(timestamp);
+        System.arraycopy(timestamps, index, timestamps, index + 1, size - index);
+        System.arraycopy(payers, index, payers, index + 1, size - index);
+        System.arraycopy(amounts, index, amounts, index + 1, size - index);
+        timestamps[index] = timestamp;
+        payers[index] = email;
+        amounts[index] = amount;
+        size++;
+    }
+
+    /**
+     * @return Asociatii care au platit cel putin o data si sumele lor.
+     */
+    Map<String, MemberLedger> getMembers() {
+        return members;
+    }
+
+    /**
+     * @return Numarul de plati.
+     */
+    int size() {
+        return size;
+    }
+
+    int getTimestamp(final int index) {
+        return timestamps[index];
+    }
+
+    String getPayer(final int index) {
+        return payers[index];
+    }
+
+    double getAmount(final int index) {
+        return amounts[index];
+    }
+
+    /** Prima plata cu timestamp > valoarea data. */
+    int upperBound(final int timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,142 @@
+package org.poo.banking;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Platile cu cardul dintr-un cont, pe comercianti, pentru raportul de cheltuieli.
+ * Comerciantii sunt pastrati in ordine alfabetica, iar platile fiecaruia sunt grupate
+ * pe timestamp-uri (cate o galeata pentru fiecare timestamp distinct), cu suma platilor
+ * pastrata ca suma prefix. Totalul unui comerciant pe un interval se
+ * obtine prin doua cautari binare si o scadere, deci raportul nu parcurge platile si
+ * nu sorteaza nimic.
+ */
+public final class CommerciantSpendings {
+    private final Map<String, Buckets> byCommerciant = new TreeMap<>();
+
+    /**
+     * Adauga o plata cu cardul.
+     *
+     * @param commerciant Numele comerciantului.
+     * @param timestamp Timestamp-ul platii.
+     * @param amount Suma platita, in moneda contului.
+     */
+    public void add(final String commerciant, final int timestamp, final double amount) {
+        byCommerciant.computeIfAbsent(commerciant, name -> new Buckets())
+                .add(timestamp, Money.toUnits(amount));
+    }
+
+    /**
+     * Returneaza un cursor peste comerciantii la care s-a platit in intervalul dat, in
+     * ordine alfabetica, cu totalul platilor din interval.
+     *
+     * @param startTs Inceputul intervalului (inclusiv).
+     * @param endTs Sfarsitul intervalului (inclusiv).
+     * @return Cursor pozitionat inaintea primului comerciant.
+     */
+    public Cursor window(final int startTs, final int endTs) {
+        return new Cursor(byCommerciant.entrySet().iterator(), startTs, endTs);
+    }
+
+    /**
+     * Cursor peste totalurile pe comercianti dintr-un interval; {@link #next()} trebuie
+     * apelat inaintea primei citiri.
+     */
+    public static final class Cursor {
+        private final Iterator<Map.Entry<String, Buckets>> entries;
+        private final int startTs;
+        private final int endTs;
+        private String commerciant;
+        private long totalUnits;
+
+        private Cursor(final Iterator<Map.Entry<String, Buckets>> entries, final int startTs,
+                       final int endTs) {
+            this.entries = entries;
+            this.startTs = startTs;
+            this.endTs = endTs;
+        }
+
+        /**
+         * Avanseaza la urmatorul comerciant cu plati in interval.
+         *
+         * @return false daca nu mai exista comercianti.
+         */
+        public boolean next() {
+            while (entries.hasNext()) {
+                Map.Entry<String, Buckets> entry = entries.next();
+                Buckets buckets = entry.getValue();
+                int from = buckets.upperBound(startTs - 1);
+                int to = buckets.upperBound(endTs);
+                if (from < to) {
+                    commerciant = entry.getKey();
+                    totalUnits = buckets.rangeSum(from, to);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return Numele comerciantului curent.
+         */
+        public String getCommerciant() {
+            return commerciant;
+        }
+
+        /**
+         * @return Totalul platilor din interval, in moneda contului.
+         */
+        public double getTotal() {
+            return Money.toDouble(totalUnits);
+        }
+    }
+
+    private static final class Buckets {
+        private static final int INITIAL_CAPACITY = 4;
+
+        private int[] timestamps = new int[INITIAL_CAPACITY];
+        private long[] totals = new long[INITIAL_CAPACITY];
+        private int size;
+
+        void add(final int timestamp, final long units) {
+            int bucket = upperBound(timestamp);
+            if (bucket == 0 || timestamps[bucket - 1] != timestamp) {
+                if (size == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, size * 2);
+                    totals = Arrays.copyOf(totals, size * 2);
+                }
+                System.arraycopy(timestamps, bucket, timestamps, bucket + 1, size - bucket);
+                System.arraycopy(totals, bucket, totals, bucket + 1, size - bucket);
+                timestamps[bucket] = timestamp;
+                totals[bucket] = bucket == 0 ? 0 : totals[bucket - 1];
+                size++;
+            } else {
+                bucket--;
+            }
+            for (int i = bucket; i < size; i++) {
+                totals[i] = Money.add(totals[i], units);
+            }
+        }
+
+        long rangeSum(final int from, final int to) {
+            return from == 0 ? totals[to - 1] : totals[to - 1] - totals[from - 1];
+        }
+
+        /** Prima galeata cu timestamp > valoarea data. */
+        int upperBound(final int timestamp) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[mid] <= timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
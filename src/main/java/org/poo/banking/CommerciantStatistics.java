@@ -0,0 +1,51 @@
+package org.poo.banking;
+
+import java.util.List;
+
+/**
+ * Statisticile unui comerciant intr-un raport business: totalul primit de la
+ * managerii si angajatii contului intr-un interval si cine a platit, cate o intrare
+ * pentru fiecare plata, in ordinea platilor.
+ */
+public final class CommerciantStatistics {
+    private final String commerciant;
+    private final double totalReceived;
+    private final List<String> managers;
+    private final List<String> employees;
+
+    CommerciantStatistics(final String commerciant, final double totalReceived,
+                          final List<String> managers, final List<String> employees) {
+        this.commerciant = commerciant;
+        this.totalReceived = totalReceived;
+        this.managers = managers;
+        this.employees = employees;
+    }
+
+    /**
+     * @return Numele comerciantului.
+     */
+    public String getCommerciant() {
+        return commerciant;
+    }
+
+    /**
+     * @return Suma primita de la manageri si angajati, in moneda contului.
+     */
+    public double getTotalReceived() {
+        return totalReceived;
+    }
+
+    /**
+     * @return Email-urile managerilor, cate unul pentru fiecare plata.
+     */
+    public List<String> getManagers() {
+        return managers;
+    }
+
+    /**
+     * @return Email-urile angajatilor, cate unul pentru fiecare plata.
+     */
+    public List<String> getEmployees() {
+        return employees;
+    }
+}
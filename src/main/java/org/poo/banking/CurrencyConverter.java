@@ -0,0 +1,81 @@
+package org.poo.banking;
+
+import org.poo.metrics.Metrics;
+
+import java.util.ArrayList;
+
+/**
+ * Tabela densa cu ratele de schimb intre oricare doua monede.
+ * Ratele sunt calculate o singura data, din drumurile gasite de BFS in graful
+ * de conversie, astfel incat o conversie devine o simpla inmultire.
+ */
+public final class CurrencyConverter {
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final double[][] rates;
+    private final Metrics metrics;
+
+    /**
+     * Construieste tabela de rate pornind de la graful de conversie, fara metrici.
+     *
+     * @param currencyGraph Graful de conversie valutara.
+     */
+    public CurrencyConverter(final Graph<Currency> currencyGraph) {
+        this(currencyGraph, new Metrics());
+    }
+
+    /**
+     * Construieste tabela de rate pornind de la graful de conversie.
+     * Pentru fiecare pereche de monede se foloseste exact drumul ales de
+     * {@link Graph#getPath}; daca nu exista drum, rata este 1 (suma ramane neschimbata).
+     *
+     * @param currencyGraph Graful de conversie valutara.
+     * @param metrics Metricile bancii, in care se numara conversiile.
+     */
+    public CurrencyConverter(final Graph<Currency> currencyGraph, final Metrics metrics) {
+        this.metrics = metrics;
+        rates = new double[CURRENCIES.length][CURRENCIES.length];
+        for (Currency from : CURRENCIES) {
+            for (Currency to : CURRENCIES) {
+                rates[from.ordinal()][to.ordinal()] = computeRate(currencyGraph, from, to);
+            }
+        }
+    }
+
+    private static double computeRate(final Graph<Currency> currencyGraph,
+                                      final Currency from, final Currency to) {
+        ArrayList<Graph<Currency>.Edge> path = currencyGraph.getPath(from, to);
+        if (path == null) {
+            return 1.0;
+        }
+        double totalRate = 1.0;
+        for (Graph<Currency>.Edge edge : path) {
+            totalRate *= edge.getCost();
+        }
+        return totalRate;
+    }
+
+    /**
+     * Returneaza rata de schimb dintre doua monede.
+     *
+     * @param from Moneda sursa.
+     * @param to Moneda destinatie.
+     * @return Rata de schimb.
+     */
+    public double getRate(final Currency from, final Currency to) {
+        return rates[from.ordinal()][to.ordinal()];
+    }
+
+    /**
+     * Converteste o suma dintr-o moneda in alta.
+     *
+     * @param amount Suma de convertit.
+     * @param from Moneda sursa.
+     * @param to Moneda destinatie.
+     * @return Suma convertita.
+     */
+    public double convert(final double amount, final Currency from, final Currency to) {
+        metrics.recordFxConversion();
+        return amount * rates[from.ordinal()][to.ordinal()];
+    }
+}
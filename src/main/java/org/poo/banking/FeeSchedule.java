@@ -0,0 +1,77 @@
+package org.poo.banking;
+
+/**
+ * Tabela comisioanelor pe perechi (plan, moneda a contului), calculata din ratele de
+ * schimb ale unui {@link CurrencyConverter}. Pentru fiecare moneda sunt pastrate
+ * factorii de conversie in si din RON, iar pentru fiecare plan pragul sub care nu se
+ * percepe comision este transformat in moneda contului, deci calculul unui comision
+ * nu mai face conversii si nu aloca nimic.
+ *
+ * Rezultatul este identic cu varianta care converteste suma in RON, aplica
+ * {@link PlanType#calculateFee(double)} si converteste comisionul inapoi: inmultirile
+ * se fac in aceeasi ordine, iar pragul in moneda contului este cel mai mic double a
+ * carui valoare in RON atinge pragul planului.
+ */
+public final class FeeSchedule {
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final PlanType[] PLANS = PlanType.values();
+
+    private final double[] toRon = new double[CURRENCIES.length];
+    private final double[] fromRon = new double[CURRENCIES.length];
+    private final double[][] thresholds = new double[PLANS.length][CURRENCIES.length];
+
+    /**
+     * Construieste tabela pentru ratele de schimb date.
+     *
+     * @param converter Convertorul valutar al bancii.
+     */
+    public FeeSchedule(final CurrencyConverter converter) {
+        for (Currency currency : CURRENCIES) {
+            int index = currency.ordinal();
+            toRon[index] = converter.getRate(currency, Currency.RON);
+            fromRon[index] = converter.getRate(Currency.RON, currency);
+            for (PlanType plan : PLANS) {
+                thresholds[plan.ordinal()][index] =
+                        toAccountCurrency(plan.getFeeThreshold(), toRon[index]);
+            }
+        }
+    }
+
+    /**
+     * Returneaza comisionul pentru o suma, in moneda contului.
+     *
+     * @param plan Planul utilizatorului.
+     * @param amount Suma tranzactiei, in moneda contului.
+     * @param currency Moneda contului.
+     * @return Comisionul, in moneda contului.
+     */
+    public double fee(final PlanType plan, final double amount, final Currency currency) {
+        int index = currency.ordinal();
+        if (amount < thresholds[plan.ordinal()][index]) {
+            return 0.0;
+        }
+        return amount * toRon[index] * plan.getCommissionRate() * fromRon[index];
+    }
+
+    /**
+     * Returneaza cel mai mic double {@code t} pentru care {@code t * rate >= threshold}.
+     * Inmultirea cu o rata pozitiva este monotona, deci {@code amount < t} exact atunci
+     * cand suma convertita in RON este sub prag.
+     */
+    private static double toAccountCurrency(final double threshold, final double rate) {
+        if (Double.isInfinite(threshold)) {
+            return threshold;
+        }
+        if (!(rate > 0)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double result = threshold / rate;
+        while (Math.nextDown(result) * rate >= threshold) {
+            result = Math.nextDown(result);
+        }
+        while (result * rate < threshold) {
+            result = Math.nextUp(result);
+        }
+        return result;
+    }
+}
@@ -65,6 +65,19 @@ public class Graph<T> {
         adjLists.get(source).add(new Edge(source, destination, cost));
     }
 
+    /**
+     * Returneaza toate muchiile grafului, in ordinea in care au fost adaugate
+     * pentru fiecare nod sursa.
+     * @return Lista muchiilor.
+     */
+    public List<Edge> getEdges() {
+        List<Edge> edges = new ArrayList<>();
+        for (List<Edge> adjList : adjLists.values()) {
+            edges.addAll(adjList);
+        }
+        return edges;
+    }
+
     /**
      * Gaseste un drum de la un nod de start la un nod de
      * sfarsit folosind parcurgerea in latime (BFS).
@@ -0,0 +1,120 @@
+package org.poo.banking;
+
+import org.poo.transactions.TransactionType;
+
+import java.util.Arrays;
+
+/**
+ * Sumele cheltuite si depuse de un singur asociat al unui cont business,
+ * grupate pe timestamp-uri (cate o galeata pentru fiecare timestamp distinct)
+ * si pastrate ca sume prefix. Suma pe un interval se obtine prin doua cautari
+ * binare si o scadere, indiferent de numarul de tranzactii.
+ *
+ * Sumele prefix sunt pastrate in unitati {@link Money}, deci diferenta a doua sume
+ * prefix este exacta pentru orice interval.
+ */
+final class MemberLedger {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] timestamps = new int[INITIAL_CAPACITY];
+    private long[] spent = new long[INITIAL_CAPACITY];
+    private long[] deposited = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adauga o suma in galeata timestamp-ului dat.
+     *
+     * @param type Tipul tranzactiei (SPENT sau DEPOSIT).
+     * @param timestamp Timestamp-ul tranzactiei.
+     * @param amount Suma tranzactiei.
+     */
+    void add(final TransactionType type, final int timestamp, final double amount) {
+        long units = Money.toUnits(amount);
+        long spentAmount = type == TransactionType.SPENT ? units : 0;
+        long depositedAmount = type == TransactionType.DEPOSIT ? units : 0;
+
+        int bucket = upperBound(timestamp);
+        if (bucket == 0 || timestamps[bucket - 1] != timestamp) {
+            insertBucket(bucket, timestamp);
+        } else {
+            bucket--;
+        }
+        for (int i = bucket; i < size; i++) {
+            spent[i] = Money.add(spent[i], spentAmount);
+            deposited[i] = Money.add(deposited[i], depositedAmount);
+        }
+    }
+
+    private void insertBucket(final int index, final int timestamp) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            spent = Arrays.copyOf(spent, size * 2);
+            deposited = Arrays.copyOf(deposited, size * 2);
+        }
+        System.arraycopy(timestamps, index, timestamps, index + 1, size - index);
+        System.arraycopy(spent, index, spent, index + 1, size - index);
+        System.arraycopy(deposited, index, deposited, index + 1, size - index);
+        timestamps[index] = timestamp;
+        spent[index] = index == 0 ? 0 : spent[index - 1];
+        deposited[index] = index == 0 ? 0 : deposited[index - 1];
+        size++;
+    }
+
+    /**
+     * Returneaza suma cheltuita in intervalul [startTs, endTs].
+     *
+     * @param startTs Inceputul intervalului (inclusiv).
+     * @param endTs Sfarsitul intervalului (inclusiv).
+     * @return Suma cheltuita.
+     */
+    double getSpent(final int startTs, final int endTs) {
+        return Money.toDouble(rangeSum(spent, startTs, endTs));
+    }
+
+    /**
+     * Returneaza suma cheltuita in intervalul [startTs, endTs], in unitati {@link Money}.
+     *
+     * @param startTs Inceputul intervalului (inclusiv).
+     * @param endTs Sfarsitul intervalului (inclusiv).
+     * @return Suma cheltuita, in unitati.
+     */
+    long getSpentUnits(final int startTs, final int endTs) {
+        return rangeSum(spent, startTs, endTs);
+    }
+
+    /**
+     * Returneaza suma depusa in intervalul [startTs, endTs].
+     *
+     * @param startTs Inceputul intervalului (inclusiv).
+     * @param endTs Sfarsitul intervalului (inclusiv).
+     * @return Suma depusa.
+     */
+    double getDeposited(final int startTs, final int endTs) {
+        return Money.toDouble(rangeSum(deposited, startTs, endTs));
+    }
+
+    private long rangeSum(final long[] prefix, final int startTs, final int endTs) {
+        int from = upperBound(startTs - 1);
+        int to = upperBound(endTs);
+        if (to <= from) {
+            return 0;
+        }
+        long total = prefix[to - 1];
+        return from == 0 ? total : total - prefix[from - 1];
+    }
+
+    /** Prima galeata cu timestamp > valoarea data. */
+    private int upperBound(final int timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,68 @@
+package org.poo.banking;
+
+/**
+ * Sume de bani in virgula fixa: o valoare este pastrata ca {@code long}, in unitati
+ * de 10^-8 din moneda contului. Adunarile si scaderile sunt exacte si nu depind de
+ * ordinea operatiilor, deci soldurile si totalurile acumulate nu mai aduna erori de
+ * rotunjire la fiecare operatie, fara alocari de {@code BigDecimal}.
+ *
+ * In virgula fixa sunt pastrate doar soldurile, pragurile de cheltuieli si sumele
+ * acumulate pentru rapoarte. Sumele tranzactiilor, conversiile valutare, comisioanele
+ * si cashback-urile raman calcule in double; rezultatul lor este rotunjit la cea mai
+ * apropiata unitate in momentul in care este adunat la o suma pastrata in virgula fixa.
+ *
+ * Cu unitati de 10^-8, un {@code long} acopera sume de pana la aproximativ 9.2e10;
+ * o suma sau un total care depaseste acest interval arunca {@link ArithmeticException}
+ * in loc sa fie saturat sau trunchiat.
+ */
+public final class Money {
+    /** Numarul de unitati dintr-o unitate a monedei. */
+    public static final long UNITS = 100_000_000L;
+
+    private static final double UNITS_AS_DOUBLE = UNITS;
+    /** 2^63: prima valoare double care nu mai incape intr-un {@code long}. */
+    private static final double LONG_LIMIT = 0x1p63;
+
+    /**
+     * for coding style
+     */
+    private Money() {
+    }
+
+    /**
+     * Transforma o suma in unitati, rotunjind la cea mai apropiata unitate.
+     *
+     * @param amount Suma in moneda contului.
+     * @return Suma in unitati.
+     * @throws ArithmeticException daca suma nu este finita sau nu incape in unitati.
+     */
+    public static long toUnits(final double amount) {
+        double scaled = amount * UNITS_AS_DOUBLE;
+        if (!(Math.abs(scaled) < LONG_LIMIT)) {
+            throw new ArithmeticException("Amount out of fixed-point range: " + amount);
+        }
+        return Math.round(scaled);
+    }
+
+    /**
+     * Aduna doua sume in unitati.
+     *
+     * @param first Prima suma, in unitati.
+     * @param second A doua suma, in unitati.
+     * @return Suma, in unitati.
+     * @throws ArithmeticException daca rezultatul nu incape intr-un {@code long}.
+     */
+    public static long add(final long first, final long second) {
+        return Math.addExact(first, second);
+    }
+
+    /**
+     * Transforma o suma din unitati in valoarea double cea mai apropiata.
+     *
+     * @param units Suma in unitati.
+     * @return Suma in moneda contului.
+     */
+    public static double toDouble(final long units) {
+        return units / UNITS_AS_DOUBLE;
+    }
+}
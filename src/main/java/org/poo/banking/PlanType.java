@@ -23,6 +23,15 @@ public enum PlanType {
         return displayName;
     }
 
+    /**
+     * Returneaza pragul, in RON, sub care planul nu percepe comision.
+     *
+     * @return Pragul planului SILVER sau minus infinit pentru celelalte planuri.
+     */
+    public double getFeeThreshold() {
+        return this == SILVER ? MINIMUM_SILVER_AMOUNT : Double.NEGATIVE_INFINITY;
+    }
+
     /**
      * Calculeaza taxa pentru o tranzactie in functie de planul curent.
      * Daca planul este SILVER si suma este sub pragul minim, taxa este zero.
@@ -0,0 +1,107 @@
+package org.poo.banking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decontare in doua faze a unei plati care debiteaza mai multe conturi deodata.
+ *
+ * {@link #reserve()} blocheaza toate conturile implicate, mereu in ordinea IBAN-urilor,
+ * deci doua decontari concurente nu se pot bloca reciproc, si verifica fiecare debit
+ * fata de soldul curent. Verificarea si debitarea folosesc variantele care cer lock-ul
+ * contului tinut de firul curent, iar lock-urile raman luate de la {@link #reserve()}
+ * pana la {@link #commit()}; cum orice alta modificare a soldului trece prin acelasi
+ * lock (vezi {@link ClassicAccount#tryDebit(double)}), {@link #commit()} aplica exact
+ * debitele verificate. Daca un debit nu poate fi
+ * acoperit, rezervarea este anulata si conturile sunt deblocate fara nicio modificare.
+ */
+public final class Settlement {
+    private static final Comparator<ClassicAccount> LOCK_ORDER =
+            Comparator.comparing(ClassicAccount::getIban);
+
+    private final List<ClassicAccount> accounts;
+    private final double[] amounts;
+    private final List<ClassicAccount> lockOrder;
+    private boolean reserved;
+
+    /**
+     * Pregateste decontarea. Un cont poate aparea de mai multe ori; fiecare debit este
+     * verificat separat fata de sold si toate sunt aplicate.
+     *
+     * @param accounts Conturile debitate.
+     * @param amounts Suma debitata din fiecare cont, in moneda contului.
+     */
+    public Settlement(final List<ClassicAccount> accounts, final double[] amounts) {
+        this.accounts = accounts;
+        this.amounts = amounts;
+        Map<ClassicAccount, Boolean> distinct = new IdentityHashMap<>();
+        List<ClassicAccount> order = new ArrayList<>(accounts.size());
+        for (ClassicAccount account : accounts) {
+            if (distinct.put(account, Boolean.TRUE) == null) {
+                order.add(account);
+            }
+        }
+        order.sort(LOCK_ORDER);
+        this.lockOrder = Collections.unmodifiableList(order);
+    }
+
+    /**
+     * Faza intai: blocheaza conturile si verifica debitele, in ordinea conturilor.
+     * Daca toate pot fi acoperite, conturile raman blocate pana la {@link #commit()}
+     * sau {@link #rollback()}.
+     *
+     * @return Primul cont care nu poate acoperi debitul sau null daca rezervarea a reusit.
+     */
+    public ClassicAccount reserve() {
+        if (reserved) {
+            throw new IllegalStateException("Settlement already reserved");
+        }
+        for (ClassicAccount account : lockOrder) {
+            account.getLock().lock();
+        }
+        reserved = true;
+        for (int i = 0; i < accounts.size(); i++) {
+            if (!accounts.get(i).canDebitLocked(amounts[i])) {
+                rollback();
+                return accounts.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Faza a doua: aplica toate debitele rezervate si deblocheaza conturile.
+     */
+    public void commit() {
+        if (!reserved) {
+            throw new IllegalStateException("Settlement not reserved");
+        }
+        try {
+            for (int i = 0; i < accounts.size(); i++) {
+                accounts.get(i).debitLocked(amounts[i]);
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Anuleaza rezervarea: conturile sunt deblocate fara nicio modificare.
+     */
+    public void rollback() {
+        if (reserved) {
+            release();
+        }
+    }
+
+    private void release() {
+        reserved = false;
+        for (int i = lockOrder.size() - 1; i >= 0; i--) {
+            lockOrder.get(i).getLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.poo.banking;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Indexul platilor impartite in asteptare: pentru fiecare utilizator si fiecare tip
+ * de plata, evenimentele la care utilizatorul nu a votat inca, in ordinea crearii.
+ * O acceptare sau o respingere ia primul eveniment din coada, fara sa parcurga
+ * toate platile utilizatorului; un eveniment incheiat este scos din cozile tuturor
+ * participantilor.
+ */
+public final class SplitPaymentCoordinator {
+    private final Map<User, Map<String, LinkedHashSet<SplitPaymentEvent>>> awaitingVote =
+            new HashMap<>();
+
+    /**
+     * Porneste o plata impartita: evenimentul este adaugat la platile fiecarui
+     * participant (o data pentru fiecare cont implicat) si in cozile lor de vot.
+     *
+     * @param event Plata impartita noua.
+     */
+    public void start(final SplitPaymentEvent event) {
+        for (int slot = 0; slot < event.getAccountsInvolved().size(); slot++) {
+            User user = event.getParticipant(slot);
+            user.addSplitPayment(event);
+            track(user, event);
+        }
+    }
+
+    /**
+     * Adauga evenimentul in coada de vot a utilizatorului, daca utilizatorul nu a
+     * acceptat inca plata. Folosita si la refacerea bancii dintr-un snapshot.
+     *
+     * @param user Participantul.
+     * @param event Plata impartita.
+     */
+    public void track(final User user, final SplitPaymentEvent event) {
+        if (!event.hasAccepted(user)) {
+            awaitingVote.computeIfAbsent(user, ignored -> new HashMap<>())
+                    .computeIfAbsent(event.getType(), ignored -> new LinkedHashSet<>())
+                    .add(event);
+        }
+    }
+
+    /**
+     * Accepta cea mai veche plata de tipul dat la care utilizatorul nu a votat.
+     *
+     * @param user Utilizatorul care accepta.
+     * @param type Tipul platii.
+     */
+    public void accept(final User user, final String type) {
+        LinkedHashSet<SplitPaymentEvent> queue = queueOf(user, type);
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+        SplitPaymentEvent event = queue.iterator().next();
+        event.accept(user);
+        if (event.hasAccepted(user)) {
+            queue.remove(event);
+        }
+    }
+
+    /**
+     * Respinge cea mai veche plata de tipul dat la care utilizatorul nu a votat.
+     *
+     * @param user Utilizatorul care respinge.
+     * @param type Tipul platii.
+     */
+    public void reject(final User user, final String type) {
+        LinkedHashSet<SplitPaymentEvent> queue = queueOf(user, type);
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+        queue.iterator().next().reject(user);
+    }
+
+    /**
+     * Scoate o plata incheiata din cozile de vot ale participantilor.
+     *
+     * @param event Plata incheiata.
+     */
+    public void finish(final SplitPaymentEvent event) {
+        for (int slot = 0; slot < event.getAccountsInvolved().size(); slot++) {
+            LinkedHashSet<SplitPaymentEvent> queue =
+                    queueOf(event.getParticipant(slot), event.getType());
+            if (queue != null) {
+                queue.remove(event);
+            }
+        }
+    }
+
+    /**
+     * Goleste indexul.
+     */
+    public void clear() {
+        awaitingVote.clear();
+    }
+
+    private LinkedHashSet<SplitPaymentEvent> queueOf(final User user, final String type) {
+        Map<String, LinkedHashSet<SplitPaymentEvent>> byType = awaitingVote.get(user);
+        return byType == null ? null : byType.get(type);
+    }
+}
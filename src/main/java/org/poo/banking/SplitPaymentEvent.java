@@ -1,14 +1,21 @@
 package org.poo.banking;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.poo.transactions.SplitPaymentTransaction;
-import org.poo.transactions.Transaction;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Plata impartita intre mai multe conturi. Proprietarul fiecarui cont este aflat o
+ * singura data, la creare, iar fiecare utilizator este asociat cu pozitiile (slot-urile)
+ * conturilor lui. Un vot este valabil pe primul slot al utilizatorului al carui cont
+ * exista inca in banca. Plata se executa cand numarul de voturi lipsa ajunge la zero.
+ */
 @Getter
 public final class SplitPaymentEvent {
     private final Currency currency;
@@ -18,33 +25,89 @@ public final class SplitPaymentEvent {
     private final boolean[] accepted;
     private final String type;
     private final int timestamp;
-    private final Bank bank = Bank.getInstance();
-    private final Graph graph;
+    private final Bank bank;
+    private final CurrencyConverter converter;
+    @Getter(AccessLevel.NONE)
+    private final User[] participants;
+    @Getter(AccessLevel.NONE)
+    private final Map<User, int[]> slotsByUser = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private int outstandingVotes;
 
     public SplitPaymentEvent(final Currency currency,
                              final List<ClassicAccount> accountsInvolved,
                              final double amount,
                              final List<Double> amountsToPay,
                              final String type, final int timestamp,
-                             final Graph graph) {
+                             final Bank bank, final CurrencyConverter converter) {
         this.amount = amount;
         this.currency = currency;
         this.accountsInvolved = accountsInvolved;
         this.amountsToPay = amountsToPay;
         this.accepted = new boolean[accountsInvolved.size()];
-        Arrays.fill(accepted, false);
         this.timestamp = timestamp;
         this.type = type;
-        this.graph = graph;
+        this.bank = bank;
+        this.converter = converter;
+        this.participants = new User[accountsInvolved.size()];
+        this.outstandingVotes = accountsInvolved.size();
+        for (int slot = 0; slot < participants.length; slot++) {
+            ClassicAccount account = accountsInvolved.get(slot);
+            User owner = account == null ? null : bank.getUserByAccount(account.getIban());
+            participants[slot] = owner;
+            if (owner != null) {
+                int[] slots = slotsByUser.get(owner);
+                int[] extended = slots == null ? new int[1]
+                        : Arrays.copyOf(slots, slots.length + 1);
+                extended[extended.length - 1] = slot;
+                slotsByUser.put(owner, extended);
+            }
+        }
+    }
+
+    /**
+     * Returneaza proprietarul contului de pe pozitia data, daca acesta exista inca.
+     *
+     * @param slot Pozitia contului in plata.
+     * @return Proprietarul contului sau null daca acesta a fost sters.
+     */
+    public User getParticipant(final int slot) {
+        ClassicAccount account = accountsInvolved.get(slot);
+        if (account == null || bank.getAccountByIban(account.getIban()) != account) {
+            return null;
+        }
+        return participants[slot];
+    }
+
+    /**
+     * Seteaza voturile citite dintr-un snapshot si recalculeaza numarul de voturi lipsa.
+     *
+     * @param votes Voturile, cate unul pentru fiecare cont implicat.
+     */
+    public void restoreVotes(final boolean[] votes) {
+        outstandingVotes = accepted.length;
+        for (int slot = 0; slot < accepted.length; slot++) {
+            accepted[slot] = votes[slot];
+            if (votes[slot]) {
+                outstandingVotes--;
+            }
+        }
     }
 
-    private boolean checkAllAccepted() {
-        for (boolean accept : accepted) {
-            if (!accept) {
-                return false;
+    /**
+     * Primul slot al utilizatorului al carui cont exista inca sau -1.
+     */
+    private int slotOf(final User user) {
+        int[] slots = slotsByUser.get(user);
+        if (slots == null) {
+            return -1;
+        }
+        for (int slot : slots) {
+            if (getParticipant(slot) == user) {
+                return slot;
             }
         }
-        return true;
+        return -1;
     }
 
     private void addTransactions(final String error) {
@@ -60,13 +123,13 @@ public final class SplitPaymentEvent {
                             amountsToPay, type, error);
             addTransaction(i, transaction);
         }
+        bank.getSplitPayments().finish(this);
     }
 
 
     private void addTransaction(final int i, final SplitPaymentTransaction transaction) {
-        User user = bank.getUserByAccount(accountsInvolved.get(i).getIban());
+        User user = getParticipant(i);
         user.addTransaction(transaction);
-        user.getTransactions().sort(Comparator.comparingLong(Transaction::getTimestamp));
         user.removeSplitPayment(this);
     }
 
@@ -80,12 +143,8 @@ public final class SplitPaymentEvent {
      * @param user the user that rejects the payment
      */
     public void reject(final User user) {
-        for (final ClassicAccount account : accountsInvolved) {
-            User owner = bank.getUserByAccount(account.getIban());
-            if (owner == user) {
-                addTransactions("One user rejected the payment.");
-                return;
-            }
+        if (slotOf(user) >= 0) {
+            addTransactions("One user rejected the payment.");
         }
     }
 
@@ -96,45 +155,28 @@ public final class SplitPaymentEvent {
      * @return true if the user has already accepted the payment, false otherwise
      */
     public boolean hasAccepted(final User user) {
-        for (int i = 0; i < accountsInvolved.size(); i++) {
-            User owner = bank.getUserByAccount(accountsInvolved.get(i).getIban());
-            if (owner == user) {
-                return accepted[i];
-            }
-        }
-        return false;
+        int slot = slotOf(user);
+        return slot >= 0 && accepted[slot];
     }
 
+    /**
+     * Debiteaza toate conturile printr-o {@link Settlement}: sumele sunt convertite o
+     * singura data, iar debitele sunt aplicate toate sau niciunul.
+     *
+     * @return IBAN-ul primului cont fara fonduri suficiente sau null la succes.
+     */
     private String subtractFunds() {
-        for (int i = 0; i < accountsInvolved.size(); i++) {
-            double localAmount = amountsToPay.get(i);
-            ArrayList<Graph<Double>.Edge> paths =
-                    graph.getPath(currency, accountsInvolved.get(i).getCurrency());
-            if (paths != null) {
-                double rate = 1.0;
-                for (Graph<Double>.Edge path : paths) {
-                    rate *= path.getCost();
-                }
-                localAmount *= rate;
-            }
-            if (accountsInvolved.get(i)
-                    .getBalance() < localAmount) {
-                return accountsInvolved.get(i).getIban();
-            }
+        double[] localAmounts = new double[accountsInvolved.size()];
+        for (int i = 0; i < localAmounts.length; i++) {
+            localAmounts[i] = converter.convert(amountsToPay.get(i), currency,
+                    accountsInvolved.get(i).getCurrency());
         }
-        for (int i = 0; i < accountsInvolved.size(); i++) {
-            double localAmount = amountsToPay.get(i);
-            ArrayList<Graph<Double>.Edge> paths =
-                    graph.getPath(currency, accountsInvolved.get(i).getCurrency());
-            if (paths != null) {
-                double rate = 1.0;
-                for (Graph<Double>.Edge path : paths) {
-                    rate *= path.getCost();
-                }
-                localAmount *= rate;
-            }
-            accountsInvolved.get(i).addFunds(-localAmount);
+        Settlement settlement = new Settlement(accountsInvolved, localAmounts);
+        ClassicAccount insufficient = settlement.reserve();
+        if (insufficient != null) {
+            return insufficient.getIban();
         }
+        settlement.commit();
         return null;
     }
 
@@ -144,25 +186,25 @@ public final class SplitPaymentEvent {
      * @param user the user that accepts the payment
      */
     public void accept(final User user) {
-        for (int i = 0; i < accountsInvolved.size(); i++) {
-            User owner = bank.getUserByAccount(accountsInvolved.get(i).getIban());
-            if (owner == user) {
-                accepted[i] = true;
-                if (checkAllAccepted()) {
-                    try {
-                        final String iban = subtractFunds();
-                        if (iban != null) {
-                            notEnoughFunds(iban);
-                        } else {
-                            addTransactions(null);
-                        }
-
-                    } catch (Exception e) {
-                        addTransactions("An error occurred while processing the split payment.");
-                        return;
-                    }
+        int slot = slotOf(user);
+        if (slot < 0) {
+            return;
+        }
+        if (!accepted[slot]) {
+            accepted[slot] = true;
+            outstandingVotes--;
+        }
+        if (outstandingVotes == 0) {
+            try {
+                final String iban = subtractFunds();
+                if (iban != null) {
+                    notEnoughFunds(iban);
+                } else {
+                    addTransactions(null);
                 }
-                return;
+
+            } catch (Exception e) {
+                addTransactions("An error occurred while processing the split payment.");
             }
         }
     }
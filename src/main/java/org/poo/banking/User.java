@@ -3,12 +3,20 @@ package org.poo.banking;
 import lombok.Getter;
 import lombok.Setter;
 import org.poo.observer.UserObserver;
+import org.poo.transactions.CardPaymentTransaction;
 import org.poo.transactions.Transaction;
+import org.poo.transactions.TransactionCursor;
+import org.poo.transactions.TransactionLog;
+import org.poo.transactions.TransactionStore;
+import org.poo.utils.Identifiers;
 
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class User {
     private String firstName;
@@ -17,12 +25,19 @@ public final class User {
     private String birthdate;
     private String occupation;
     private List<ClassicAccount> accounts;
-    private ArrayList<Transaction> transactions;
+    private final TransactionStore transactionStore = new TransactionStore();
+    private final TransactionLog transactions = new TransactionLog(transactionStore);
+    /**
+     * Istoricul fiecarui cont, construit la prima interogare si actualizat apoi la
+     * fiecare tranzactie. Tranzactiile fara IBAN apartin tuturor conturilor.
+     */
+    private final Map<String, TransactionLog> accountLogs = new HashMap<>();
 
     private List<UserObserver> observers = new ArrayList<>();
     @Getter
     @Setter
     private PlanType planType;
+    @Setter
     private int silverEligiblePayments;
     private List<SplitPaymentEvent> splitPaymentEvents;
 
@@ -34,7 +49,6 @@ public final class User {
         this.birthdate = birthdate;
         this.occupation = occupation;
         accounts = new ArrayList<>();
-        transactions = new ArrayList<>();
         if (occupation.equals("student")) {
             this.planType = PlanType.STUDENT;
         } else {
@@ -68,35 +82,85 @@ public final class User {
 
 
     /**
-     * Adauga o tranzactie in lista de tranzactii ale utilizatorului.
+     * Adauga o tranzactie in istoricul utilizatorului. Tranzactia este copiata in
+     * coloanele istoricului; obiectul ajunge doar la observatori. O plata cu cardul
+     * dintr-un cont propriu este adaugata si in cheltuielile pe comercianti ale contului.
      * @param transaction Tranzactia de adaugat.
      */
     public void addTransaction(final Transaction transaction) {
-        transactions.add(transaction);
+        int row = transactionStore.append(transaction);
+        transactions.add(row);
+        String iban = transaction.getIban();
+        if (iban == null) {
+            for (TransactionLog log : accountLogs.values()) {
+                log.add(row);
+            }
+        } else {
+            TransactionLog log = accountLogs.get(iban);
+            if (log != null) {
+                log.add(row);
+            }
+        }
+        if (transaction instanceof CardPaymentTransaction) {
+            CardPaymentTransaction payment = (CardPaymentTransaction) transaction;
+            if (accounts.contains(payment.getAccount())) {
+                payment.getAccount().getCommerciantSpendings().add(payment.getCommerciant(),
+                        payment.getTimestamp(), payment.getAmount());
+            }
+        }
         notifyNewTransaction(transaction);
     }
 
     /**
-     * Returneaza lista de tranzactii ale utilizatorului.
-     * @return Lista de tranzactii.
+     * Returneaza tranzactiile unui cont (inclusiv cele fara IBAN), in ordinea timestamp-urilor.
+     * @param iban IBAN-ul contului sau null pentru toate tranzactiile utilizatorului.
+     * @return Cursor peste tranzactii.
      */
-    public List<Transaction> getTransactions(final String iban) {
-        List<Transaction> result = new ArrayList<>();
-        for (Transaction transaction : transactions) {
-            if (iban == null || transaction.getIban() == null
-                    || transaction.getIban().equals(iban)) {
-                result.add(transaction);
-            }
+    public TransactionCursor getTransactions(final String iban) {
+        if (iban == null) {
+            return transactions.all();
         }
-        return result;
+        return getAccountLog(iban).all();
     }
 
     /**
-     * Adauga o tranzactie în lista de tranzactii ale utilizatorului.
-     *
+     * Returneaza tranzactiile unui cont cu timestamp-ul in intervalul dat.
+     * Costul depinde de numarul de tranzactii din interval, nu de tot istoricul.
+     * @param iban IBAN-ul contului.
+     * @param startTimestamp Inceputul intervalului (inclusiv).
+     * @param endTimestamp Sfarsitul intervalului (inclusiv).
+     * @return Cursor peste tranzactiile din interval.
+     */
+    public TransactionCursor getTransactions(final String iban, final int startTimestamp,
+                                             final int endTimestamp) {
+        return getAccountLog(iban).window(startTimestamp, endTimestamp);
+    }
+
+    private TransactionLog getAccountLog(final String iban) {
+        TransactionLog log = accountLogs.get(iban);
+        if (log == null) {
+            log = transactions.forAccount(iban);
+            accountLogs.put(iban, log);
+        }
+        return log;
+    }
+
+    /**
+     * Returneaza toate tranzactiile utilizatorului, in ordinea timestamp-urilor.
+     * Tranzactiile adaugate cu un timestamp mai vechi (de exemplu cele ale unei plati
+     * impartite finalizate ulterior) sunt inserate direct la pozitia corecta.
+     * @return Cursor peste istoric.
+     */
+    public TransactionCursor getTransactions() {
+        return transactions.all();
+    }
+
+    /**
+     * Returneaza numarul de tranzactii din istoricul utilizatorului.
+     * @return Numarul de tranzactii.
      */
-    public List<Transaction> getTransactions() {
-        return transactions;
+    public int getTransactionCount() {
+        return transactions.size();
     }
 
     /**
@@ -119,9 +183,10 @@ public final class User {
      * @return Contul asociat cardului sau null daca nu exista.
      */
     public ClassicAccount getAccountByCard(final String cardNumber) {
+        long cardId = Identifiers.encodeCardNumber(cardNumber);
         for (ClassicAccount account : accounts) {
             for (ClassicCard card : account.getCards()) {
-                if (card.getCardNumber().equals(cardNumber)) {
+                if (card.getCardId() == cardId) {
                     return account;
                 }
             }
@@ -135,9 +200,10 @@ public final class User {
      * @return Cardul gasit sau null daca nu exista.
      */
     public ClassicCard getCardByNumber(final String cardNumber) {
+        long cardId = Identifiers.encodeCardNumber(cardNumber);
         for (ClassicAccount account : accounts) {
             for (ClassicCard card : account.getCards()) {
-                if (card.getCardNumber().equals(cardNumber)) {
+                if (card.getCardId() == cardId) {
                     return card;
                 }
             }
@@ -157,7 +223,7 @@ public final class User {
      * Adauga un cont nou in lista de conturi ale utilizatorului.
      * @param account Contul de adaugat.
      */
-    public void addAccount(final ClassicAccount account) {
+    void addAccount(final ClassicAccount account) {
         accounts.add(account);
     }
 
@@ -166,12 +232,13 @@ public final class User {
      * @param iban IBAN-ul contului de sters.
      * @return True daca stergerea a fost realizata, altfel false.
      */
-    public Boolean deleteAccountByIban(final String iban) {
+    Boolean deleteAccountByIban(final String iban) {
         ClassicAccount account = this.getAccountByIban(iban);
         if (account == null || account.getBalance() > 0) {
             return false;
         }
         accounts.remove(account);
+        accountLogs.remove(iban);
         return true;
     }
 
@@ -185,6 +252,15 @@ public final class User {
         splitPaymentEvents.add(splitPaymentEvent);
     }
 
+    /**
+     * Returneaza platile impartite la care utilizatorul nu a raspuns inca.
+     *
+     * @return Vedere nemodificabila asupra evenimentelor, in ordinea primirii.
+     */
+    public List<SplitPaymentEvent> getSplitPaymentEvents() {
+        return Collections.unmodifiableList(splitPaymentEvents);
+    }
+
     /**
      * Returneaza prenumele utilizatorului.
      * @return Prenumele utilizatorului.
@@ -236,26 +312,15 @@ public final class User {
     }
 
     /**
-     * Returneaza fee-ul tranzactiei.
+     * Returneaza fee-ul tranzactiei, calculat din tabela de comisioane a bancii.
+     * @param amount Suma tranzactiei, in moneda contului.
+     * @param fees Tabela de comisioane.
+     * @param currency Moneda contului.
      * @return fee.
      */
-    public double getFeeForTransaction(final double amount, final Graph<Currency> currencyGraph,
+    public double getFeeForTransaction(final double amount, final FeeSchedule fees,
                                        final Currency currency) {
-        double convertedAmount = amount;
-        var path = currencyGraph.getPath(currency, Currency.RON);
-        if (path != null) {
-            for (Graph<Currency>.Edge edge : path) {
-                convertedAmount *= edge.getCost();
-            }
-        }
-        double feeInRon = planType.calculateFee(convertedAmount);
-        path = currencyGraph.getPath(Currency.RON, currency);
-        if (path != null) {
-            for (Graph<Currency>.Edge edge : path) {
-                feeInRon *= edge.getCost();
-            }
-        }
-        return feeInRon;
+        return fees.fee(planType, amount, currency);
     }
 
     /**
@@ -266,32 +331,6 @@ public final class User {
         return planType.getCommissionForTransaction(amount);
     }
 
-    /**
-     * Accepta o plata impartita de un anumit tip.
-     * @param type Tipul platii impartite de acceptat.
-     */
-    public void acceptSplitPayment(final String type) {
-        for (SplitPaymentEvent splitPaymentEvent : splitPaymentEvents) {
-            if (splitPaymentEvent.getType().equals(type) && !splitPaymentEvent.hasAccepted(this)) {
-                splitPaymentEvent.accept(this);
-                return;
-            }
-        }
-    }
-
-    /**
-     * Respinge o plata impartita de un anumit tip.
-     * @param type Tipul platii impartite de respins.
-     */
-    public void rejectSplitPayment(final String type) {
-        for (SplitPaymentEvent splitPaymentEvent : splitPaymentEvents) {
-            if (splitPaymentEvent.getType().equals(type) && !splitPaymentEvent.hasAccepted(this)) {
-                splitPaymentEvent.reject(this);
-                return;
-            }
-        }
-    }
-
     /**
      * Elimina o plata impartita din lista de plati ale utilizatorului.
      * @param splitPaymentEvent Plata impartita de eliminat.
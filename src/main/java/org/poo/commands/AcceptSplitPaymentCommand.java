@@ -1,31 +1,33 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.User;
 
+import java.io.IOException;
+
 public final class AcceptSplitPaymentCommand implements Command {
-    private String email;
-    private String type;
-    public AcceptSplitPaymentCommand(final String email, final String type) {
-        this.email = email;
-        this.type = type;
-    }
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String email = input.getEmail();
+        String type = input.getSplitPaymentType();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByEmail(email);
         if (user != null) {
-            user.acceptSplitPayment(type);
+            bank.getSplitPayments().accept(user, type);
         }  else {
-            ObjectNode node = output.addObject();
-            node.put("command", "acceptSplitPayment");
-            node.put("timestamp", timestamp);
-            ObjectNode inner = node.putObject("output");
-            inner.put("description", "User not found");
-            inner.put("timestamp", timestamp);
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "acceptSplitPayment");
+            json.writeNumberField("timestamp", timestamp);
+            json.writeObjectFieldStart("output");
+            json.writeStringField("description", "User not found");
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
+            json.writeEndObject();
         }
     }
 }
@@ -1,9 +1,9 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.transactions.AccountCreatedTransaction;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.BusinessAccount;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.Currency;
@@ -12,30 +12,24 @@ import org.poo.banking.User;
 import org.poo.utils.Utils;
 
 public class AddAccountCommand implements Command {
-    private String email;
-    private String accountType;
-    private String currencyValue;
-    private double interestRate;
-
-    public AddAccountCommand(final String email, final String accountType,
-                             final String currencyValue, final double interestRate) {
-        this.email = email;
-        this.accountType = accountType;
-        this.currencyValue = currencyValue;
-        this.interestRate = interestRate;
-    }
 
     /**
-     * Constructorul clasei pentru initializarea parametrilor necesari crearii unui cont.
+     * Executa comanda pentru crearea unui cont. Parametrii folositi sunt adresa de email
+     * a utilizatorului, tipul contului (clasic, de economii sau business), moneda si
+     * rata dobanzii pentru conturile de economii.
      *
-     * @param email        Adresa de email a utilizatorului.
-     * @param accountType  Tipul contului (clasic sau de economii).
-     * @param currencyValue Moneda in care va fi deschis contul.
-     * @param interestRate Rata dobanzii pentru conturile de economii.
+     * @param bank      Instanta bancii care contine informatii despre utilizatori si conturi.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) {
+        String email = input.getEmail();
+        String accountType = input.getAccountType();
+        String currencyValue = input.getCurrency();
+        double interestRate = input.getInterestRate();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByEmail(email);
         if (user != null) {
             String iban = Utils.generateIBAN();
@@ -43,15 +37,15 @@ public class AddAccountCommand implements Command {
 
             if (accountType.equals("classic")) {
                 ClassicAccount account = new ClassicAccount(iban, currency);
-                user.addAccount(account);
+                bank.addAccount(user, account);
             } else if (accountType.equals("savings")) {
                 SavingsAccount account =
                         new SavingsAccount(iban, currency, interestRate);
-                user.addAccount(account);
+                bank.addAccount(user, account);
             } else if (accountType.equals("business")) {
                 BusinessAccount account =
-                        new BusinessAccount(iban, currency, email);
-                user.addAccount(account);
+                        new BusinessAccount(iban, currency, email, bank);
+                bank.addAccount(user, account);
             }
             user.addTransaction(new AccountCreatedTransaction(timestamp));
         }
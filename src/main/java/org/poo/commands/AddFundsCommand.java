@@ -1,58 +1,42 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.BusinessAccount;
 import org.poo.transactions.BusinessTransaction;
 import org.poo.banking.ClassicAccount;
 import org.poo.transactions.TransactionType;
 import org.poo.banking.User;
 
-public final class AddFundsCommand implements Command {
-    private String iban;
-    private double amount;
-    private String email;
+import java.io.IOException;
 
-    public AddFundsCommand(final String iban, final double amount,
-                           final String email) {
-        this.iban = iban;
-        this.amount = amount;
-        this.email = email;
-    }
+public final class AddFundsCommand implements Command {
 
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String iban = input.getAccount();
+        double amount = input.getAmount();
+        String email = input.getEmail();
+        int timestamp = input.getTimestamp();
         User initiator = bank.getUserByEmail(email);
         if (initiator == null) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "addFunds");
-            node.put("timestamp", timestamp);
-            node.put("output", "User not found");
-            output.add(node);
+            writeOutput(output, timestamp, "User not found");
             return;
         }
 
         ClassicAccount account = bank.getAccountByIban(iban);
         if (account == null) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "addFunds");
-            node.put("timestamp", timestamp);
-            node.put("output", "Account not found");
-            output.add(node);
+            writeOutput(output, timestamp, "Account not found");
             return;
         }
 
         if (account.isBusinessAccount()) {
             BusinessAccount bAcc = (BusinessAccount) account;
             if (!bAcc.isAssociate(initiator.getEmail())) {
-                ObjectNode node = mapper.createObjectNode();
-                node.put("command", "addFunds");
-                node.put("timestamp", timestamp);
-                node.put("output", "You are not authorized to make this transaction.");
-                output.add(node);
+                writeOutput(output, timestamp, "You are not authorized to make this transaction.");
                 return;
             }
 
@@ -78,4 +62,14 @@ public final class AddFundsCommand implements Command {
             account.addFunds(amount);
         }
     }
+
+    private static void writeOutput(final OutputSink output, final int timestamp,
+                                    final String message) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "addFunds");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeStringField("output", message);
+        json.writeEndObject();
+    }
 }
@@ -1,45 +1,42 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.transactions.AddInterestTransaction;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.SavingsAccount;
 
-public class AddInterestCommand implements Command {
-    private double interestRate;
-    private String iban;
+import java.io.IOException;
 
-    public AddInterestCommand(final double interestRate, final String iban) {
-        this.interestRate = interestRate;
-        this.iban = iban;
-    }
+public class AddInterestCommand implements Command {
 
     /**
      * Executa comanda pentru adaugarea dobanzilor la un cont de economii.
      * Se genereaza un mesaj de eroare daca IBAN-ul nu este asociat unui cont de economii.
      *
      * @param bank      Instanta bancii care contine informatii despre utilizatori si conturi.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String iban = input.getAccount();
+        int timestamp = input.getTimestamp();
         ClassicAccount account = bank.getAccountByIban(iban);
 
         if (account != null && !account.isSavingsAccount()) {
-            ObjectNode commandOutput = mapper.createObjectNode();
-            commandOutput.put("command", "addInterest");
-            ObjectNode outputNode = mapper.createObjectNode();
-            outputNode.put("timestamp", timestamp);
-            outputNode.put("description", "This is not a savings account");
-            commandOutput.set("output", outputNode);
-            commandOutput.put("timestamp", timestamp);
-            output.add(commandOutput);
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "addInterest");
+            json.writeObjectFieldStart("output");
+            json.writeNumberField("timestamp", timestamp);
+            json.writeStringField("description", "This is not a savings account");
+            json.writeEndObject();
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
         } else if (account != null) {
             SavingsAccount savingsAccount = (SavingsAccount) account;
             var amount = savingsAccount.addInterest(timestamp);
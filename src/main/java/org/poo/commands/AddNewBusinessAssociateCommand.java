@@ -1,42 +1,31 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.BusinessAccount;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.User;
 
-public final class AddNewBusinessAssociateCommand implements Command {
-    private String accountIban;
-    private String role;
-    private String email;
+import java.io.IOException;
 
-    public AddNewBusinessAssociateCommand(final String accountIban,
-                                          final String role,
-                                          final String email) {
-        this.accountIban = accountIban;
-        this.role = role;
-        this.email = email;
-    }
+public final class AddNewBusinessAssociateCommand implements Command {
 
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("command", "addNewBusinessAssociate");
-        node.put("timestamp", timestamp);
-
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String accountIban = input.getAccount();
+        String role = input.getRole();
+        String email = input.getEmail();
+        int timestamp = input.getTimestamp();
         ClassicAccount account = bank.getAccountByIban(accountIban);
         if (account == null) {
-            node.put("output", "Account not found");
-            output.add(node);
+            writeOutput(output, timestamp, "Account not found");
             return;
         }
         if (!account.isBusinessAccount()) {
-            node.put("output", "Account is not of type business");
-            output.add(node);
+            writeOutput(output, timestamp, "Account is not of type business");
             return;
         }
         BusinessAccount bAcc = (BusinessAccount) account;
@@ -44,35 +33,23 @@ public final class AddNewBusinessAssociateCommand implements Command {
         String ownerEmail = bAcc.getOwnerEmail();
         User ownerUser = bank.getUserByEmail(ownerEmail);
         if (ownerUser == null) {
-            ObjectNode outNode = mapper.createObjectNode();
-            outNode.put("description", "You must be owner in order to change spending limit.");
-            outNode.put("timestamp", timestamp);
-            node.set("output", outNode);
-            node.put("timestamp", timestamp);
-            output.add(node);
+            writeOwnerError(output, timestamp);
             return;
         }
 
         if (!bAcc.isOwner(ownerEmail)) {
-            ObjectNode outNode = mapper.createObjectNode();
-            outNode.put("description", "You must be owner in order to change spending limit.");
-            outNode.put("timestamp", timestamp);
-            node.set("output", outNode);
-            node.put("timestamp", timestamp);
-            output.add(node);
+            writeOwnerError(output, timestamp);
             return;
         }
 
         User userToAdd = bank.getUserByEmail(email);
         if (userToAdd == null) {
-            node.put("output", "User not found");
-            output.add(node);
+            writeOutput(output, timestamp, "User not found");
             return;
         }
 
         if (bAcc.alreadyEmployeeOrManager(email)) {
-            node.put("output", "The user is already an associate of the account.");
-            output.add(node);
+            writeOutput(output, timestamp, "The user is already an associate of the account.");
             return;
         }
 
@@ -82,4 +59,28 @@ public final class AddNewBusinessAssociateCommand implements Command {
             bAcc.addEmployee(email);
         }
     }
+
+    private static void writeOutput(final OutputSink output, final int timestamp,
+                                    final String message) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "addNewBusinessAssociate");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeStringField("output", message);
+        json.writeEndObject();
+    }
+
+    private static void writeOwnerError(final OutputSink output,
+                                        final int timestamp) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "addNewBusinessAssociate");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeObjectFieldStart("output");
+        json.writeStringField("description",
+                "You must be owner in order to change spending limit.");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
 }
@@ -1,114 +1,135 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.BusinessAccount;
 import org.poo.banking.ClassicAccount;
+import org.poo.banking.CommerciantStatistics;
+import org.poo.banking.Money;
 import org.poo.banking.User;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 public final class BusinessReportCommand implements Command {
-    private String type;
-    private String accountIban;
-    private int startTimestamp;
-    private int endTimestamp;
-    private int timestamp;
-
-    public BusinessReportCommand(final String type, final String accountIban,
-                                 final int startTimestamp, final int endTimestamp,
-                                 final int timestamp) {
-        this.type = type;
-        this.accountIban = accountIban;
-        this.startTimestamp = startTimestamp;
-        this.endTimestamp = endTimestamp;
-        this.timestamp = timestamp;
-    }
 
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int ignored) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String type = input.getType();
+        String accountIban = input.getAccount();
+        int startTimestamp = input.getStartTimestamp();
+        int endTimestamp = input.getEndTimestamp();
+        int timestamp = input.getTimestamp();
 
-        ObjectNode node = mapper.createObjectNode();
-        node.put("command", "businessReport");
+        JsonGenerator json = output.generator();
 
         ClassicAccount acc = bank.getAccountByIban(accountIban);
         if (acc == null) {
-            node.put("output", "Account not found");
-            output.add(node);
+            writeError(json, "Account not found");
             return;
         }
         if (!acc.isBusinessAccount()) {
-            node.put("output", "Account is not of type business");
-            output.add(node);
+            writeError(json, "Account is not of type business");
             return;
         }
         BusinessAccount bAcc = (BusinessAccount) acc;
 
-        ObjectNode reportOutput = mapper.createObjectNode();
+        json.writeStartObject();
+        json.writeStringField("command", "businessReport");
+        json.writeObjectFieldStart("output");
 
-        reportOutput.put("IBAN", bAcc.getIban());
-        reportOutput.put("balance", bAcc.getBalance());
-        reportOutput.put("currency", bAcc.getCurrency().toString());
+        json.writeStringField("IBAN", bAcc.getIban());
+        json.writeNumberField("balance", bAcc.getBalance());
+        json.writeStringField("currency", bAcc.getCurrency().toString());
 
         double spendLimit = bAcc.getTransactionLimit("transfer");
         double depositLimit = bAcc.getTransactionLimit("incasare");
 
-        reportOutput.put("spending limit", spendLimit);
-        reportOutput.put("deposit limit", depositLimit);
+        json.writeNumberField("spending limit", spendLimit);
+        json.writeNumberField("deposit limit", depositLimit);
 
-        reportOutput.put("statistics type", this.type);
+        json.writeStringField("statistics type", type);
 
-        if ("transaction".equals(this.type)) {
-            ArrayNode managersArr = mapper.createArrayNode();
-            ArrayNode employeesArr = mapper.createArrayNode();
+        if ("transaction".equals(type)) {
             List<String> managerEmails = new ArrayList<>(bAcc.getManagers());
             List<String> employeeEmails = new ArrayList<>(bAcc.getEmployees());
 
-            double totalSpent = 0.0;
-            double totalDeposited = 0.0;
+            long totalSpent = 0;
+            long totalDeposited = 0;
 
+            json.writeArrayFieldStart("managers");
             for (String mgrEmail : managerEmails) {
                 User mgrUser = bank.getUserByEmail(mgrEmail);
                 double spent = bAcc.getSpentForUser(mgrEmail, startTimestamp, endTimestamp);
                 double deposited = bAcc.getDepositedForUser(mgrEmail, startTimestamp, endTimestamp);
-                totalSpent += spent;
-                totalDeposited += deposited;
-
-                ObjectNode mgrNode = mapper.createObjectNode();
-                mgrNode.put("username", buildUserName(mgrUser));
-                mgrNode.put("spent", spent);
-                mgrNode.put("deposited", deposited);
-                managersArr.add(mgrNode);
+                totalSpent = Money.add(totalSpent, Money.toUnits(spent));
+                totalDeposited = Money.add(totalDeposited, Money.toUnits(deposited));
+
+                writeMember(json, mgrUser, spent, deposited);
             }
 
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("employees");
             for (String empEmail : employeeEmails) {
                 User empUser = bank.getUserByEmail(empEmail);
                 double spent = bAcc.getSpentForUser(empEmail, startTimestamp, endTimestamp);
                 double deposited = bAcc.getDepositedForUser(empEmail, startTimestamp, endTimestamp);
-                totalSpent += spent;
-                totalDeposited += deposited;
-
-                ObjectNode empNode = mapper.createObjectNode();
-                empNode.put("username", buildUserName(empUser));
-                empNode.put("spent", spent);
-                empNode.put("deposited", deposited);
-                employeesArr.add(empNode);
+                totalSpent = Money.add(totalSpent, Money.toUnits(spent));
+                totalDeposited = Money.add(totalDeposited, Money.toUnits(deposited));
+
+                writeMember(json, empUser, spent, deposited);
+            }
+            json.writeEndArray();
+
+            json.writeNumberField("total spent", Money.toDouble(totalSpent));
+            json.writeNumberField("total deposited", Money.toDouble(totalDeposited));
+        } else if ("commerciant".equals(type)) {
+            json.writeArrayFieldStart("commerciants");
+            for (CommerciantStatistics stats
+                    : bAcc.getCommerciantStatistics(startTimestamp, endTimestamp)) {
+                json.writeStartObject();
+                json.writeStringField("commerciant", stats.getCommerciant());
+                json.writeNumberField("total received", stats.getTotalReceived());
+                writeNames(json, bank, "managers", stats.getManagers());
+                writeNames(json, bank, "employees", stats.getEmployees());
+                json.writeEndObject();
             }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+        json.writeNumberField("timestamp", timestamp);
+        json.writeEndObject();
+    }
+
+    private static void writeError(final JsonGenerator json,
+                                   final String message) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("command", "businessReport");
+        json.writeStringField("output", message);
+        json.writeEndObject();
+    }
 
-            reportOutput.set("managers", managersArr);
-            reportOutput.set("employees", employeesArr);
-            reportOutput.put("total spent", totalSpent);
-            reportOutput.put("total deposited", totalDeposited);
+    private void writeNames(final JsonGenerator json, final Bank bank, final String field,
+                            final List<String> emails) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (String email : emails) {
+            json.writeString(buildUserName(bank.getUserByEmail(email)));
         }
-            //        } else if ("commerciant".equals(this.type)) {
-//
-//        }
-        node.set("output", reportOutput);
-        node.put("timestamp", this.timestamp);
-        output.add(node);
+        json.writeEndArray();
+    }
+
+    private void writeMember(final JsonGenerator json, final User user, final double spent,
+                             final double deposited) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("username", buildUserName(user));
+        json.writeNumberField("spent", spent);
+        json.writeNumberField("deposited", deposited);
+        json.writeEndObject();
     }
 
     /**
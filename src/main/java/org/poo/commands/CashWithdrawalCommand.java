@@ -1,38 +1,28 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.transactions.CashWithdrawalTransaction;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.ClassicCard;
 import org.poo.banking.Currency;
-import org.poo.banking.Graph;
+import org.poo.banking.CurrencyConverter;
 import org.poo.banking.User;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 public final class CashWithdrawalCommand implements Command {
-    private String cardNumber;
-    private double amount;
-    private String email;
-    private String location;
-    private Graph<Currency> currencyGraph;
-
-    public CashWithdrawalCommand(final String cardNumber, final double amount,
-                                 final String email, final String location,
-                                 final Graph<Currency> currencyGraph) {
-        this.cardNumber = cardNumber;
-        this.amount = amount;
-        this.email = email;
-        this.location = location;
-        this.currencyGraph = currencyGraph;
-    }
 
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String cardNumber = input.getCardNumber();
+        double amount = input.getAmount();
+        String email = input.getEmail();
+        CurrencyConverter converter = bank.getCurrencyConverter();
+        int timestamp = input.getTimestamp();
 //        System.out.println("Executing cash withdrawal command for card " + cardNumber);
         User user = bank.getUserByEmail(email);
         if (user == null) {
@@ -40,57 +30,41 @@ public final class CashWithdrawalCommand implements Command {
         }
         ClassicCard card = bank.getCardByNumber(cardNumber);
         if (card == null) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "cashWithdrawal");
-            node.put("timestamp", timestamp);
-            ObjectNode obj = node.putObject("output");
-            obj.put("description", "Card not found");
-            obj.put("timestamp", timestamp);
-            output.add(node);
+            writeError(output, timestamp, "Card not found");
             return;
         }
-        ClassicAccount account = bank.getAccountByCardNumber(card.getCardNumber());
+        ClassicAccount account = bank.getAccountByCard(card);
         if (account == null) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "cashWithdrawal");
-            node.put("timestamp", timestamp);
-            ObjectNode obj = node.putObject("output");
-            obj.put("description", "Account not found");
-            obj.put("timestamp", timestamp);
-            output.add(node);
+            writeError(output, timestamp, "Account not found");
             return;
         }
         if (!account.checkCard(user, card)) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "cashWithdrawal");
-            node.put("timestamp", timestamp);
-            ObjectNode obj = node.putObject("output");
-            obj.put("description", "User not found");
-            obj.put("timestamp", timestamp);
-            output.add(node);
+            writeError(output, timestamp, "User not found");
             return;
         }
-            ArrayList<Graph<Currency>.Edge> path =
-                    currencyGraph.getPath(Currency.RON, account.getCurrency());
-            double totalRate = 1.0;
-            double amountToPay = amount;
-            if (path != null) {
-                for (int i = 0; i < path.size(); i++) {
-                    double rate = path.get(i).getCost();
-                    totalRate *= rate;
-                }
-                amountToPay = amount * totalRate;
-            }
+            double amountToPay = converter.convert(amount, Currency.RON, account.getCurrency());
             amountToPay += user.getFeeForTransaction(amountToPay,
-                    currencyGraph, account.getCurrency());
-            if (amountToPay  > account.getBalance()) {
+                    bank.getFeeSchedule(), account.getCurrency());
+            if (!account.tryDebit(amountToPay)) {
                 user.addTransaction(new CashWithdrawalTransaction(timestamp,
                         cardNumber, amount, "Insufficient funds"));
     //            user.addTransaction();
                 return;
             } else {
                 user.addTransaction(new CashWithdrawalTransaction(timestamp, cardNumber, amount));
-                account.addFunds(-amountToPay);
             }
     }
+
+    private static void writeError(final OutputSink output, final int timestamp,
+                                   final String description) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "cashWithdrawal");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeObjectFieldStart("output");
+        json.writeStringField("description", description);
+        json.writeNumberField("timestamp", timestamp);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
 }
@@ -1,74 +1,67 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.BusinessAccount;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.User;
 
-public final class ChangeDepositLimitCommand implements Command {
-    private String email;
-    private String account;
-    private double amount;
-    private int timestamp;
+import java.io.IOException;
 
-    public ChangeDepositLimitCommand(final String email, final String account,
-                                     final double amount, final int timestamp) {
-        this.email = email;
-        this.account = account;
-        this.amount = amount;
-        this.timestamp = timestamp;
-    }
+public final class ChangeDepositLimitCommand implements Command {
 
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int ts) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String email = input.getEmail();
+        String account = input.getAccount();
+        double amount = input.getAmount();
+        int timestamp = input.getTimestamp();
 
         User user = bank.getUserByEmail(email);
         if (user == null) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "changeDepositLimit");
-            node.put("timestamp", ts);
-            node.put("output", "User not found");
-            output.add(node);
+            writeError(output, timestamp, "User not found");
             return;
         }
 
         ClassicAccount acc = bank.getAccountByIban(account);
         if (acc == null) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "changeDepositLimit");
-            node.put("timestamp", ts);
-            node.put("output", "Account not found");
-            output.add(node);
+            writeError(output, timestamp, "Account not found");
             return;
         }
         if (!acc.isBusinessAccount()) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "changeDepositLimit");
-            node.put("timestamp", ts);
-            node.put("output", "Account is not of type business");
-            output.add(node);
+            writeError(output, timestamp, "Account is not of type business");
             return;
         }
 
         BusinessAccount bAcc = (BusinessAccount) acc;
 
         if (!bAcc.isOwner(user.getEmail())) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "changeDepositLimit");
-            node.put("timestamp", ts);
-            ObjectNode outNode = mapper.createObjectNode();
-            outNode.put("description", "You must be owner in order to change spending limit.");
-            outNode.put("timestamp", timestamp);
-            node.set("output", outNode);
-            node.put("timestamp", timestamp);
-            output.add(node);
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "changeDepositLimit");
+            json.writeNumberField("timestamp", timestamp);
+            json.writeObjectFieldStart("output");
+            json.writeStringField("description",
+                    "You must be owner in order to change spending limit.");
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
+            json.writeEndObject();
             return;
         }
 
         bAcc.setTransactionLimit("incasare", amount);
     }
+
+    private static void writeError(final OutputSink output, final int ts,
+                                   final String message) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "changeDepositLimit");
+        json.writeNumberField("timestamp", ts);
+        json.writeStringField("output", message);
+        json.writeEndObject();
+    }
 }
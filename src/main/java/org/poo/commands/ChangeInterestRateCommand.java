@@ -1,35 +1,32 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.transactions.ChangeInterestRateTransaction;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.SavingsAccount;
 import org.poo.banking.User;
 
-public class ChangeInterestRateCommand implements Command {
-    private double interestRate;
-    private String iban;
+import java.io.IOException;
 
-    public ChangeInterestRateCommand(final double interestRate, final String iban) {
-        this.interestRate = interestRate;
-        this.iban = iban;
-    }
+public class ChangeInterestRateCommand implements Command {
 
     /**
      * Executa comanda pentru schimbarea ratei dobanzilor unui cont de economii.
      * Se genereaza un mesaj de eroare daca IBAN-ul nu este asociat unui cont de economii.
      *
      * @param bank      Instanta bancii care contine informatii despre utilizatori si conturi.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        double interestRate = input.getInterestRate();
+        String iban = input.getAccount();
+        int timestamp = input.getTimestamp();
         ClassicAccount account = bank.getAccountByIban(iban);
 
         if (account != null) {
@@ -43,15 +40,15 @@ public class ChangeInterestRateCommand implements Command {
                             interestRate));
                 }
             } else {
-                ObjectNode commandOutput = mapper.createObjectNode();
-                commandOutput.put("command", "changeInterestRate");
-                ObjectNode outputNode =
-                        mapper.createObjectNode();
-                outputNode.put("timestamp", timestamp);
-                outputNode.put("description", "This is not a savings account");
-                commandOutput.set("output", outputNode);
-                commandOutput.put("timestamp", timestamp);
-                output.add(commandOutput);
+                JsonGenerator json = output.generator();
+                json.writeStartObject();
+                json.writeStringField("command", "changeInterestRate");
+                json.writeObjectFieldStart("output");
+                json.writeNumberField("timestamp", timestamp);
+                json.writeStringField("description", "This is not a savings account");
+                json.writeEndObject();
+                json.writeNumberField("timestamp", timestamp);
+                json.writeEndObject();
             }
         }
     }
@@ -1,63 +1,64 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.BusinessAccount;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.User;
 
+import java.io.IOException;
+
 public final class ChangeSpendingLimitCommand implements Command {
-    private String email;
-    private String account;
-    private double amount;
-    private int timestamp;
-
-    public ChangeSpendingLimitCommand(final String email, final String account,
-                                      final double amount, final int timestamp) {
-        this.email = email;
-        this.account = account;
-        this.amount = amount;
-        this.timestamp = timestamp;
-    }
 
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int ts) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("command", "changeSpendingLimit");
-
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String email = input.getEmail();
+        String account = input.getAccount();
+        double amount = input.getAmount();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByEmail(email);
         if (user == null) {
-            node.put("output", "User not found");
-            output.add(node);
+            writeError(output, "User not found");
             return;
         }
 
         ClassicAccount acc = bank.getAccountByIban(account);
         if (acc == null) {
-            node.put("output", "Account not found");
-            output.add(node);
+            writeError(output, "Account not found");
             return;
         }
         if (!acc.isBusinessAccount()) {
-            node.put("output", "Account is not of type business");
-            output.add(node);
+            writeError(output, "Account is not of type business");
             return;
         }
 
         BusinessAccount bAcc = (BusinessAccount) acc;
         if (!bAcc.isOwner(user.getEmail())) {
-            ObjectNode outNode = mapper.createObjectNode();
-            outNode.put("timestamp", timestamp);
-            outNode.put("description", "You must be owner in order to change spending limit.");
-            node.set("output", outNode);
-            node.put("timestamp", timestamp);
-            output.add(node);
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "changeSpendingLimit");
+            json.writeObjectFieldStart("output");
+            json.writeNumberField("timestamp", timestamp);
+            json.writeStringField("description",
+                    "You must be owner in order to change spending limit.");
+            json.writeEndObject();
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
             return;
         }
 
         bAcc.setTransactionLimit("transfer", amount);
     }
+
+    private static void writeError(final OutputSink output,
+                                   final String message) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "changeSpendingLimit");
+        json.writeStringField("output", message);
+        json.writeEndObject();
+    }
 }
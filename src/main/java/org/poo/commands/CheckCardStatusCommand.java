@@ -1,20 +1,17 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.ClassicCard;
 import org.poo.transactions.FreezeCardTransaction;
 import org.poo.banking.User;
 
-public class CheckCardStatusCommand implements Command {
-    private String cardNumber;
+import java.io.IOException;
 
-    public CheckCardStatusCommand(final String cardNumber) {
-        this.cardNumber = cardNumber;
-    }
+public class CheckCardStatusCommand implements Command {
 
     /**
      * Executa comanda pentru verificarea statusului unui card.
@@ -22,24 +19,26 @@ public class CheckCardStatusCommand implements Command {
      * cardul va fi blocat si se va adauga o tranzactie corespunzatoare.
      *
      * @param bank      Instanta bancii care contine informatii despre utilizatori si conturi.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String cardNumber = input.getCardNumber();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByCardNumber(cardNumber);
 
         if (user == null) {
-            ObjectNode commandOutput = mapper.createObjectNode();
-            ObjectNode node = mapper.createObjectNode();
-            commandOutput.put("command", "checkCardStatus");
-            node.put("timestamp", timestamp);
-            node.put("description", "Card not found");
-            commandOutput.put("output", node);
-            commandOutput.put("timestamp", timestamp);
-            output.add(commandOutput);
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "checkCardStatus");
+            json.writeObjectFieldStart("output");
+            json.writeNumberField("timestamp", timestamp);
+            json.writeStringField("description", "Card not found");
+            json.writeEndObject();
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
         } else {
             ClassicAccount account = user.getAccountByCard(cardNumber);
             if (account.getBalance() <= account.getMinimumBalance()) {
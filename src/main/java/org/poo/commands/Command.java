@@ -1,14 +1,20 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
+
+import java.io.IOException;
 
 
 public interface Command {
 
     /**
-     * Functia executa comanda.
+     * Functia executa comanda. Implementarile nu au stare: parametrii sunt cititi din
+     * input, deci aceeasi instanta executa toate comenzile de acelasi tip
+     * (vezi {@link CommandType}). Rezultatele sunt scrise direct in generatorul sink-ului.
+     *
+     * @throws IOException in cazul unei erori de scriere a rezultatelor.
      */
-    void execute(Bank bank, ArrayNode output, ObjectMapper mapper, int timestamp);
+    void execute(Bank bank, CommandInput input, OutputSink output) throws IOException;
 }
@@ -0,0 +1,149 @@
+package org.poo.commands;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tabela de dispatch a comenzilor: fiecare tip de comanda din fisierele de intrare,
+ * cu numele lui si handler-ul care il executa. Handler-ele nu au stare, deci sunt
+ * create o singura data si refolosite pentru toate comenzile de acelasi tip; executia
+ * unei comenzi nu mai aloca obiecte {@link Command}.
+ *
+ * Fiecare tip declara si clasa de partitionare pentru executia paralela si daca doar
+ * afiseaza starea (nu este jurnalizat), deci o comanda noua nu poate ajunge implicit
+ * intr-o partitie sau politica de jurnalizare gresita.
+ */
+public enum CommandType {
+    PRINT_USERS("printUsers", new PrintUsersCommand(),
+            Partition.COORDINATOR, true),
+    ADD_ACCOUNT("addAccount", new AddAccountCommand(),
+            Partition.COORDINATOR, false),
+    CREATE_CARD("createCard", new CreateCardCommand(),
+            Partition.COORDINATOR, false),
+    CREATE_ONE_TIME_CARD("createOneTimeCard", new CreateOneTimeCardCommand(),
+            Partition.COORDINATOR, false),
+    ADD_FUNDS("addFunds", new AddFundsCommand(),
+            Partition.EMAIL_AND_ACCOUNT, false),
+    DELETE_ACCOUNT("deleteAccount", new DeleteAccountCommand(),
+            Partition.COORDINATOR, false),
+    DELETE_CARD("deleteCard", new DeleteCardCommand(),
+            Partition.COORDINATOR, false),
+    PAY_ONLINE("payOnline", new PayOnlineCommand(),
+            Partition.EMAIL_AND_CARD, false),
+    SEND_MONEY("sendMoney", new SendMoneyCommand(),
+            Partition.COORDINATOR, false),
+    PRINT_TRANSACTIONS("printTransactions", new PrintTransactionCommand(),
+            Partition.EMAIL, true),
+    SET_MINIMUM_BALANCE("setMinimumBalance", new SetMinimumBalanceCommand(),
+            Partition.ACCOUNT, false),
+    CHECK_CARD_STATUS("checkCardStatus", new CheckCardStatusCommand(),
+            Partition.CARD, false),
+    SPLIT_PAYMENT("splitPayment", new SplitPaymentCommand(),
+            Partition.COORDINATOR, false),
+    REPORT("report", new ReportCommand(),
+            Partition.ACCOUNT, true),
+    SPENDINGS_REPORT("spendingsReport", new SpendingsReportCommand(),
+            Partition.ACCOUNT, true),
+    CHANGE_INTEREST_RATE("changeInterestRate", new ChangeInterestRateCommand(),
+            Partition.ACCOUNT, false),
+    ADD_INTEREST("addInterest", new AddInterestCommand(),
+            Partition.ACCOUNT, false),
+    WITHDRAW_SAVINGS("withdrawSavings", new WithdrawSavingsCommand(),
+            Partition.ACCOUNT, false),
+    UPGRADE_PLAN("upgradePlan", new UpgradePlanCommand(),
+            Partition.ACCOUNT, false),
+    CASH_WITHDRAWAL("cashWithdrawal", new CashWithdrawalCommand(),
+            Partition.EMAIL_AND_CARD, false),
+    ACCEPT_SPLIT_PAYMENT("acceptSplitPayment", new AcceptSplitPaymentCommand(),
+            Partition.COORDINATOR, false),
+    REJECT_SPLIT_PAYMENT("rejectSplitPayment", new RejectSplitPaymentCommand(),
+            Partition.COORDINATOR, false),
+    ADD_NEW_BUSINESS_ASSOCIATE("addNewBusinessAssociate", new AddNewBusinessAssociateCommand(),
+            Partition.COORDINATOR, false),
+    CHANGE_SPENDING_LIMIT("changeSpendingLimit", new ChangeSpendingLimitCommand(),
+            Partition.EMAIL_AND_ACCOUNT, false),
+    BUSINESS_REPORT("businessReport", new BusinessReportCommand(),
+            Partition.ACCOUNT, true),
+    CHANGE_DEPOSIT_LIMIT("changeDepositLimit", new ChangeDepositLimitCommand(),
+            Partition.EMAIL_AND_ACCOUNT, false);
+
+    private static final Map<String, CommandType> BY_NAME = new HashMap<>();
+
+    static {
+        for (CommandType type : values()) {
+            BY_NAME.put(type.commandName, type);
+        }
+    }
+
+    private final String commandName;
+    private final Command handler;
+    private final Partition partition;
+    private final boolean readOnly;
+
+    CommandType(final String commandName, final Command handler, final Partition partition,
+                final boolean readOnly) {
+        this.commandName = commandName;
+        this.handler = handler;
+        this.partition = partition;
+        this.readOnly = readOnly;
+    }
+
+    public String getCommandName() {
+        return commandName;
+    }
+
+    public Command getHandler() {
+        return handler;
+    }
+
+    /**
+     * Returneaza felul in care se stabileste partitia comenzii la executia paralela.
+     *
+     * @return Clasa de partitionare.
+     */
+    public Partition getPartition() {
+        return partition;
+    }
+
+    /**
+     * Indica daca comanda doar afiseaza starea; astfel de comenzi nu sunt jurnalizate
+     * si nu sunt reluate la recuperare.
+     *
+     * @return true daca comanda nu modifica banca.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Returneaza tipul comenzii cu numele dat, asa cum apare in fisierele de intrare.
+     *
+     * @param commandName Numele comenzii.
+     * @return Tipul comenzii sau null daca numele nu este cunoscut.
+     */
+    public static CommandType fromName(final String commandName) {
+        return commandName == null ? null : BY_NAME.get(commandName);
+    }
+
+    /**
+     * Felul in care se stabileste partitia (utilizatorul care detine tot ce atinge
+     * comanda) la executia paralela.
+     */
+    public enum Partition {
+        /** Comanda este executata singura, de coordonator. */
+        COORDINATOR,
+        /** Proprietarul contului, daca este si utilizatorul din comanda. */
+        EMAIL_AND_ACCOUNT,
+        /** Proprietarul contului. */
+        ACCOUNT,
+        /** Proprietarul cardului. */
+        CARD,
+        /**
+         * Proprietarul cardului, daca este si utilizatorul din comanda; nu si pentru
+         * cardurile de unica folosinta, a caror inlocuire modifica indecsii bancii.
+         */
+        EMAIL_AND_CARD,
+        /** Utilizatorul din comanda. */
+        EMAIL
+    }
+}
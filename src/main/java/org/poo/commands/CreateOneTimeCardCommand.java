@@ -1,8 +1,8 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.transactions.CardCreatedTransaction;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.OneTimeCard;
@@ -10,33 +10,28 @@ import org.poo.banking.User;
 import org.poo.utils.Utils;
 
 public class CreateOneTimeCardCommand implements Command {
-    private String email;
-    private String iban;
-
-    public CreateOneTimeCardCommand(final String email, final String iban) {
-        this.email = email;
-        this.iban = iban;
-    }
 
     /**
      * Executa comanda pentru crearea unui card de tip one-time si adaugarea
      * acestuia in contul utilizatorului.
      *
      * @param bank      Instanta bancii care contine informatii despre utilizatori si conturi.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) {
+        String email = input.getEmail();
+        String iban = input.getAccount();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByEmail(email);
         if (user != null) {
             ClassicAccount account = user.getAccountByIban(iban);
             if (account != null && user.getAccounts().contains(account)) {
                 String cardNumber = Utils.generateCardNumber();
                 OneTimeCard oneTimeCard = new OneTimeCard(cardNumber);
-                account.addCard(oneTimeCard);
+                bank.addCard(account, oneTimeCard);
                 user.addTransaction(new CardCreatedTransaction(timestamp,
                         email, cardNumber, iban));
             }
@@ -1,40 +1,36 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.ClassicAccount;
 import org.poo.transactions.DeleteAccountTransaction;
 import org.poo.banking.User;
 
-public class DeleteAccountCommand implements Command {
-    private String email;
-    private String iban;
+import java.io.IOException;
 
-    public DeleteAccountCommand(final String email, final String iban) {
-        this.email = email;
-        this.iban = iban;
-    }
+public class DeleteAccountCommand implements Command {
 
     /**
      * Executa comanda pentru stergerea unui cont asociat utilizatorului.
      *
      * @param bank      Instanta bancii care contine informatii despre utilizatori si conturi.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String email = input.getEmail();
+        String iban = input.getAccount();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByEmail(email);
         if (user != null) {
             ClassicAccount account = bank.getAccountByIban(iban);
-            boolean resultDeleted =  user.deleteAccountByIban(iban);
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "deleteAccount");
-            ObjectNode outputNode = mapper.createObjectNode();
+            boolean resultDeleted =  bank.deleteAccount(user, iban);
+            String outcome = "error";
+            String message;
             String error =
                     "Account couldn't be deleted - see org.poo.transactions for details";
 
@@ -46,22 +42,28 @@ public class DeleteAccountCommand implements Command {
                     user.addTransaction(new DeleteAccountTransaction(timestamp,
                             errorMessage));
 
-                    outputNode.put("error", error);
+                    message = error;
                 } else {
                     if (resultDeleted) {
-                        outputNode.put("success", "Account deleted");
+                        outcome = "success";
+                        message = "Account deleted";
                     } else {
-                        outputNode.put("error", error);
+                        message = error;
                     }
                 }
             } else {
-                outputNode.put("error", "Account not found");
+                message = "Account not found";
             }
 
-            outputNode.put("timestamp", timestamp);
-            node.set("output", outputNode);
-            node.put("timestamp", timestamp);
-            output.add(node);
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "deleteAccount");
+            json.writeObjectFieldStart("output");
+            json.writeStringField(outcome, message);
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
         }
     }
 }
@@ -1,9 +1,9 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.BusinessAccount;
 import org.poo.transactions.BusinessTransaction;
 import org.poo.transactions.CardCreatedTransaction;
@@ -12,62 +12,36 @@ import org.poo.transactions.CardPaymentTransaction;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.ClassicCard;
 import org.poo.banking.Currency;
-import org.poo.banking.Graph;
+import org.poo.banking.CurrencyConverter;
 import org.poo.transactions.InsufficientFundsTransaction;
 import org.poo.banking.OneTimeCard;
 import org.poo.transactions.TransactionType;
 import org.poo.banking.User;
 import org.poo.commerciants.Commerciant;
 import org.poo.utils.Utils;
-import java.util.ArrayList;
 
-public final class PayOnlineCommand implements Command {
-    private String cardNumber;
-    private double amountToDeduct;
-    private String currencyStr;
-    private String description;
-    private String commerciant;
-    private String email;
-    private Graph<Currency> currencyGraph;
+import java.io.IOException;
 
-    public PayOnlineCommand(final String cardNumber, final double amountToDeduct,
-                            final String currencyStr, final String description,
-                            final String commerciant, final String email,
-                            final Graph<Currency> currencyGraph) {
-        this.cardNumber = cardNumber;
-        this.amountToDeduct = amountToDeduct;
-        this.currencyStr = currencyStr;
-        this.description = description;
-        this.commerciant = commerciant;
-        this.email = email;
-        this.currencyGraph = currencyGraph;
-    }
+public final class PayOnlineCommand implements Command {
 
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String cardNumber = input.getCardNumber();
+        double amountToDeduct = input.getAmount();
+        String currencyStr = input.getCurrency();
+        String commerciant = input.getCommerciant();
+        String email = input.getEmail();
+        CurrencyConverter converter = bank.getCurrencyConverter();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByEmail(email);
         if (user == null) {
-            ObjectNode commandOutput = mapper.createObjectNode();
-            commandOutput.put("command", "payOnline");
-            ObjectNode outNode = mapper.createObjectNode();
-            outNode.put("description", "User not found");
-            outNode.put("timestamp", timestamp);
-            commandOutput.set("output", outNode);
-            commandOutput.put("timestamp", timestamp);
-            output.add(commandOutput);
+            writeDescription(output, timestamp, "User not found");
             return;
         }
         ClassicCard card = bank.getCardByNumber(cardNumber);
         if (card == null) {
-            ObjectNode commandOutput = mapper.createObjectNode();
-            commandOutput.put("command", "payOnline");
-            ObjectNode outNode = mapper.createObjectNode();
-            outNode.put("description", "Card not found");
-            outNode.put("timestamp", timestamp);
-            commandOutput.set("output", outNode);
-            commandOutput.put("timestamp", timestamp);
-            output.add(commandOutput);
+            writeDescription(output, timestamp, "Card not found");
             return;
         }
         if (!card.isActive()) {
@@ -80,43 +54,34 @@ public final class PayOnlineCommand implements Command {
         if (account != null) {
             Currency targetCurrency = Currency.valueOf(currencyStr);
             Currency accountCurrency = account.getCurrency();
-            double convertedAmount = amountToDeduct;
-
-            if (!accountCurrency.equals(targetCurrency)) {
-                ArrayList<Graph<Currency>.Edge> path =
-                        currencyGraph.getPath(targetCurrency, accountCurrency);
-                if (path != null) {
-                    double totalRate = 1.0;
-                    for (Graph<Currency>.Edge edge : path) {
-                        totalRate *= edge.getCost();
-                    }
-                    convertedAmount = amountToDeduct * totalRate;
-                }
-            }
-            double fee = user.getFeeForTransaction(convertedAmount, currencyGraph, accountCurrency);
+            double convertedAmount =
+                    converter.convert(amountToDeduct, targetCurrency, accountCurrency);
+            double fee = user.getFeeForTransaction(convertedAmount, bank.getFeeSchedule(),
+                    accountCurrency);
             double totalAmount = convertedAmount + fee;
-            if (account.getBalance() >= totalAmount) {
-                account.addFunds(-totalAmount);
+            if (account.tryDebit(totalAmount)) {
                 if (account.isBusinessAccount()) {
                     BusinessAccount bAcc = (BusinessAccount) account;
                     bAcc.logTransaction(new BusinessTransaction(user.getEmail(), convertedAmount,
                             TransactionType.SPENT, timestamp, accountCurrency));
+                    bAcc.recordCommerciantPayment(commerciant, user.getEmail(), timestamp,
+                            convertedAmount);
                 }
                 user.addTransaction(new CardPaymentTransaction(timestamp, account,
                         commerciant, convertedAmount, accountCurrency));
                 Commerciant c = bank.getCommerciantByName(commerciant);
                 if (c != null && c.getStrategy() != null) {
                     c.getStrategy().applyCashback(account, convertedAmount,
-                            accountCurrency, currencyGraph, user, c);
+                            accountCurrency, converter, user, c);
                 }
                 SendMoneyCommand.upgradePlanForSilver(user, accountCurrency,
-                        convertedAmount, currencyGraph);
+                        convertedAmount, converter);
                 if (card.isOneTimeCard()) {
                     user.addTransaction(new CardDestroyedTransaction(timestamp, email,
                             cardNumber, account.getIban()));
                     OneTimeCard oneTimeCard = (OneTimeCard) card;
                     String newCardNumber = Utils.generateCardNumber();
-                    oneTimeCard.setCardNumber(newCardNumber);
+                    bank.changeCardNumber(oneTimeCard, newCardNumber);
                     user.addTransaction(new CardCreatedTransaction(timestamp, email,
                             newCardNumber, account.getIban()));
                 }
@@ -127,30 +92,15 @@ public final class PayOnlineCommand implements Command {
         }
         ClassicAccount fallbackAcc = bank.getAccountByCardNumber(cardNumber);
         if (fallbackAcc == null) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "payOnline");
-            node.put("timestamp", timestamp);
-            node.put("output", "Account not found");
-            output.add(node);
+            writeOutput(output, timestamp, "Account not found");
             return;
         }
         Currency targetCurrency = Currency.valueOf(currencyStr);
         Currency accountCurrency = fallbackAcc.getCurrency();
-        double convertedAmount = amountToDeduct;
-
-        if (!accountCurrency.equals(targetCurrency)) {
-            ArrayList<Graph<Currency>.Edge> path =
-                    currencyGraph.getPath(targetCurrency, accountCurrency);
-
-            if (path != null) {
-                double totalRate = 1.0;
-                for (Graph<Currency>.Edge edge : path) {
-                    totalRate *= edge.getCost();
-                }
-                convertedAmount = amountToDeduct * totalRate;
-            }
-        }
-        double fee = user.getFeeForTransaction(convertedAmount, currencyGraph, accountCurrency);
+        double convertedAmount =
+                converter.convert(amountToDeduct, targetCurrency, accountCurrency);
+        double fee = user.getFeeForTransaction(convertedAmount, bank.getFeeSchedule(),
+                accountCurrency);
         double totalAmount = convertedAmount + fee;
 
         if (fallbackAcc.getBalance() < totalAmount) {
@@ -162,33 +112,58 @@ public final class PayOnlineCommand implements Command {
         }
         BusinessAccount bAcc = (BusinessAccount) fallbackAcc;
         if (!bAcc.isAssociate(user.getEmail())) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("command", "payOnline");
-            node.put("timestamp", timestamp);
-            node.put("output", "You are not authorized to make this transaction.");
-            output.add(node);
+            writeOutput(output, timestamp, "You are not authorized to make this transaction.");
+            return;
+        }
+        // verificarea de mai sus pastreaza ordinea erorilor; debitul o repeta atomic
+        if (!bAcc.tryDebit(totalAmount)) {
+            user.addTransaction(new InsufficientFundsTransaction(timestamp));
             return;
         }
-        bAcc.addFunds(-totalAmount);
         bAcc.logTransaction(new BusinessTransaction(user.getEmail(), convertedAmount,
                 TransactionType.SPENT, timestamp, accountCurrency));
+        bAcc.recordCommerciantPayment(commerciant, user.getEmail(), timestamp,
+                convertedAmount);
         user.addTransaction(new CardPaymentTransaction(timestamp, fallbackAcc,
                 commerciant, convertedAmount, accountCurrency));
         Commerciant c = bank.getCommerciantByName(commerciant);
         if (c != null && c.getStrategy() != null) {
             c.getStrategy().applyCashback(fallbackAcc, convertedAmount,
-                    accountCurrency, currencyGraph, user, c);
+                    accountCurrency, converter, user, c);
         }
         SendMoneyCommand.upgradePlanForSilver(user,
-                accountCurrency, convertedAmount, currencyGraph);
+                accountCurrency, convertedAmount, converter);
         if (card.isOneTimeCard()) {
             user.addTransaction(new CardDestroyedTransaction(timestamp, email,
                     cardNumber, fallbackAcc.getIban()));
             OneTimeCard oneTimeCard = (OneTimeCard) card;
             String newCardNumber = Utils.generateCardNumber();
-            oneTimeCard.setCardNumber(newCardNumber);
+            bank.changeCardNumber(oneTimeCard, newCardNumber);
             user.addTransaction(new CardCreatedTransaction(timestamp, email,
                     newCardNumber, fallbackAcc.getIban()));
         }
     }
+
+    private static void writeDescription(final OutputSink output, final int timestamp,
+                                         final String description) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "payOnline");
+        json.writeObjectFieldStart("output");
+        json.writeStringField("description", description);
+        json.writeNumberField("timestamp", timestamp);
+        json.writeEndObject();
+        json.writeNumberField("timestamp", timestamp);
+        json.writeEndObject();
+    }
+
+    private static void writeOutput(final OutputSink output, final int timestamp,
+                                    final String message) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "payOnline");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeStringField("output", message);
+        json.writeEndObject();
+    }
 }
@@ -1,52 +1,40 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
-import org.poo.banking.ClassicAccount;
-import org.poo.transactions.Transaction;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.transactions.TransactionPrinter;
 import org.poo.banking.User;
 
-import java.util.List;
+import java.io.IOException;
 
 public class PrintTransactionCommand implements  Command {
-    private String email;
-
-    public PrintTransactionCommand(final String email) {
-        this.email = email;
-    }
 
     /**
      * Executa comanda pentru afisarea tranzactiilor asociate unui utilizator.
      *
      * @param bank      Instanta bancii care contine toti utilizatorii si conturile acestora.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String email = input.getEmail();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByEmail(email);
 
         if (user != null) {
-            List<ClassicAccount> userAccounts = user.getAccounts();
-            List<Transaction> transactions = user.getTransactions(null);
-            ArrayNode transactionsArray = mapper.createArrayNode();
-            TransactionPrinter transactionPrinter =
-                    new TransactionPrinter(transactionsArray, mapper);
-
-            for (Transaction transaction : transactions) {
-                transaction.accept(transactionPrinter);
-            }
-
-            ObjectNode commandOutput = mapper.createObjectNode();
-            commandOutput.put("command", "printTransactions");
-            commandOutput.put("output", transactionsArray);
-            commandOutput.put("timestamp", timestamp);
-            output.add(commandOutput);
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "printTransactions");
+            json.writeArrayFieldStart("output");
+            new TransactionPrinter(json).printAll(user.getTransactions(null));
+
+            json.writeEndArray();
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
         }
     }
 }
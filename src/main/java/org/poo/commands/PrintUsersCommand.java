@@ -1,13 +1,14 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.ClassicCard;
 import org.poo.banking.User;
 
+import java.io.IOException;
 import java.util.List;
 
 public class PrintUsersCommand implements Command {
@@ -16,53 +17,54 @@ public class PrintUsersCommand implements Command {
      * Executa comanda pentru afisarea utilizatorilor si a conturilor acestora.
      *
      * @param bank      Instanta bancii care contine toti utilizatorii si conturile.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        int timestamp = input.getTimestamp();
 //        System.out.println("Print users at timestamp " + timestamp);
         List<User> users =  bank.getUsers();
-        ArrayNode usersArray = mapper.createArrayNode();
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "printUsers");
+        json.writeArrayFieldStart("output");
 
         for (User user : users) {
-            ObjectNode node = mapper.createObjectNode();
-            node.put("firstName", user.getFirstName());
-            node.put("lastName", user.getLastName());
-            node.put("email", user.getEmail());
-            ArrayNode accounts = mapper.createArrayNode();
+            json.writeStartObject();
+            json.writeStringField("firstName", user.getFirstName());
+            json.writeStringField("lastName", user.getLastName());
+            json.writeStringField("email", user.getEmail());
+            json.writeArrayFieldStart("accounts");
             for (ClassicAccount account : user.getAccounts()) {
-                ObjectNode accountNode = mapper.createObjectNode();
-                accountNode.put("IBAN", account.getIban());
-                accountNode.put("balance", account.getBalance());
-                accountNode.put("currency", account.getCurrency().toString());
-                accountNode.put("type", account.getAccountType());
-                ArrayNode cards = mapper.createArrayNode();
+                json.writeStartObject();
+                json.writeStringField("IBAN", account.getIban());
+                json.writeNumberField("balance", account.getBalance());
+                json.writeStringField("currency", account.getCurrency().toString());
+                json.writeStringField("type", account.getAccountType());
+                json.writeArrayFieldStart("cards");
 
                 //TODO de adaugat cardurile in output - DONE
                 for (ClassicCard card : account.getCards()) {
-                    ObjectNode cardNode = mapper.createObjectNode();
-                    cardNode.put("cardNumber", card.getCardNumber());
+                    json.writeStartObject();
+                    json.writeStringField("cardNumber", card.getCardNumber());
                     if (card.isActive()) {
-                        cardNode.put("status", "active");
+                        json.writeStringField("status", "active");
                     } else {
-                        cardNode.put("status", "frozen");
+                        json.writeStringField("status", "frozen");
                     }
-                    cards.add(cardNode);
+                    json.writeEndObject();
                 }
-                accountNode.put("cards", cards);
-                accounts.add(accountNode);
+                json.writeEndArray();
+                json.writeEndObject();
             }
 
-            node.put("accounts", accounts);
-            usersArray.add(node);
+            json.writeEndArray();
+            json.writeEndObject();
         }
-        ObjectNode commandOutput = mapper.createObjectNode();
-        commandOutput.put("command", "printUsers");
-        commandOutput.put("output", usersArray);
-        commandOutput.put("timestamp", timestamp);
-        output.add(commandOutput);
+        json.writeEndArray();
+        json.writeNumberField("timestamp", timestamp);
+        json.writeEndObject();
     }
 }
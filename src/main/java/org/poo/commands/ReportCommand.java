@@ -1,88 +1,64 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.ClassicAccount;
-import org.poo.transactions.Transaction;
 import org.poo.transactions.TransactionPrinter;
 import org.poo.banking.User;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
 
 public class ReportCommand implements Command {
-    private String iban;
-    private int startTimestamp;
-    private int endTimestamp;
-
-    public ReportCommand(final String iban, final int startTimestamp,
-                         final int endTimestamp) {
-        this.iban = iban;
-        this.startTimestamp = startTimestamp;
-        this.endTimestamp = endTimestamp;
-    }
 
     /**
      * Executa comanda pentru generarea raportului de tranzactii.
      *
      * @param bank      Instanta bancii care contine toate conturile si utilizatorii.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String iban = input.getAccount();
+        int startTimestamp = input.getStartTimestamp();
+        int endTimestamp = input.getEndTimestamp();
+        int timestamp = input.getTimestamp();
         ClassicAccount account = bank.getAccountByIban(iban);
 
         if (account != null) {
-            List<Transaction> transactions = new ArrayList<>();
-            for (User user : bank.getUsers()) {
-                if (user.getAccounts().contains(account)) {
-                    transactions = user.getTransactions(iban);
-                    break;
-                }
-            }
+            User owner = bank.getUserByAccount(iban);
 
-            List<Transaction> filteredTransactions = new ArrayList<>();
-            for (Transaction transaction : transactions) {
-                if (transaction.getTimestamp() >= startTimestamp
-                        && transaction.getTimestamp() <= endTimestamp) {
-                    filteredTransactions.add(transaction);
-                }
-            }
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "report");
+            json.writeObjectFieldStart("output");
+            json.writeStringField("IBAN", account.getIban());
+            json.writeNumberField("balance", account.getBalance());
+            json.writeStringField("currency", account.getCurrency().toString());
 
-            ObjectNode reportNode = mapper.createObjectNode();
-            reportNode.put("IBAN", account.getIban());
-            reportNode.put("balance", account.getBalance());
-            reportNode.put("currency", account.getCurrency().toString());
-
-            ArrayNode transactionsArray = mapper.createArrayNode();
-            TransactionPrinter transactionPrinter =
-                    new TransactionPrinter(transactionsArray, mapper);
-
-            for (Transaction transaction : filteredTransactions) {
-                transaction.accept(transactionPrinter);
+            json.writeArrayFieldStart("transactions");
+            if (owner != null) {
+                new TransactionPrinter(json)
+                        .printAll(owner.getTransactions(iban, startTimestamp, endTimestamp));
             }
 
-            reportNode.put("transactions", transactionsArray);
-
-            ObjectNode commandOutput = mapper.createObjectNode();
-            commandOutput.put("command", "report");
-            commandOutput.put("output", reportNode);
-            commandOutput.put("timestamp", timestamp);
-            output.add(commandOutput);
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
         } else {
-            ObjectNode commandOutput = mapper.createObjectNode();
-            commandOutput.put("command", "report");
-            ObjectNode reportNode = mapper.createObjectNode();
-            reportNode.put("timestamp", timestamp);
-            reportNode.put("description", "Account not found");
-            commandOutput.put("output", reportNode);
-            commandOutput.put("timestamp", timestamp);
-            output.add(commandOutput);
+            JsonGenerator json = output.generator();
+            json.writeStartObject();
+            json.writeStringField("command", "report");
+            json.writeObjectFieldStart("output");
+            json.writeNumberField("timestamp", timestamp);
+            json.writeStringField("description", "Account not found");
+            json.writeEndObject();
+            json.writeNumberField("timestamp", timestamp);
+            json.writeEndObject();
         }
     }
 }
@@ -1,11 +1,11 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.Currency;
-import org.poo.banking.Graph;
+import org.poo.banking.CurrencyConverter;
 import org.poo.banking.User;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.BusinessAccount;
@@ -16,51 +16,34 @@ import org.poo.transactions.InsufficientFundsTransaction;
 import org.poo.transactions.TransactionType;
 import org.poo.commerciants.Commerciant;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 public class SendMoneyCommand implements Command {
-    private String email;
-    private String currentIban;
-    private String receiverIban;
-    private  String description;
-    private double amount;
-    private Graph<Currency> currencyGraph;
     private static final double INCREMENT_SILVER_PAYMENT = 300;
 
-    public SendMoneyCommand(final String email, final String currentIban,
-                            final String receiverIban, final String description,
-                            final double amount, final Graph<Currency> currencyGraph) {
-        this.email = email;
-        this.currentIban = currentIban;
-        this.receiverIban = receiverIban;
-        this.description = description;
-        this.amount = amount;
-        this.currencyGraph = currencyGraph;
-    }
-
     /**
      * Executa comanda pentru trimiterea de bani intre doua conturi.
      *
      * @param bank      Instanta bancii care contine toate conturile si utilizatorii.
-     * @param output    Nodul JSON in care se adauga rezultatele comenzii.
-     * @param mapper    Obiectul Jackson pentru manipularea JSON-ului.
-     * @param timestamp Timpul la care este executata comanda.
+     * @param input     Parametrii comenzii, inclusiv timpul la care este executata.
+     * @param output    Sink-ul in care se scriu rezultatele comenzii.
      */
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String email = input.getEmail();
+        String currentIban = input.getAccount();
+        String receiverIban = input.getReceiver();
+        String description = input.getDescription();
+        double amount = input.getAmount();
+        CurrencyConverter converter = bank.getCurrencyConverter();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByEmail(email);
 
         if (user != null) {
             ClassicAccount currentAccount = bank.getAccountByIban(currentIban);
             if (currentAccount == null || user != bank.getUserByAccount(currentIban)) {
-                var node = mapper.createObjectNode();
-                node.put("command", "sendMoney");
-                node.put("timestamp", timestamp);
-                var obj = node.putObject("output");
-                obj.put("description", "User not found");
-                obj.put("timestamp", timestamp);
-                output.add(node);
+                writeUserNotFound(output, timestamp);
                 return;
             }
             ClassicAccount receiverAccount = bank.getAccountByIban(receiverIban);
@@ -68,28 +51,15 @@ public class SendMoneyCommand implements Command {
             if (receiverAccount != null) {
                 Currency currentAccountCurrency = currentAccount.getCurrency();
                 Currency receiverAccountCurrency = receiverAccount.getCurrency();
-                double convertedAmount = amount;
-
-                if (!currentAccountCurrency.equals(receiverAccountCurrency)) {
-                    ArrayList<Graph<Currency>.Edge> path =
-                            currencyGraph.getPath(currentAccountCurrency,
-                                    receiverAccountCurrency);
-
-                    if (path != null) {
-                        double totalRate = 1.0;
-                        for (Graph<Currency>.Edge edge : path) {
-                            totalRate *= edge.getCost();
-                        }
-                        convertedAmount = amount * totalRate;
-                    }
-                }
+                double convertedAmount =
+                        converter.convert(amount, currentAccountCurrency, receiverAccountCurrency);
                 double fee =
-                        user.getFeeForTransaction(amount, currencyGraph, currentAccountCurrency);
+                        user.getFeeForTransaction(amount, bank.getFeeSchedule(),
+                                currentAccountCurrency);
 
                 double totalDeduction = amount + fee;
 
-                if (currentAccount.getBalance() >= totalDeduction) {
-                    currentAccount.addFunds(-totalDeduction);
+                if (currentAccount.tryDebit(totalDeduction)) {
                     receiverAccount.addFunds(convertedAmount);
                     if (currentAccount.isBusinessAccount()) {
                         BusinessAccount bAcc = (BusinessAccount) currentAccount;
@@ -113,23 +83,20 @@ public class SendMoneyCommand implements Command {
                             currentIban
                     ));
 
+                    upgradePlanForSilver(user, currentAccountCurrency, amount, converter);
 
-                    upgradePlanForSilver(user, currentAccountCurrency, amount, currencyGraph);
-
-                    for (User recipient : bank.getUsers()) {
-                        if (recipient.getAccounts().contains(receiverAccount)) {
-                            recipient.addTransaction(new TransferTransaction(
-                                    timestamp,
-                                    description,
-                                    currentIban,
-                                    receiverIban,
-                                    convertedAmount,
-                                    receiverAccountCurrency,
-                                    "received",
-                                    receiverIban
-                            ));
-                            break;
-                        }
+                    User recipient = bank.getUserByAccount(receiverIban);
+                    if (recipient != null) {
+                        recipient.addTransaction(new TransferTransaction(
+                                timestamp,
+                                description,
+                                currentIban,
+                                receiverIban,
+                                convertedAmount,
+                                receiverAccountCurrency,
+                                "received",
+                                receiverIban
+                        ));
                     }
                 } else {
                     user.addTransaction(new InsufficientFundsTransaction(timestamp));
@@ -138,11 +105,11 @@ public class SendMoneyCommand implements Command {
                 Commerciant commerciant = bank.getCommerciantByIban(receiverIban);
                 Currency currentAccountCurrency = currentAccount.getCurrency();
                 double fee =
-                        user.getFeeForTransaction(amount, currencyGraph, currentAccountCurrency);
+                        user.getFeeForTransaction(amount, bank.getFeeSchedule(),
+                                currentAccountCurrency);
                 double totalDeduction = amount + fee;
 
-                if (currentAccount.getBalance() >= totalDeduction) {
-                    currentAccount.addFunds(-totalDeduction);
+                if (currentAccount.tryDebit(totalDeduction)) {
 
                     if (currentAccount.isBusinessAccount()) {
                         BusinessAccount bAcc = (BusinessAccount) currentAccount;
@@ -153,6 +120,8 @@ public class SendMoneyCommand implements Command {
                                 timestamp,
                                 currentAccountCurrency
                         ));
+                        bAcc.recordCommerciantPayment(commerciant.getName(),
+                                user.getEmail(), timestamp, amount);
                     }
 
                     user.addTransaction(new TransferTransaction(
@@ -170,49 +139,44 @@ public class SendMoneyCommand implements Command {
                                 currentAccount,
                                 amount,
                                 currentAccountCurrency,
-                                currencyGraph,
+                                converter,
                                 user,
                                 commerciant
                         );
                     }
-                    upgradePlanForSilver(user, currentAccountCurrency, amount, currencyGraph);
+                    upgradePlanForSilver(user, currentAccountCurrency, amount, converter);
                 }
             } else {
-                ObjectNode node = mapper.createObjectNode();
-                node.put("command", "sendMoney");
-                node.put("timestamp", timestamp);
-                ObjectNode obj = node.putObject("output");
-                obj.put("description", "User not found");
-                obj.put("timestamp", timestamp);
-                output.add(node);
+                writeUserNotFound(output, timestamp);
             }
         }
     }
 
+    private static void writeUserNotFound(final OutputSink output,
+                                          final int timestamp) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "sendMoney");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeObjectFieldStart("output");
+        json.writeStringField("description", "User not found");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
     /**
      * Actualizeaza planul utilizatorului daca este eligibil pentru upgrade la Silver.
      *
      * @param user Utilizatorul care executa tranzactia.
      * @param currentAccountCurrency Moneda contului curent.
      * @param amount Suma tranzactiei.
-     * @param currencyGraph Graful de conversie valutara.
+     * @param converter Convertorul valutar.
      */
     static void upgradePlanForSilver(final User user, final Currency currentAccountCurrency,
-                                     final double amount, final Graph<Currency> currencyGraph) {
+                                     final double amount, final CurrencyConverter converter) {
         if (user.getPlanType() == PlanType.SILVER) {
-            double amountInRON = amount;
-
-            if (currentAccountCurrency != Currency.RON) {
-                ArrayList<Graph<Currency>.Edge> pathToRON =
-                        currencyGraph.getPath(currentAccountCurrency, Currency.RON);
-                if (pathToRON != null) {
-                    double totalRateToRON = 1.0;
-                    for (Graph<Currency>.Edge edge : pathToRON) {
-                        totalRateToRON *= edge.getCost();
-                    }
-                    amountInRON = amount * totalRateToRON;
-                }
-            }
+            double amountInRON = converter.convert(amount, currentAccountCurrency, Currency.RON);
             if (amountInRON >= INCREMENT_SILVER_PAYMENT) {
                 user.incrementSilverEligiblePayments();
             }
@@ -220,28 +184,16 @@ public class SendMoneyCommand implements Command {
     }
 
     /**
-     * Converteste o suma dintr-o moneda in RON folosind graful de conversie.
+     * Converteste o suma dintr-o moneda in RON folosind tabela de rate.
      *
      * @param amount Suma care trebuie convertita.
      * @param from Moneda initiala.
-     * @param currencyGraph Graful de conversie valutara.
+     * @param converter Convertorul valutar.
      * @return Suma convertita in RON.
      */
     public static double convertToRon(final double amount,
                                       final Currency from,
-                                      final Graph<Currency> currencyGraph) {
-        if (from == Currency.RON) {
-            return amount;
-        }
-
-        ArrayList<Graph<Currency>.Edge> path = currencyGraph.getPath(from, Currency.RON);
-        if (path == null) {
-            return amount;
-        }
-        double totalRate = 1.0;
-        for (Graph<Currency>.Edge edge : path) {
-            totalRate *= edge.getCost();
-        }
-        return amount * totalRate;
+                                      final CurrencyConverter converter) {
+        return converter.convert(amount, from, Currency.RON);
     }
 }
@@ -1,52 +1,44 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.Currency;
-import org.poo.banking.Graph;
+import org.poo.banking.CurrencyConverter;
 import org.poo.transactions.InsufficientFundsTransaction;
 import org.poo.banking.PlanType;
 import org.poo.transactions.UpgradePlanTransaction;
 import org.poo.banking.User;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 public final class UpgradePlanCommand implements Command {
-    private String account;
-    private String newPlanType;
-    private Graph<Currency> currencyGraph;
     private static final double STANDARD_OR_STUDENT_TO_SILVER = 100;
     private static final double FEE_FOR_GOLD = 350;
     private static final double VALUE_FOR_ELIGIBLE_PAYMENTS = 0;
     private static final double SILVER_TO_GOLD = 250;
     private static final int SILVER_ELIGIBLE_PAYMENT_COUNT = 5;
 
-    public UpgradePlanCommand(final String account, final String newPlanType,
-                              final Graph<Currency> currencyGraph) {
-        this.account = account;
-        this.newPlanType = newPlanType;
-        this.currencyGraph = currencyGraph;
-    }
-
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) throws IOException {
+        String account = input.getAccount();
+        String newPlanType = input.getNewPlanType();
+        CurrencyConverter converter = bank.getCurrencyConverter();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByAccount(account);
 
         if (user == null) {
-            ObjectNode node = makeOutput(mapper, timestamp, "Account not found");
-            output.add(node);
+            writeOutput(output, timestamp, "Account not found");
         } else {
             PlanType currentPlan = user.getPlanType();
             PlanType targetPlan;
             try {
                 targetPlan = PlanType.valueOf(newPlanType.toUpperCase());
             } catch (Exception e) {
-                ObjectNode node = makeOutput(mapper, timestamp, "Invalid plan type");
-                output.add(node);
+                writeOutput(output, timestamp, "Invalid plan type");
                 return;
             }
 
@@ -76,28 +68,13 @@ public final class UpgradePlanCommand implements Command {
 
             ClassicAccount classicAccount = bank.getAccountByIban(account);
             if (classicAccount == null) {
-                ObjectNode node = makeOutput(mapper, timestamp, "Account not found");
-                output.add(node);
+                writeOutput(output, timestamp, "Account not found");
             } else {
-                double feeInAccountCurrency = feeInRON;
                 Currency currentAccountCurrency = classicAccount.getCurrency();
+                double feeInAccountCurrency =
+                        converter.convert(feeInRON, Currency.RON, currentAccountCurrency);
 
-                if (currentAccountCurrency != Currency.RON) {
-                    ArrayList<Graph<Currency>.Edge> path =
-                            currencyGraph.getPath(Currency.RON,
-                                    currentAccountCurrency);
-
-                    if (path != null) {
-                        double totalRate = 1.0;
-                        for (Graph<Currency>.Edge edge : path) {
-                            totalRate *= edge.getCost();
-                        }
-                        feeInAccountCurrency = feeInRON * totalRate;
-                    }
-                }
-
-                if (classicAccount.getBalance() >= feeInAccountCurrency) {
-                    classicAccount.addFunds(-feeInAccountCurrency);
+                if (classicAccount.tryDebit(feeInAccountCurrency)) {
                     user.setPlanType(targetPlan);
                     user.addTransaction(new UpgradePlanTransaction(timestamp, account, targetPlan));
                 } else {
@@ -128,26 +105,17 @@ public final class UpgradePlanCommand implements Command {
         return false;
     }
 
-    public String getAccount() {
-        return account;
-    }
-
-    public String getNewPlanType() {
-        return newPlanType;
-    }
-
-    private ObjectNode makeOutput(final ObjectMapper mapper,
-                                  final int timestamp, final String description) {
-        ObjectNode commandNode = mapper.createObjectNode();
-        commandNode.put("command", "upgradePlan");
-        commandNode.put("timestamp", timestamp);
-
-        ObjectNode outNode = mapper.createObjectNode();
-        outNode.put("description", description);
-        outNode.put("timestamp", timestamp);
-
-        commandNode.set("output", outNode);
-        return commandNode;
+    private void writeOutput(final OutputSink output, final int timestamp,
+                             final String description) throws IOException {
+        JsonGenerator json = output.generator();
+        json.writeStartObject();
+        json.writeStringField("command", "upgradePlan");
+        json.writeNumberField("timestamp", timestamp);
+        json.writeObjectFieldStart("output");
+        json.writeStringField("description", description);
+        json.writeNumberField("timestamp", timestamp);
+        json.writeEndObject();
+        json.writeEndObject();
     }
 
 }
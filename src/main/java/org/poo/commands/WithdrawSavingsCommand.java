@@ -1,29 +1,21 @@
 package org.poo.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.banking.Bank;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
 import org.poo.banking.ClassicAccount;
 import org.poo.transactions.MinimumAgeTransaction;
 import org.poo.banking.User;
 import org.poo.transactions.WithdrawSavingsTransaction;
 
 public final class WithdrawSavingsCommand implements Command {
-    private String account;
-    private double amount;
-    private String currencyValue;
     private static final int MINIMUM_AGE = 21;
 
-    public WithdrawSavingsCommand(final String account, final double amount,
-                                  final String currencyValue) {
-        this.account = account;
-        this.amount = amount;
-        this.currencyValue = currencyValue;
-    }
-
     @Override
-    public void execute(final Bank bank, final ArrayNode output,
-                        final ObjectMapper mapper, final int timestamp) {
+    public void execute(final Bank bank, final CommandInput input,
+                        final OutputSink output) {
+        String account = input.getAccount();
+        int timestamp = input.getTimestamp();
         User user = bank.getUserByAccount(account);
         if (user == null) {
             return;
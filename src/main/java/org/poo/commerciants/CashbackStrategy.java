@@ -2,7 +2,7 @@ package org.poo.commerciants;
 
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.Currency;
-import org.poo.banking.Graph;
+import org.poo.banking.CurrencyConverter;
 import org.poo.banking.User;
 
 /**
@@ -15,14 +15,14 @@ public interface CashbackStrategy {
      * @param account        contul unde scad/actualizez
      * @param convertedAmount suma deja convertita la account.getCurrency()
      * @param currentAccountCurrency moneda cont
-     * @param currencyGraph  pt conversii
+     * @param converter      pt conversii
      * @param user           user care face tranzactia
      * @param currentCommerciant obj. comerciant
      */
     void applyCashback(ClassicAccount account,
                        double convertedAmount,
                        Currency currentAccountCurrency,
-                       Graph<Currency> currencyGraph,
+                       CurrencyConverter converter,
                        User user,
                        Commerciant currentCommerciant);
 }
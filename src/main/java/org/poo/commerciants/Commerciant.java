@@ -8,6 +8,8 @@ public final class Commerciant {
     private String cashBackStrategy;
 
     private CashbackStrategy strategy;
+    /** Id-ul dens atribuit de {@link CommerciantRegistry}. */
+    private int registryId = -1;
 
     public Commerciant(final String name,
                        final int id,
@@ -48,4 +50,17 @@ public final class Commerciant {
     public CashbackStrategy getStrategy() {
         return this.strategy;
     }
+
+    /**
+     * Returneaza id-ul dens atribuit la inregistrarea in banca.
+     *
+     * @return Id-ul dens sau -1 daca comerciantul nu a fost inregistrat.
+     */
+    public int getRegistryId() {
+        return registryId;
+    }
+
+    void setRegistryId(final int registryId) {
+        this.registryId = registryId;
+    }
 }
@@ -0,0 +1,98 @@
+package org.poo.commerciants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registrul comerciantilor unei banci. Fiecare comerciant primeste la inregistrare un
+ * id dens (0, 1, 2, ...), folosit ca indice in contoarele per comerciant ale conturilor
+ * (vezi {@link org.poo.banking.ClassicAccount#incrementTransactionCount(int)}); id-ul
+ * din fisierul de intrare nu este neaparat dens, deci nu poate fi folosit direct.
+ * Contoarele erau tinute pe numele comerciantului, deci comerciantii cu acelasi nume
+ * primesc acelasi id. Cautarea dupa nume sau IBAN se face in O(1) si intoarce primul
+ * comerciant inregistrat cu acea cheie.
+ */
+public final class CommerciantRegistry {
+    private final List<Commerciant> commerciants = new ArrayList<>();
+    private final List<Commerciant> byId = new ArrayList<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final Map<String, Commerciant> byIban = new HashMap<>();
+
+    /**
+     * Inregistreaza un comerciant si ii atribuie id-ul dens.
+     *
+     * @param commerciant Comerciantul nou.
+     */
+    public void register(final Commerciant commerciant) {
+        Integer id = idsByName.get(commerciant.getName());
+        if (id == null) {
+            id = byId.size();
+            byId.add(commerciant);
+            idsByName.put(commerciant.getName(), id);
+        }
+        commerciant.setRegistryId(id);
+        commerciants.add(commerciant);
+        byIban.putIfAbsent(commerciant.getAccount(), commerciant);
+    }
+
+    /**
+     * @param name Numele comerciantului.
+     * @return Primul comerciant inregistrat cu numele dat sau null.
+     */
+    public Commerciant getByName(final String name) {
+        Integer id = idsByName.get(name);
+        return id == null ? null : byId.get(id);
+    }
+
+    /**
+     * @param iban IBAN-ul comerciantului.
+     * @return Primul comerciant inregistrat cu IBAN-ul dat sau null.
+     */
+    public Commerciant getByIban(final String iban) {
+        return byIban.get(iban);
+    }
+
+    /**
+     * @param name Numele comerciantului.
+     * @return Id-ul dens al comerciantilor cu numele dat sau -1 daca nu exista.
+     */
+    public int idOf(final String name) {
+        Integer id = idsByName.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id Id-ul dens.
+     * @return Primul comerciant inregistrat cu id-ul dat.
+     */
+    public Commerciant get(final int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * @return Numarul de id-uri atribuite.
+     */
+    public int idCount() {
+        return byId.size();
+    }
+
+    /**
+     * @return Toti comerciantii, in ordinea inregistrarii.
+     */
+    public List<Commerciant> all() {
+        return Collections.unmodifiableList(commerciants);
+    }
+
+    /**
+     * Sterge toti comerciantii din registru.
+     */
+    public void clear() {
+        commerciants.clear();
+        byId.clear();
+        idsByName.clear();
+        byIban.clear();
+    }
+}
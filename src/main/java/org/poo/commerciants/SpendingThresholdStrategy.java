@@ -2,7 +2,7 @@ package org.poo.commerciants;
 
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.Currency;
-import org.poo.banking.Graph;
+import org.poo.banking.CurrencyConverter;
 import org.poo.banking.User;
 import org.poo.utils.CashbackHandler;
 
@@ -14,14 +14,14 @@ public final class SpendingThresholdStrategy implements CashbackStrategy {
     public void applyCashback(final ClassicAccount account,
                               final double convertedAmount,
                               final Currency currentAccountCurrency,
-                              final Graph<Currency> currencyGraph,
+                              final CurrencyConverter converter,
                               final User user,
                               final Commerciant currentCommerciant) {
 
         CashbackHandler.applySpendingThreshold(account,
                 convertedAmount,
                 currentAccountCurrency,
-                currencyGraph,
+                converter,
                 user,
                 currentCommerciant);
     }
@@ -0,0 +1,64 @@
+package org.poo.execution;
+
+import org.poo.banking.Bank;
+import org.poo.banking.ClassicCard;
+import org.poo.banking.User;
+import org.poo.commands.CommandType;
+import org.poo.fileio.CommandInput;
+
+/**
+ * Stabileste, inainte de executie, partitia in care ruleaza o comanda.
+ * Partitia este utilizatorul care detine toate conturile si cardurile atinse de comanda;
+ * doua comenzi din partitii diferite nu modifica aceleasi obiecte si pot rula in paralel.
+ *
+ * Comenzile care ating mai multi utilizatori (sendMoney, splitPayment, acceptari),
+ * cele care modifica indecsii bancii sau genereaza IBAN-uri / numere de card
+ * (addAccount, createCard, deleteCard, plata cu un card de unica folosinta etc.),
+ * cele care citesc toti utilizatorii (printUsers) si cele ale caror conturi nu pot fi
+ * gasite nu au partitie: sunt executate singure, de coordonator, in ordinea din fisier.
+ * Clasa de partitionare a fiecarei comenzi este declarata in {@link CommandType}.
+ */
+public final class CommandPartitioner {
+    private CommandPartitioner() {
+    }
+
+    /**
+     * Returneaza utilizatorul-partitie al comenzii.
+     *
+     * @param commandInput Comanda de clasificat.
+     * @param bank Banca, in starea de dinaintea comenzii.
+     * @return Utilizatorul care detine tot ce atinge comanda sau null daca
+     *         comanda trebuie executata de coordonator.
+     */
+    public static User partitionOf(final CommandInput commandInput, final Bank bank) {
+        CommandType type = CommandType.fromName(commandInput.getCommand());
+        if (type == null) {
+            return null;
+        }
+        switch (type.getPartition()) {
+            case EMAIL_AND_ACCOUNT:
+                return same(bank.getUserByEmail(commandInput.getEmail()),
+                        bank.getUserByAccount(commandInput.getAccount()));
+            case ACCOUNT:
+                return bank.getUserByAccount(commandInput.getAccount());
+            case CARD:
+                return bank.getUserByCardNumber(commandInput.getCardNumber());
+            case EMAIL_AND_CARD:
+                ClassicCard card = bank.getCardByNumber(commandInput.getCardNumber());
+                if (card == null || card.isOneTimeCard()) {
+                    return null;
+                }
+                return same(bank.getUserByEmail(commandInput.getEmail()),
+                        bank.getUserByCardNumber(commandInput.getCardNumber()));
+            case EMAIL:
+                return bank.getUserByEmail(commandInput.getEmail());
+            case COORDINATOR:
+            default:
+                return null;
+        }
+    }
+
+    private static User same(final User first, final User second) {
+        return first != null && first == second ? first : null;
+    }
+}
@@ -0,0 +1,134 @@
+package org.poo.execution;
+
+import org.poo.banking.Bank;
+import org.poo.banking.User;
+import org.poo.fileio.BufferedOutputSink;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.OutputSink;
+import org.poo.main.Main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executa comenzile unui fisier pe mai multe fire, pastrand rezultatul rularii secventiale.
+ *
+ * Comenzile sunt adunate in segmente. Intr-un segment, comenzile sunt grupate dupa
+ * partitia lor ({@link CommandPartitioner}); fiecare grup ruleaza in ordine pe un fir,
+ * iar grupurile diferite ruleaza in paralel. O comanda fara partitie inchide segmentul
+ * curent si este executata apoi de coordonator (firul apelant), singura. Fiecare comanda
+ * dintr-un segment paralel scrie intr-un {@link BufferedOutputSink} propriu, iar acestea
+ * sunt copiate in output in ordinea din fisier. Sink-ul unei comenzi esuate este golit
+ * (vezi {@link Main#executeBuffered}), deci rezultatul ei partial nu este copiat.
+ */
+public final class PartitionedExecutor implements Closeable {
+    /** Numarul maxim de comenzi dintr-un segment, pentru a limita memoria folosita. */
+    private static final int MAX_SEGMENT = 4096;
+    /** Sub acest numar de comenzi, segmentul este executat direct de coordonator. */
+    private static final int MIN_PARALLEL_SEGMENT = 64;
+
+    private final Bank bank;
+    private final ExecutorService workers;
+
+    private final List<CommandInput> pending = new ArrayList<>();
+    private final Map<User, List<Integer>> partitions = new LinkedHashMap<>();
+
+    /**
+     * Creeaza executorul pentru o banca deja initializata.
+     *
+     * @param bank Banca asupra careia se executa comenzile.
+     * @param workerCount Numarul de fire de lucru.
+     */
+    public PartitionedExecutor(final Bank bank, final int workerCount) {
+        this.bank = bank;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount));
+    }
+
+    /**
+     * Primeste urmatoarea comanda din fisier. Rezultatele comenzilor terminate sunt
+     * scrise in output in ordinea din fisier; o comanda cu partitie poate ramane in
+     * asteptare pana la {@link #flush(OutputSink)} sau pana la urmatoarea comanda fara
+     * partitie.
+     *
+     * @param commandInput Comanda de executat.
+     * @param output Sink-ul in care se scriu rezultatele.
+     * @throws IOException in cazul unei erori de scriere a rezultatelor.
+     */
+    public void submit(final CommandInput commandInput, final OutputSink output)
+            throws IOException {
+        User partition = CommandPartitioner.partitionOf(commandInput, bank);
+        if (partition == null) {
+            flush(output);
+            Main.executeCommand(commandInput, bank, output);
+            return;
+        }
+        partitions.computeIfAbsent(partition, user -> new ArrayList<>()).add(pending.size());
+        pending.add(commandInput);
+        if (pending.size() >= MAX_SEGMENT) {
+            flush(output);
+        }
+    }
+
+    /**
+     * Executa comenzile aflate in asteptare si scrie rezultatele lor in output.
+     *
+     * @param output Sink-ul in care se scriu rezultatele.
+     * @throws IOException in cazul unei erori de scriere a rezultatelor.
+     */
+    public void flush(final OutputSink output) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (pending.size() < MIN_PARALLEL_SEGMENT || partitions.size() == 1) {
+            for (CommandInput commandInput : pending) {
+                Main.executeCommand(commandInput, bank, output);
+            }
+        } else {
+            runSegment(output);
+        }
+        pending.clear();
+        partitions.clear();
+    }
+
+    private void runSegment(final OutputSink output) throws IOException {
+        BufferedOutputSink[] results = new BufferedOutputSink[pending.size()];
+        List<Callable<Void>> tasks = new ArrayList<>(partitions.size());
+        for (List<Integer> indexes : partitions.values()) {
+            tasks.add(() -> {
+                for (int index : indexes) {
+                    BufferedOutputSink result = new BufferedOutputSink();
+                    Main.executeBuffered(pending.get(index), bank, result);
+                    results[index] = result;
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : workers.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing commands", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Command execution failed", e.getCause());
+        }
+        for (BufferedOutputSink result : results) {
+            result.writeTo(output);
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
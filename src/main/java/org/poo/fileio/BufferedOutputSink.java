@@ -0,0 +1,51 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * Pastreaza in memorie rezultatele scrise, ca secventa de token-uri JSON
+ * ({@link TokenBuffer}), pana cand sunt copiate intr-un alt sink. Este folosit cand
+ * rezultatele trebuie scrise in alta ordine decat cea in care sunt produse, de exemplu
+ * de comenzile executate in paralel.
+ */
+public final class BufferedOutputSink implements OutputSink {
+    private TokenBuffer buffer = new TokenBuffer(null, false);
+
+    @Override
+    public JsonGenerator generator() {
+        return buffer;
+    }
+
+    /**
+     * Copiaza rezultatele pastrate in sink-ul dat, in ordinea in care au fost scrise,
+     * si goleste buffer-ul.
+     *
+     * @param target Sink-ul in care se copiaza rezultatele.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public void writeTo(final OutputSink target) throws IOException {
+        if (!isEmpty()) {
+            buffer.serialize(target.generator());
+            clear();
+        }
+    }
+
+    /**
+     * Indica daca nu a fost scris niciun rezultat de la ultima golire.
+     *
+     * @return true daca buffer-ul este gol.
+     */
+    public boolean isEmpty() {
+        return buffer.firstToken() == null;
+    }
+
+    /** Renunta la rezultatele pastrate. */
+    public void clear() {
+        if (!isEmpty()) {
+            buffer = new TokenBuffer(null, false);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Destinatia rezultatelor produse de comenzi. Fiecare comanda isi scrie rezultatele
+ * ca elemente ale vectorului de iesire, direct prin generatorul sink-ului, fara sa
+ * construiasca arbori de {@code ObjectNode} / {@code ArrayNode}.
+ */
+public interface OutputSink {
+
+    /**
+     * Returneaza generatorul in care se scrie urmatorul element al vectorului de iesire.
+     * Un element este scris complet (de la {@code writeStartObject} pana la
+     * {@code writeEndObject}) inainte ca comanda sa se termine.
+     *
+     * @return Generatorul sink-ului.
+     */
+    JsonGenerator generator();
+}
@@ -0,0 +1,151 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Citeste un fisier de test in mod streaming, fara a materializa tot ObjectInput.
+ * Sectiunile de inceput (users, commerciants, exchangeRates) sunt citite integral,
+ * iar comenzile sunt deserializate una cate una, la cerere, prin {@link #nextCommand()}.
+ *
+ * Daca in fisier exista sectiuni de inceput dupa "commands", comenzile sunt pastrate
+ * in memorie pana la citirea acestora, pentru a pastra corectitudinea.
+ */
+public final class StreamingInputReader implements Closeable {
+    private static final UserInput[] NO_USERS = new UserInput[0];
+    private static final CommerciantInput[] NO_COMMERCIANTS = new CommerciantInput[0];
+    private static final ExchangeInput[] NO_RATES = new ExchangeInput[0];
+
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+
+    private UserInput[] users = NO_USERS;
+    private CommerciantInput[] commerciants = NO_COMMERCIANTS;
+    private ExchangeInput[] exchangeRates = NO_RATES;
+
+    private boolean streamingCommands;
+    private Iterator<JsonNode> bufferedCommands;
+
+    /**
+     * Deschide fisierul si citeste sectiunile aflate inaintea comenzilor.
+     *
+     * @param file Fisierul de intrare.
+     * @param mapper Obiectul Jackson folosit pentru deserializare.
+     * @throws IOException in cazul unei erori de citire.
+     */
+    public StreamingInputReader(final File file, final ObjectMapper mapper) throws IOException {
+        this.mapper = mapper;
+        this.parser = mapper.getFactory().createParser(file);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object in " + file.getName());
+        }
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        JsonNode commandsNode = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("commands".equals(field) && value == JsonToken.START_ARRAY) {
+                if (commandsNode == null && allHeadersRead()) {
+                    streamingCommands = true;
+                    return;
+                }
+                commandsNode = mapper.readTree(parser);
+                continue;
+            }
+            readSection(field);
+        }
+        if (commandsNode != null) {
+            bufferedCommands = commandsNode.iterator();
+        }
+    }
+
+    private boolean allHeadersRead() {
+        return users != NO_USERS && commerciants != NO_COMMERCIANTS
+                && exchangeRates != NO_RATES;
+    }
+
+    private void readSection(final String field) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        switch (field) {
+            case "users":
+                users = mapper.readValue(parser, UserInput[].class);
+                break;
+            case "commerciants":
+                commerciants = mapper.readValue(parser, CommerciantInput[].class);
+                break;
+            case "exchangeRates":
+                exchangeRates = mapper.readValue(parser, ExchangeInput[].class);
+                break;
+            default:
+                parser.skipChildren();
+                break;
+        }
+    }
+
+    /**
+     * Returneaza urmatoarea comanda din fisier.
+     *
+     * @return Comanda urmatoare sau null daca nu mai exista comenzi.
+     * @throws IOException in cazul unei erori de citire.
+     */
+    public CommandInput nextCommand() throws IOException {
+        if (bufferedCommands != null) {
+            if (!bufferedCommands.hasNext()) {
+                return null;
+            }
+            return mapper.treeToValue(bufferedCommands.next(), CommandInput.class);
+        }
+        if (!streamingCommands) {
+            return null;
+        }
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            streamingCommands = false;
+            return null;
+        }
+        return mapper.readValue(parser, CommandInput.class);
+    }
+
+    /**
+     * Returneaza utilizatorii din fisier.
+     *
+     * @return Vectorul de utilizatori.
+     */
+    public UserInput[] getUsers() {
+        return users;
+    }
+
+    /**
+     * Returneaza comerciantii din fisier.
+     *
+     * @return Vectorul de comercianti.
+     */
+    public CommerciantInput[] getCommerciants() {
+        return commerciants;
+    }
+
+    /**
+     * Returneaza ratele de schimb din fisier.
+     *
+     * @return Vectorul de rate de schimb.
+     */
+    public ExchangeInput[] getExchangeRates() {
+        return exchangeRates;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,59 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Scrie vectorul de rezultate incremental, pe masura ce comenzile sunt executate.
+ * Comenzile scriu campurile direct in generatorul fisierului, deci rezultatele nu
+ * sunt tinute in memorie. In modul implicit formatul generat este identic cu cel
+ * produs de writerWithDefaultPrettyPrinter() pentru un ArrayNode complet; in modul
+ * compact nu se mai scriu spatii si linii noi intre token-uri.
+ */
+public final class StreamingOutputWriter implements OutputSink, Closeable {
+    private final JsonGenerator generator;
+
+    /**
+     * Deschide fisierul de iesire, in format indentat, si incepe vectorul de rezultate.
+     *
+     * @param file Fisierul de iesire.
+     * @param mapper Obiectul Jackson folosit pentru serializare.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public StreamingOutputWriter(final File file, final ObjectMapper mapper) throws IOException {
+        this(file, mapper, false);
+    }
+
+    /**
+     * Deschide fisierul de iesire si incepe vectorul de rezultate.
+     *
+     * @param file Fisierul de iesire.
+     * @param mapper Obiectul Jackson folosit pentru serializare.
+     * @param compact true pentru iesire fara indentare.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public StreamingOutputWriter(final File file, final ObjectMapper mapper,
+                                 final boolean compact) throws IOException {
+        generator = mapper.getFactory().createGenerator(file, JsonEncoding.UTF8);
+        if (!compact) {
+            generator.useDefaultPrettyPrinter();
+        }
+        generator.writeStartArray();
+    }
+
+    @Override
+    public JsonGenerator generator() {
+        return generator;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
@@ -0,0 +1,466 @@
+package org.poo.loadgen;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.banking.Currency;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommerciantInput;
+import org.poo.fileio.ExchangeInput;
+import org.poo.fileio.UserInput;
+import org.poo.main.Main;
+import org.poo.utils.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Genereaza fisiere de intrare sintetice, in formatul ObjectInput, de orice dimensiune.
+ *
+ * IBAN-urile si numerele de card folosite de comenzi sunt prezise apeland
+ * {@link Utils#generateIBAN()} si {@link Utils#generateCardNumber()} in aceeasi ordine
+ * in care le apeleaza banca la rulare, pornind de la seed-urile resetate. De aceea,
+ * fisierul trebuie rulat intr-un proces nou sau dupa {@link Utils#resetRandom()},
+ * exact ca testele din input/. Toate celelalte valori provin dintr-un Random cu seed
+ * fix, deci acelasi profil produce mereu acelasi fisier.
+ */
+public final class LoadGenerator {
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final Currency BASE_CURRENCY = Currency.USD;
+    private static final String[] COMMERCIANT_TYPES = {"Food", "Clothes", "Tech", "Entertainment"};
+    private static final String[] CASHBACK_STRATEGIES = {"spendingThreshold", "nrOfTransactions"};
+    private static final String[] OCCUPATIONS = {"engineer", "manager", "student", "cashier"};
+    private static final String[] REPORT_COMMANDS = {"report", "spendingsReport"};
+
+    private static final double INITIAL_FUNDS = 1.0e6;
+    private static final double MIN_RATE = 0.5;
+    private static final double MAX_RATE = 20.0;
+    private static final double MIN_AMOUNT = 1.0;
+    private static final double MAX_AMOUNT = 500.0;
+    private static final double CENTS = 100.0;
+    private static final int MIN_SPLIT_USERS = 2;
+    private static final int MAX_SPLIT_USERS = 5;
+    private static final int MAX_ASSOCIATES = 3;
+    private static final int MIN_BIRTH_YEAR = 1950;
+    private static final int BIRTH_YEARS = 55;
+    private static final int REPORT_WINDOW = 500;
+    private static final String COMMERCIANT_IBAN_FORMAT = "RO%02dPOOB%016d";
+    private static final long IBAN_DIGITS_BOUND = 10_000_000_000_000_000L;
+    private static final int IBAN_CHECK_BOUND = 100;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final int MIX_PARTS = 4;
+    private static final int REPORT_PART = 3;
+
+    private final LoadProfile profile;
+    private final Random random;
+    private final double[] currencyWeights;
+
+    private final List<String> emails = new ArrayList<>();
+    private final List<String> commerciantNames = new ArrayList<>();
+    /** Conturile clasice generate, cu moneda si primul card. */
+    private final List<GeneratedAccount> accounts = new ArrayList<>();
+    /** Perechi (email, card) care pot plati online: titulari si asociati business. */
+    private final List<String[]> payers = new ArrayList<>();
+    private final List<GeneratedAccount> businessAccounts = new ArrayList<>();
+
+    private JsonGenerator generator;
+    private int timestamp;
+
+    /**
+     * Un cont generat, asa cum va fi creat de banca la rulare.
+     */
+    private static final class GeneratedAccount {
+        private final int owner;
+        private final String iban;
+        private final Currency currency;
+        private String cardNumber;
+
+        GeneratedAccount(final int owner, final String iban, final Currency currency) {
+            this.owner = owner;
+            this.iban = iban;
+            this.currency = currency;
+        }
+    }
+
+    /**
+     * Creeaza un generator pentru profilul dat.
+     *
+     * @param profile Parametrii fisierului generat.
+     */
+    public LoadGenerator(final LoadProfile profile) {
+        this.profile = profile;
+        this.random = new Random(profile.getSeed());
+        this.currencyWeights = zipfWeights(CURRENCIES.length, profile.getCurrencySkew());
+    }
+
+    private static double[] zipfWeights(final int count, final double skew) {
+        double[] weights = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += 1.0 / Math.pow(i + 1, skew);
+            weights[i] = total;
+        }
+        for (int i = 0; i < count; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    /**
+     * Scrie fisierul generat.
+     *
+     * @param file Fisierul de iesire.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public void generate(final File file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
+        Utils.resetRandom();
+        try (JsonGenerator json = mapper.getFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            generator = json;
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            writeUsers();
+            writeCommerciants();
+            writeExchangeRates();
+            generator.writeArrayFieldStart("commands");
+            writeSetup();
+            writeWorkload();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } finally {
+            generator = null;
+            Utils.resetRandom();
+        }
+    }
+
+    private void writeUsers() throws IOException {
+        generator.writeArrayFieldStart("users");
+        for (int i = 0; i < profile.getUsers(); i++) {
+            UserInput user = new UserInput();
+            user.setFirstName("User" + i);
+            user.setLastName("Load");
+            user.setEmail("user" + i + "@loadgen.poo");
+            user.setBirthDate(String.format("%d-01-01",
+                    MIN_BIRTH_YEAR + random.nextInt(BIRTH_YEARS)));
+            user.setOccupation(OCCUPATIONS[random.nextInt(OCCUPATIONS.length)]);
+            emails.add(user.getEmail());
+            generator.writeObject(user);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeCommerciants() throws IOException {
+        generator.writeArrayFieldStart("commerciants");
+        for (int i = 0; i < profile.getCommerciants(); i++) {
+            CommerciantInput commerciant = new CommerciantInput();
+            commerciant.setCommerciant("Commerciant" + i);
+            commerciant.setId(i + 1);
+            commerciant.setAccount(String.format(COMMERCIANT_IBAN_FORMAT,
+                    random.nextInt(IBAN_CHECK_BOUND),
+                    (random.nextLong() & Long.MAX_VALUE) % IBAN_DIGITS_BOUND));
+            commerciant.setType(COMMERCIANT_TYPES[i % COMMERCIANT_TYPES.length]);
+            commerciant.setCashbackStrategy(CASHBACK_STRATEGIES[random.nextInt(
+                    CASHBACK_STRATEGIES.length)]);
+            commerciantNames.add(commerciant.getCommerciant());
+            generator.writeObject(commerciant);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeExchangeRates() throws IOException {
+        generator.writeArrayFieldStart("exchangeRates");
+        for (Currency currency : CURRENCIES) {
+            if (currency == BASE_CURRENCY) {
+                continue;
+            }
+            ExchangeInput rate = new ExchangeInput();
+            rate.setFrom(BASE_CURRENCY.name());
+            rate.setTo(currency.name());
+            rate.setRate(round(MIN_RATE + random.nextDouble() * (MAX_RATE - MIN_RATE)));
+            generator.writeObject(rate);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Fiecare utilizator primeste un cont clasic cu un card si fonduri; o parte
+     * dintre utilizatori primesc si un cont business cu asociati.
+     */
+    private void writeSetup() throws IOException {
+        for (int i = 0; i < emails.size(); i++) {
+            GeneratedAccount account = addAccount(i, "classic", pickCurrency());
+            accounts.add(account);
+            payers.add(new String[] {emails.get(i), account.cardNumber});
+        }
+        for (int i = 0; i < emails.size(); i++) {
+            if (random.nextDouble() >= profile.getBusinessShare()) {
+                continue;
+            }
+            GeneratedAccount account = addAccount(i, "business", pickCurrency());
+            businessAccounts.add(account);
+            payers.add(new String[] {emails.get(i), account.cardNumber});
+            List<Integer> associates = new ArrayList<>();
+            for (int j = 0; j < Math.min(MAX_ASSOCIATES, emails.size() - 1); j++) {
+                int associate = pickOtherUser(i);
+                if (associates.contains(associate)) {
+                    continue;
+                }
+                associates.add(associate);
+                CommandInput command = command("addNewBusinessAssociate");
+                command.setAccount(account.iban);
+                command.setRole(random.nextBoolean() ? "employee" : "manager");
+                command.setEmail(emails.get(associate));
+                write(command);
+                payers.add(new String[] {emails.get(associate), account.cardNumber});
+            }
+        }
+    }
+
+    private GeneratedAccount addAccount(final int owner, final String type,
+                                        final Currency currency) throws IOException {
+        String email = emails.get(owner);
+        CommandInput addAccount = command("addAccount");
+        addAccount.setEmail(email);
+        addAccount.setAccountType(type);
+        addAccount.setCurrency(currency.name());
+        write(addAccount);
+        GeneratedAccount account = new GeneratedAccount(owner, Utils.generateIBAN(), currency);
+
+        CommandInput createCard = command("createCard");
+        createCard.setEmail(email);
+        createCard.setAccount(account.iban);
+        write(createCard);
+        account.cardNumber = Utils.generateCardNumber();
+
+        CommandInput addFunds = command("addFunds");
+        addFunds.setEmail(email);
+        addFunds.setAccount(account.iban);
+        addFunds.setAmount(INITIAL_FUNDS);
+        write(addFunds);
+        return account;
+    }
+
+    private void writeWorkload() throws IOException {
+        int payOnline = profile.getPayOnlineWeight();
+        int sendMoney = payOnline + profile.getSendMoneyWeight();
+        int splitPayment = sendMoney + profile.getSplitPaymentWeight();
+        int total = splitPayment + profile.getReportWeight();
+        if (total <= 0 || emails.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < profile.getCommands(); i++) {
+            int pick = random.nextInt(total);
+            if (pick < payOnline) {
+                writePayOnline();
+            } else if (pick < sendMoney) {
+                writeSendMoney();
+            } else if (pick < splitPayment) {
+                writeSplitPayment();
+            } else {
+                writeReport();
+            }
+        }
+    }
+
+    private void writePayOnline() throws IOException {
+        String[] payer = payers.get(random.nextInt(payers.size()));
+        CommandInput command = command("payOnline");
+        command.setEmail(payer[0]);
+        command.setCardNumber(payer[1]);
+        command.setAmount(pickAmount());
+        command.setCurrency(pickCurrency().name());
+        command.setDescription("Online payment");
+        command.setCommerciant(commerciantNames.isEmpty() ? "Unknown"
+                : commerciantNames.get(random.nextInt(commerciantNames.size())));
+        write(command);
+    }
+
+    private void writeSendMoney() throws IOException {
+        GeneratedAccount from = accounts.get(random.nextInt(accounts.size()));
+        GeneratedAccount to = accounts.get(pickOtherUser(from.owner));
+        CommandInput command = command("sendMoney");
+        command.setEmail(emails.get(from.owner));
+        command.setAccount(from.iban);
+        command.setReceiver(to.iban);
+        command.setAmount(pickAmount());
+        command.setDescription("Transfer");
+        write(command);
+    }
+
+    private void writeSplitPayment() throws IOException {
+        int count = Math.min(emails.size(),
+                MIN_SPLIT_USERS + random.nextInt(MAX_SPLIT_USERS - MIN_SPLIT_USERS + 1));
+        if (count < MIN_SPLIT_USERS) {
+            writePayOnline();
+            return;
+        }
+        List<Integer> participants = new ArrayList<>();
+        while (participants.size() < count) {
+            int user = random.nextInt(emails.size());
+            if (!participants.contains(user)) {
+                participants.add(user);
+            }
+        }
+        List<String> ibans = new ArrayList<>();
+        List<Double> amounts = new ArrayList<>();
+        double amount = 0;
+        for (int user : participants) {
+            ibans.add(accounts.get(user).iban);
+            double share = pickAmount();
+            amounts.add(share);
+            amount += share;
+        }
+        String type = random.nextBoolean() ? "custom" : "equal";
+        CommandInput command = command("splitPayment");
+        command.setSplitPaymentType(type);
+        command.setAccounts(ibans);
+        command.setCurrency(pickCurrency().name());
+        command.setAmount(round(amount));
+        if ("custom".equals(type)) {
+            command.setAmountForUsers(amounts);
+        }
+        write(command);
+
+        for (int user : participants) {
+            CommandInput accept = command("acceptSplitPayment");
+            accept.setEmail(emails.get(user));
+            accept.setSplitPaymentType(type);
+            write(accept);
+        }
+    }
+
+    private void writeReport() throws IOException {
+        CommandInput command;
+        if (!businessAccounts.isEmpty() && random.nextDouble() < profile.getBusinessShare()) {
+            command = command("businessReport");
+            command.setAccount(businessAccounts.get(
+                    random.nextInt(businessAccounts.size())).iban);
+            command.setType("transaction");
+        } else {
+            command = command(REPORT_COMMANDS[random.nextInt(REPORT_COMMANDS.length)]);
+            command.setAccount(accounts.get(random.nextInt(accounts.size())).iban);
+        }
+        command.setStartTimestamp(Math.max(1, timestamp - REPORT_WINDOW));
+        command.setEndTimestamp(timestamp);
+        write(command);
+    }
+
+    private int pickOtherUser(final int user) {
+        if (emails.size() < 2) {
+            return user;
+        }
+        int other = random.nextInt(emails.size() - 1);
+        return other >= user ? other + 1 : other;
+    }
+
+    private Currency pickCurrency() {
+        double pick = random.nextDouble();
+        for (int i = 0; i < currencyWeights.length; i++) {
+            if (pick < currencyWeights[i]) {
+                return CURRENCIES[i];
+            }
+        }
+        return CURRENCIES[CURRENCIES.length - 1];
+    }
+
+    private double pickAmount() {
+        return round(MIN_AMOUNT + random.nextDouble() * (MAX_AMOUNT - MIN_AMOUNT));
+    }
+
+    private static double round(final double value) {
+        return Math.round(value * CENTS) / CENTS;
+    }
+
+    private static CommandInput command(final String name) {
+        CommandInput command = new CommandInput();
+        command.setCommand(name);
+        return command;
+    }
+
+    private void write(final CommandInput command) throws IOException {
+        command.setTimestamp(++timestamp);
+        generator.writeObject(command);
+    }
+
+    /**
+     * Genereaza un fisier de intrare si, optional, il ruleaza masurand durata.
+     * Argumente: --users=N --commerciants=N --commands=N
+     * --mix=payOnline,sendMoney,splitPayment,report --currency-skew=S
+     * --business-share=F --seed=N [--replay=fisierRezultat] fisierIesire
+     *
+     * @param args Argumentele din linia de comanda.
+     * @throws IOException in cazul unei erori de citire / scriere.
+     */
+    public static void main(final String[] args) throws IOException {
+        LoadProfile profile = new LoadProfile();
+        String output = null;
+        String replay = null;
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                output = arg;
+                continue;
+            }
+            String[] option = arg.substring(2).split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String value = option[1];
+            switch (option[0]) {
+                case "users":
+                    profile.setUsers(Integer.parseInt(value));
+                    break;
+                case "commerciants":
+                    profile.setCommerciants(Integer.parseInt(value));
+                    break;
+                case "commands":
+                    profile.setCommands(Integer.parseInt(value));
+                    break;
+                case "mix":
+                    setMix(profile, value);
+                    break;
+                case "currency-skew":
+                    profile.setCurrencySkew(Double.parseDouble(value));
+                    break;
+                case "business-share":
+                    profile.setBusinessShare(Double.parseDouble(value));
+                    break;
+                case "seed":
+                    profile.setSeed(Long.parseLong(value));
+                    break;
+                case "replay":
+                    replay = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Missing output file");
+        }
+
+        File input = new File(output);
+        new LoadGenerator(profile).generate(input);
+        if (replay != null) {
+            long start = System.nanoTime();
+            Main.action(input, new File(replay));
+            System.out.println("Replayed " + output + " in "
+                    + (System.nanoTime() - start) / NANOS_PER_MILLI + " ms");
+        }
+    }
+
+    private static void setMix(final LoadProfile profile, final String value) {
+        String[] parts = value.split(",");
+        if (parts.length != MIX_PARTS) {
+            throw new IllegalArgumentException("Expected four weights, got " + value);
+        }
+        profile.setPayOnlineWeight(Integer.parseInt(parts[0].trim()));
+        profile.setSendMoneyWeight(Integer.parseInt(parts[1].trim()));
+        profile.setSplitPaymentWeight(Integer.parseInt(parts[2].trim()));
+        profile.setReportWeight(Integer.parseInt(parts[REPORT_PART].trim()));
+    }
+}
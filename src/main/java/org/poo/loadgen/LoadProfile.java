@@ -0,0 +1,46 @@
+package org.poo.loadgen;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parametrii unui fisier de intrare generat sintetic.
+ * Valorile implicite produc un fisier de dimensiunea testelor mari din input/.
+ */
+@Data
+@NoArgsConstructor
+public final class LoadProfile {
+    private static final int DEFAULT_USERS = 100;
+    private static final int DEFAULT_COMMERCIANTS = 20;
+    private static final int DEFAULT_COMMANDS = 1000;
+    private static final int DEFAULT_PAY_ONLINE_WEIGHT = 60;
+    private static final int DEFAULT_SEND_MONEY_WEIGHT = 25;
+    private static final int DEFAULT_SPLIT_PAYMENT_WEIGHT = 5;
+    private static final int DEFAULT_REPORT_WEIGHT = 10;
+    private static final double DEFAULT_BUSINESS_SHARE = 0.1;
+    private static final long DEFAULT_SEED = 42L;
+
+    /** Numarul de utilizatori. */
+    private int users = DEFAULT_USERS;
+    /** Numarul de comercianti. */
+    private int commerciants = DEFAULT_COMMERCIANTS;
+    /** Numarul de comenzi de lucru, fara cele de initializare (conturi, carduri, fonduri). */
+    private int commands = DEFAULT_COMMANDS;
+    /** Ponderea comenzilor payOnline. */
+    private int payOnlineWeight = DEFAULT_PAY_ONLINE_WEIGHT;
+    /** Ponderea comenzilor sendMoney. */
+    private int sendMoneyWeight = DEFAULT_SEND_MONEY_WEIGHT;
+    /** Ponderea platilor distribuite (splitPayment urmat de acceptari). */
+    private int splitPaymentWeight = DEFAULT_SPLIT_PAYMENT_WEIGHT;
+    /** Ponderea rapoartelor (report, spendingsReport, businessReport). */
+    private int reportWeight = DEFAULT_REPORT_WEIGHT;
+    /**
+     * Exponentul Zipf pentru alegerea monedelor: 0 inseamna distributie uniforma,
+     * valori mai mari concentreaza conturile si platile pe primele monede.
+     */
+    private double currencySkew;
+    /** Fractiunea de utilizatori care detin si un cont business. */
+    private double businessShare = DEFAULT_BUSINESS_SHARE;
+    /** Seed-ul generatorului, pentru rulari deterministe. */
+    private long seed = DEFAULT_SEED;
+}
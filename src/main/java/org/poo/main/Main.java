@@ -1,52 +1,33 @@
 package org.poo.main;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.banking.Bank;
 import org.poo.banking.Currency;
+import org.poo.banking.CurrencyConverter;
 import org.poo.banking.Graph;
 import org.poo.banking.User;
 import org.poo.checker.Checker;
 import org.poo.checker.CheckerConstants;
-import org.poo.commands.AcceptSplitPaymentCommand;
-import org.poo.commands.AddAccountCommand;
-import org.poo.commands.AddFundsCommand;
-import org.poo.commands.AddInterestCommand;
-import org.poo.commands.AddNewBusinessAssociateCommand;
-import org.poo.commands.BusinessReportCommand;
-import org.poo.commands.CashWithdrawalCommand;
-import org.poo.commands.ChangeDepositLimitCommand;
-import org.poo.commands.ChangeInterestRateCommand;
-import org.poo.commands.ChangeSpendingLimitCommand;
-import org.poo.commands.CheckCardStatusCommand;
-import org.poo.commands.Command;
-import org.poo.commands.CreateCardCommand;
-import org.poo.commands.CreateOneTimeCardCommand;
-import org.poo.commands.DeleteAccountCommand;
-import org.poo.commands.DeleteCardCommand;
-import org.poo.commands.PayOnlineCommand;
-import org.poo.commands.PrintTransactionCommand;
-import org.poo.commands.PrintUsersCommand;
-import org.poo.commands.RejectSplitPaymentCommand;
-import org.poo.commands.ReportCommand;
-import org.poo.commands.SendMoneyCommand;
-import org.poo.commands.SetMinimumBalanceCommand;
-import org.poo.commands.SpendingsReportCommand;
-import org.poo.commands.SplitPaymentCommand;
-import org.poo.commands.UpgradePlanCommand;
-import org.poo.commands.WithdrawSavingsCommand;
+import org.poo.commands.CommandType;
 import org.poo.commerciants.Commerciant;
+import org.poo.execution.PartitionedExecutor;
+import org.poo.fileio.BufferedOutputSink;
 import org.poo.fileio.CommandInput;
 import org.poo.fileio.CommerciantInput;
 import org.poo.fileio.ExchangeInput;
-import org.poo.fileio.ObjectInput;
+import org.poo.fileio.OutputSink;
+import org.poo.fileio.StreamingInputReader;
+import org.poo.fileio.StreamingOutputWriter;
 import org.poo.fileio.UserInput;
-import org.poo.observer.PlanUpgradeObserver;
+import org.poo.metrics.Metrics;
+import org.poo.metrics.MetricsExporter;
+import org.poo.persistence.Checkpointer;
+import org.poo.persistence.JournalWriter;
 import org.poo.utils.Utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -58,6 +39,45 @@ import java.util.Objects;
  * The entry point to this homework. It runs the checker that tests your implementation.
  */
 public final class Main {
+    /**
+     * Proprietatea de sistem cu numarul de fire folosite pentru comenzile unui fisier.
+     * Implicit 1 (executie secventiala); peste 1 se foloseste {@link PartitionedExecutor}.
+     */
+    public static final String WORKERS_PROPERTY = "poo.workers";
+
+    /**
+     * Proprietatea de sistem cu directorul in care se scrie jurnalul fiecarui fisier
+     * ({@code <nume>.journal}). Fara ea nu se scrie niciun jurnal.
+     */
+    public static final String JOURNAL_PROPERTY = "poo.journal";
+
+    /**
+     * Proprietatea de sistem cu numarul de comenzi jurnalizate intre doua snapshot-uri
+     * ({@code <nume>.snapshot}, langa jurnal). Are efect doar impreuna cu
+     * {@link #JOURNAL_PROPERTY}.
+     */
+    public static final String SNAPSHOT_INTERVAL_PROPERTY = "poo.snapshot.interval";
+
+    /**
+     * Proprietatea de sistem care, setata pe true, scrie fisierele de iesire fara
+     * indentare. Implicit iesirea este indentata, ca in fisierele de referinta.
+     */
+    public static final String COMPACT_OUTPUT_PROPERTY = "poo.output.compact";
+
+    /**
+     * Proprietatea de sistem cu directorul in care se exporta {@link Metrics}: pentru
+     * fiecare fisier de intrare, {@code <nume>.metrics.json}, scris la fiecare
+     * {@link #METRICS_INTERVAL_PROPERTY} secunde si la finalul procesarii fisierului.
+     * Fara ea metricile nu sunt colectate.
+     */
+    public static final String METRICS_PROPERTY = "poo.metrics";
+
+    /**
+     * Proprietatea de sistem cu numarul de secunde intre doua exporturi ale metricilor.
+     * Are efect doar impreuna cu {@link #METRICS_PROPERTY}.
+     */
+    public static final String METRICS_INTERVAL_PROPERTY = "poo.metrics.interval";
+
     /**
      * for coding style
      */
@@ -104,13 +124,21 @@ public final class Main {
      * @param users Vectorul de useri.
      */
     public static void createUsers(final UserInput[] users) {
-        Bank bank = Bank.getInstance();
+        createUsers(users, Bank.getInstance());
+    }
+
+    /**
+     * Creeaza utilizatorii in banca data.
+     * @param users Vectorul de useri.
+     * @param bank Banca in care se adauga utilizatorii.
+     */
+    public static void createUsers(final UserInput[] users, final Bank bank) {
         for (UserInput userInput : users) {
             User user = new User(userInput.getFirstName(),
                     userInput.getLastName(), userInput.getEmail(),
                     userInput.getBirthDate(), userInput.getOccupation());
 
-            user.addObserver(new PlanUpgradeObserver());
+            user.addObserver(bank.getEventBus());
             bank.addUser(user);
         }
     }
@@ -121,7 +149,17 @@ public final class Main {
      * @param commerciants Array de obiecte CommerciantInput care contin datele comerciantilor.
      */
     public static void createCommerciants(final CommerciantInput[] commerciants) {
-        Bank bank = Bank.getInstance();
+        createCommerciants(commerciants, Bank.getInstance());
+    }
+
+    /**
+     * Creeaza comerciantii in banca data.
+     *
+     * @param commerciants Array de obiecte CommerciantInput care contin datele comerciantilor.
+     * @param bank Banca in care se adauga comerciantii.
+     */
+    public static void createCommerciants(final CommerciantInput[] commerciants,
+                                          final Bank bank) {
         for (CommerciantInput commerciantInput : commerciants) {
             Commerciant commerciant = new Commerciant(commerciantInput.getCommerciant(),
                     commerciantInput.getId(), commerciantInput.getAccount(),
@@ -131,139 +169,30 @@ public final class Main {
         }
     }
 
-    /**
-     * Functia care executa fiecare comanda in parte.
-     */
-    private static Command createCommand(final CommandInput commandInput,
-                                         final Bank bank,
-                                         final ArrayNode output,
-                                         final ObjectMapper mapper,
-                                         final Graph<Currency> currencyGraph,
-                                         final int timestamp) {
-        switch (commandInput.getCommand()) {
-            case "printUsers":
-                return new PrintUsersCommand();
-
-            case "addAccount":
-                return new AddAccountCommand(commandInput.getEmail(),
-                        commandInput.getAccountType(),
-                        commandInput.getCurrency(), commandInput.getInterestRate()
-                );
-            case "createCard":
-                return new CreateCardCommand(commandInput.getEmail(), commandInput.getAccount()
-                );
-            case "createOneTimeCard":
-                return new CreateOneTimeCardCommand(commandInput.getEmail(),
-                        commandInput.getAccount()
-                );
-            case "addFunds":
-                return new AddFundsCommand(commandInput.getAccount(), commandInput.getAmount(),
-                        commandInput.getEmail()
-                );
-            case "deleteAccount":
-                return new DeleteAccountCommand(commandInput.getEmail(), commandInput.getAccount()
-                );
-            case "deleteCard":
-                return new DeleteCardCommand(commandInput.getEmail(), commandInput.getCardNumber()
-                );
-            case "payOnline":
-                return new PayOnlineCommand(commandInput.getCardNumber(), commandInput.getAmount(),
-                        commandInput.getCurrency(), commandInput.getDescription(),
-                        commandInput.getCommerciant(), commandInput.getEmail(), currencyGraph
-                );
-            case "sendMoney":
-                return new SendMoneyCommand(commandInput.getEmail(), commandInput.getAccount(),
-                        commandInput.getReceiver(), commandInput.getDescription(),
-                        commandInput.getAmount(), currencyGraph
-                );
-            case "printTransactions":
-                return new PrintTransactionCommand(commandInput.getEmail()
-                );
-            case "setMinimumBalance":
-                return new SetMinimumBalanceCommand(commandInput.getAccount(),
-                        commandInput.getMinBalance()
-                );
-            case "checkCardStatus":
-                return new CheckCardStatusCommand(
-                        commandInput.getCardNumber()
-                );
-            case "splitPayment":
-                return new SplitPaymentCommand(commandInput.getAccounts(),
-                        commandInput.getAmount(), commandInput.getSplitPaymentType(),
-                        commandInput.getAmountForUsers(), commandInput.getCurrency(),
-                        currencyGraph
-                );
-            case "report":
-                return new ReportCommand(commandInput.getAccount(),
-                        commandInput.getStartTimestamp(), commandInput.getEndTimestamp()
-                );
-            case "spendingsReport":
-                return new SpendingsReportCommand(commandInput.getAccount(),
-                        commandInput.getStartTimestamp(), commandInput.getEndTimestamp()
-                );
-            case "changeInterestRate":
-                return new ChangeInterestRateCommand(commandInput.getInterestRate(),
-                        commandInput.getAccount()
-                );
-            case "addInterest":
-                return new AddInterestCommand(commandInput.getInterestRate(),
-                        commandInput.getAccount()
-                );
-            case "withdrawSavings":
-                return new WithdrawSavingsCommand(commandInput.getAccount(),
-                        commandInput.getAmount(), commandInput.getCurrency()
-                );
-            case "upgradePlan":
-                return new UpgradePlanCommand(commandInput.getAccount(),
-                        commandInput.getNewPlanType(), currencyGraph
-                );
-            case "cashWithdrawal":
-                return new CashWithdrawalCommand(commandInput.getCardNumber(),
-                        commandInput.getAmount(), commandInput.getEmail(),
-                        commandInput.getLocation(), currencyGraph
-                );
-            case "acceptSplitPayment":
-                return new AcceptSplitPaymentCommand(commandInput.getEmail(),
-                        commandInput.getSplitPaymentType()
-                );
-            case "rejectSplitPayment":
-                return new RejectSplitPaymentCommand(commandInput.getEmail(),
-                        commandInput.getSplitPaymentType()
-                );
-            case "addNewBusinessAssociate":
-                return new AddNewBusinessAssociateCommand(commandInput.getAccount(),
-                        commandInput.getRole(), commandInput.getEmail()
-                );
-            case "changeSpendingLimit":
-                return new ChangeSpendingLimitCommand(commandInput.getEmail(),
-                        commandInput.getAccount(),
-                        commandInput.getAmount(), commandInput.getTimestamp()
-                );
-            case "businessReport":
-                return new BusinessReportCommand(commandInput.getType(), commandInput.getAccount(),
-                        commandInput.getStartTimestamp(), commandInput.getEndTimestamp(),
-                        commandInput.getTimestamp()
-                );
-            case "changeDepositLimit":
-                return new ChangeDepositLimitCommand(commandInput.getEmail(),
-                        commandInput.getAccount(), commandInput.getAmount(),
-                        commandInput.getTimestamp()
-                );
-            default:
-                return null;
-        }
-    }
-
-
     /**
      * Executa fiecare comanda.
      */
     public static void executeCommands(final CommandInput[] commands,
                                        final ExchangeInput[] exchangeRates,
                                        final CommerciantInput[] commerciantInputs,
-                                       final ArrayNode output, final ObjectMapper mapper) {
+                                       final OutputSink output) {
         Bank bank = Bank.getInstance();
+        createCurrencyConverter(exchangeRates, bank);
 
+        for (CommandInput commandInput : commands) {
+            executeCommand(commandInput, bank, output);
+        }
+    }
+
+    /**
+     * Construieste graful de conversie din ratele de schimb si il seteaza in banca.
+     *
+     * @param exchangeRates Ratele de schimb din fisierul de intrare.
+     * @param bank Banca pentru care se seteaza graful.
+     * @return Convertorul valutar construit din graf.
+     */
+    public static CurrencyConverter createCurrencyConverter(final ExchangeInput[] exchangeRates,
+                                                            final Bank bank) {
         Graph<Currency> currencyGraph = new Graph<>();
 
         for (ExchangeInput exchangeInput : exchangeRates) {
@@ -279,21 +208,71 @@ public final class Main {
         }
 
         bank.setCurrencyGraph(currencyGraph);
+        return bank.getCurrencyConverter();
+    }
 
-        for (CommandInput commandInput : commands) {
-            Command command = createCommand(commandInput, bank,
-                    output, mapper, currencyGraph, commandInput.getTimestamp());
+    /**
+     * Executa o singura comanda, scriind rezultatul in output. Rezultatul este scris
+     * intai intr-un {@link BufferedOutputSink} si copiat in output doar daca comanda
+     * s-a terminat fara exceptie, deci o comanda esuata nu lasa in output un obiect
+     * JSON inceput si neinchis.
+     *
+     * @param commandInput Comanda de executat.
+     * @param bank Banca asupra careia se executa comanda.
+     * @param output Sink-ul in care se scrie rezultatul comenzii.
+     * @throws UncheckedIOException daca rezultatul nu poate fi copiat in output.
+     */
+    public static void executeCommand(final CommandInput commandInput, final Bank bank,
+                                      final OutputSink output) {
+        BufferedOutputSink result = new BufferedOutputSink();
+        if (executeBuffered(commandInput, bank, result)) {
             try {
-                if (command != null) {
-                    command.execute(bank, output, mapper, commandInput.getTimestamp());
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+                result.writeTo(output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
     }
 
     /**
+     * Executa o singura comanda intr-un sink gol, pastrat in memorie. Handler-ul comenzii
+     * este luat din tabela {@link CommandType}, deci executia nu aloca un obiect comanda.
+     * Daca handler-ul arunca o exceptie, tot ce a apucat sa scrie este sters din sink.
+     * Durata executiei si eventuala exceptie sunt inregistrate in {@link Metrics}.
+     *
+     * @param commandInput Comanda de executat.
+     * @param bank Banca asupra careia se executa comanda.
+     * @param result Sink-ul gol in care se scrie rezultatul comenzii.
+     * @return true daca comanda s-a terminat fara exceptie.
+     */
+    public static boolean executeBuffered(final CommandInput commandInput, final Bank bank,
+                                          final BufferedOutputSink result) {
+        CommandType type = CommandType.fromName(commandInput.getCommand());
+        Metrics metrics = bank.getMetrics();
+        boolean timed = metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+        boolean failed = false;
+        try {
+            if (type != null) {
+                type.getHandler().execute(bank, commandInput, result);
+            }
+        } catch (Exception e) {
+            failed = true;
+            result.clear();
+            e.printStackTrace();
+        }
+        if (timed) {
+            metrics.recordCommand(type, System.nanoTime() - start, failed);
+        }
+        return !failed;
+    }
+
+    /**
+     * Proceseaza fisierul in mod streaming: sectiunile de inceput sunt citite primele,
+     * apoi comenzile sunt citite si executate una cate una, iar rezultatele fiecarei
+     * comenzi sunt scrise imediat in fisierul de iesire. Memoria folosita nu depinde
+     * de numarul de comenzi din fisier.
+     *
      * @param filePath1 for input file
      * @param filePath2 for output file
      * @throws IOException in case of exceptions to reading / writing
@@ -301,22 +280,150 @@ public final class Main {
     public static void action(final String filePath1,
                               final String filePath2) throws IOException {
         System.out.println("Processing: " + filePath1);
+        action(new File(CheckerConstants.TESTS_PATH + filePath1), new File(filePath2));
+    }
+
+    /**
+     * Proceseaza un fisier de intrare aflat oriunde pe disc, de exemplu unul generat
+     * de {@link org.poo.loadgen.LoadGenerator}.
+     *
+     * @param inputFile Fisierul de intrare.
+     * @param outputFile Fisierul in care se scriu rezultatele.
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void action(final File inputFile, final File outputFile) throws IOException {
+        action(inputFile, outputFile, Bank.getInstance());
+    }
+
+    /**
+     * Proceseaza un fisier de intrare folosind banca data. Banca si generatoarele de
+     * IBAN-uri / numere de card ale firului curent sunt resetate la final, deci
+     * fisierul trebuie procesat in intregime pe un singur fir.
+     *
+     * @param inputFile Fisierul de intrare.
+     * @param outputFile Fisierul in care se scriu rezultatele.
+     * @param bank Banca folosita pentru acest fisier.
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void action(final File inputFile, final File outputFile,
+                              final Bank bank) throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
-        File file = new File(CheckerConstants.TESTS_PATH + filePath1);
-        ObjectInput inputData = objectMapper.readValue(file, ObjectInput.class);
-        createUsers(inputData.getUsers());
+        Path journalPath = journalPath(inputFile);
 
-        createCommerciants(inputData.getCommerciants());
+        // exportorul este inchis explicit, dupa celelalte resurse si inainte de
+        // bank.reset(), ca exportul final sa contina metricile intregului fisier
+        MetricsExporter metricsExporter = null;
+        try {
+            metricsExporter = startMetrics(inputFile, bank);
+            try (StreamingInputReader input = new StreamingInputReader(inputFile, objectMapper);
+                 StreamingOutputWriter writer = new StreamingOutputWriter(outputFile,
+                         objectMapper, Boolean.getBoolean(COMPACT_OUTPUT_PROPERTY));
+                 JournalWriter journal = openJournal(journalPath, input)) {
+                Checkpointer checkpointer = journal == null ? null
+                        : new Checkpointer(journal, journalPath, Integer.getInteger(
+                                SNAPSHOT_INTERVAL_PROPERTY, Checkpointer.DEFAULT_INTERVAL));
+                createUsers(input.getUsers(), bank);
+                createCommerciants(input.getCommerciants(), bank);
+                createCurrencyConverter(input.getExchangeRates(), bank);
 
-        ArrayNode output = objectMapper.createArrayNode();
-        executeCommands(inputData.getCommands(), inputData.getExchangeRates(),
-                inputData.getCommerciants(), output, objectMapper);
+                int workers = Integer.getInteger(WORKERS_PROPERTY, 1);
+                if (workers > 1) {
+                    executePartitioned(input, writer, journal, checkpointer, bank, workers);
+                    return;
+                }
+                CommandInput commandInput = input.nextCommand();
+                while (commandInput != null) {
+                    if (journal != null) {
+                        journal.append(commandInput);
+                    }
+                    executeCommand(commandInput, bank, writer);
+                    if (checkpointer != null && checkpointer.isDue()) {
+                        checkpointer.checkpoint(bank);
+                    }
+                    commandInput = input.nextCommand();
+                }
+            }
+        } finally {
+            try {
+                if (metricsExporter != null) {
+                    metricsExporter.close();
+                }
+            } finally {
+                bank.reset();
+                Utils.resetRandom();
+            }
+        }
+    }
 
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePath2), output);
-        Bank bank = Bank.getInstance();
-        bank.reset();
-        Utils.resetRandom();
+    /**
+     * Porneste exportul metricilor bancii pentru fisierul dat, daca
+     * {@link #METRICS_PROPERTY} este setata; altfel returneaza null. Exportul final
+     * este scris la inchidere, la sfarsitul procesarii fisierului.
+     */
+    private static MetricsExporter startMetrics(final File inputFile, final Bank bank)
+            throws IOException {
+        String directory = System.getProperty(METRICS_PROPERTY);
+        if (directory == null) {
+            return null;
+        }
+        Path metricsDirectory = Files.createDirectories(Paths.get(directory));
+        return MetricsExporter.start(bank.getMetrics(),
+                metricsDirectory.resolve(inputFile.getName() + ".metrics.json"),
+                Integer.getInteger(METRICS_INTERVAL_PROPERTY,
+                        MetricsExporter.DEFAULT_INTERVAL_SECONDS));
+    }
+
+    /**
+     * Returneaza calea jurnalului fisierului dat sau null daca {@link #JOURNAL_PROPERTY}
+     * nu este setata.
+     */
+    private static Path journalPath(final File inputFile) throws IOException {
+        String directory = System.getProperty(JOURNAL_PROPERTY);
+        if (directory == null) {
+            return null;
+        }
+        Path journalDirectory = Files.createDirectories(Paths.get(directory));
+        return journalDirectory.resolve(inputFile.getName() + ".journal");
+    }
+
+    /**
+     * Deschide jurnalul de la calea data, daca exista una, si scrie in el sectiunile
+     * de inceput ale intrarii.
+     */
+    private static JournalWriter openJournal(final Path journalPath,
+                                             final StreamingInputReader input)
+            throws IOException {
+        if (journalPath == null) {
+            return null;
+        }
+        JournalWriter journal = new JournalWriter(journalPath,
+                JournalWriter.DEFAULT_GROUP_SIZE);
+        journal.appendGenesis(input.getUsers(), input.getCommerciants(),
+                input.getExchangeRates());
+        return journal;
+    }
+
+    private static void executePartitioned(final StreamingInputReader input,
+                                           final StreamingOutputWriter writer,
+                                           final JournalWriter journal,
+                                           final Checkpointer checkpointer,
+                                           final Bank bank,
+                                           final int workers) throws IOException {
+        try (PartitionedExecutor executor = new PartitionedExecutor(bank, workers)) {
+            CommandInput commandInput = input.nextCommand();
+            while (commandInput != null) {
+                if (journal != null) {
+                    journal.append(commandInput);
+                }
+                executor.submit(commandInput, writer);
+                if (checkpointer != null && checkpointer.isDue()) {
+                    executor.flush(writer);
+                    checkpointer.checkpoint(bank);
+                }
+                commandInput = input.nextCommand();
+            }
+            executor.flush(writer);
+        }
     }
 
     /**
@@ -0,0 +1,111 @@
+package org.poo.main;
+
+import org.poo.banking.Bank;
+import org.poo.checker.Checker;
+import org.poo.checker.CheckerConstants;
+import org.poo.utils.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Varianta paralela a {@link Main}: fiecare fisier de intrare este procesat pe un fir
+ * din pool, cu propria banca si propriile generatoare de IBAN-uri / numere de card.
+ * Fisierele sunt independente, deci rezultatul fiecaruia este identic cu cel al
+ * rularii secventiale.
+ */
+public final class ParallelMain {
+    /**
+     * for coding style
+     */
+    private ParallelMain() {
+    }
+
+    /**
+     * Ruleaza toate fisierele in paralel.
+     * Argumente: [numarFire [directorIntrare directorIesire]]. Fara directoare se
+     * folosesc cele ale checker-ului si se calculeaza scorul, ca in {@link Main#main}.
+     *
+     * @param args from command line
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void main(final String[] args) throws IOException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+        boolean checkerMode = args.length < 2;
+        File directory = new File(checkerMode ? CheckerConstants.TESTS_PATH : args[1]);
+        Path path = Paths.get(checkerMode ? CheckerConstants.RESULT_PATH : args[2]);
+
+        if (checkerMode && Files.exists(path)) {
+            File resultFile = new File(String.valueOf(path));
+            for (File file : Objects.requireNonNull(resultFile.listFiles())) {
+                file.delete();
+            }
+            resultFile.delete();
+        }
+        Files.createDirectories(path);
+
+        List<File> files = Arrays.stream(Objects.requireNonNull(directory.listFiles()))
+                .filter(File::isFile)
+                .sorted(checkerMode ? Comparator.comparingInt(Main::fileConsumer)
+                        : Comparator.comparing(File::getName))
+                .toList();
+        String outPrefix = checkerMode ? CheckerConstants.OUT_PATH
+                : path.resolve("out_").toString();
+
+        runAll(files, outPrefix, threads);
+
+        if (checkerMode) {
+            Checker.calculateScore();
+        }
+    }
+
+    /**
+     * Proceseaza fisierele pe un pool de fire, cate o banca noua pentru fiecare fisier.
+     *
+     * @param files Fisierele de intrare.
+     * @param outPrefix Prefixul cailor de iesire (numele fisierului de intrare este adaugat).
+     * @param threads Numarul de fire.
+     * @throws IOException daca procesarea unui fisier esueaza.
+     */
+    public static void runAll(final List<File> files, final String outPrefix,
+                              final int threads) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (File file : files) {
+                File out = new File(outPrefix + file.getName());
+                results.add(pool.submit(() -> {
+                    System.out.println("Processing: " + file.getName());
+                    Utils.resetRandom();
+                    try (Bank bank = Bank.createInstance()) {
+                        Main.action(file, out, bank);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing input files", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Processing failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.poo.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latente in stil HDR: valorile (in nanosecunde) sunt numarate in
+ * bucket-uri log-liniare. Fiecare putere a lui 2 este impartita in
+ * {@value #SUB_BUCKETS} bucket-uri egale, deci eroarea relativa a unei percentile este
+ * sub 1/{@value #SUB_BUCKETS}, pentru orice valoare, cu o memorie fixa.
+ *
+ * Inregistrarea nu foloseste lock-uri si poate fi apelata din mai multe fire;
+ * citirile sunt aproximative cat timp se inregistreaza valori in paralel.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final double PERCENT = 100.0;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Inregistreaza o valoare. Valorile negative sunt tratate ca 0.
+     *
+     * @param value Valoarea, in nanosecunde.
+     */
+    public void record(final long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(indexOf(clamped));
+        totalCount.increment();
+        totalValue.add(clamped);
+        min.accumulateAndGet(clamped, Math::min);
+        max.accumulateAndGet(clamped, Math::max);
+    }
+
+    /**
+     * @return Numarul de valori inregistrate.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * @return Cea mai mica valoare inregistrata sau 0 daca histograma este goala.
+     */
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * @return Cea mai mare valoare inregistrata.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return Media valorilor inregistrate sau 0 daca histograma este goala.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalValue.sum() / count;
+    }
+
+    /**
+     * Returneaza valoarea sub care (inclusiv) se afla procentul dat din valori, adica
+     * limita superioara a bucket-ului in care cade percentila, dar cel mult maximul.
+     *
+     * @param percentile Percentila, intre 0 si 100.
+     * @return Valoarea percentilei sau 0 daca histograma este goala.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        double fraction = Math.min(Math.max(percentile, 0), PERCENT) / PERCENT;
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(index), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return (shift + 1) * SUB_BUCKETS + subBucket - SUB_BUCKETS;
+    }
+
+    private static long highestValueIn(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
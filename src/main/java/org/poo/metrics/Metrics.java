@@ -0,0 +1,178 @@
+package org.poo.metrics;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.poo.commands.CommandType;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metricile unei rulari: pentru fiecare tip de comanda numarul de executii, de
+ * erori si histograma latentelor, plus contoare pentru cautarile fara rezultat in
+ * indecsii bancii, conversiile valutare si tranzactiile adaugate.
+ *
+ * Fiecare banca are propriile metrici ({@link org.poo.banking.Bank#getMetrics()}),
+ * deci fisierele procesate in paralel nu se amesteca, iar {@link #reset()} le goleste
+ * intre doua rulari pe aceeasi banca. Metricile sunt colectate doar dupa
+ * {@link #enable()} (pornit de {@link MetricsExporter}); pana atunci fiecare
+ * inregistrare costa doar citirea unui flag.
+ */
+public final class Metrics {
+    private static final CommandType[] TYPES = CommandType.values();
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[TYPES.length];
+    private final LongAdder[] errors = new LongAdder[TYPES.length];
+    private final LongAdder unknownCommands = new LongAdder();
+    private final LongAdder indexMisses = new LongAdder();
+    private final LongAdder fxConversions = new LongAdder();
+    private final LongAdder transactionsAppended = new LongAdder();
+    private volatile boolean enabled;
+    private volatile long startNanos;
+
+    /**
+     * Creeaza metrici goale, necolectate pana la {@link #enable()}.
+     */
+    public Metrics() {
+        for (int i = 0; i < TYPES.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            errors[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Opreste colectarea si goleste toate valorile, pentru rularea urmatoare. Trebuie
+     * apelata cand nicio comanda nu se mai executa.
+     */
+    public synchronized void reset() {
+        enabled = false;
+        for (int i = 0; i < TYPES.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            errors[i].reset();
+        }
+        unknownCommands.reset();
+        indexMisses.reset();
+        fxConversions.reset();
+        transactionsAppended.reset();
+    }
+
+    /**
+     * Porneste colectarea metricilor. Apelurile ulterioare nu au efect.
+     */
+    public synchronized void enable() {
+        if (!enabled) {
+            startNanos = System.nanoTime();
+            enabled = true;
+        }
+    }
+
+    /**
+     * @return true daca metricile sunt colectate.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inregistreaza executia unei comenzi.
+     *
+     * @param type Tipul comenzii sau null daca numele comenzii nu este cunoscut.
+     * @param nanos Durata executiei, in nanosecunde.
+     * @param failed true daca executia s-a terminat cu o exceptie.
+     */
+    public void recordCommand(final CommandType type, final long nanos, final boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        if (type == null) {
+            unknownCommands.increment();
+            return;
+        }
+        latencies[type.ordinal()].record(nanos);
+        if (failed) {
+            errors[type.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Numara o cautare fara rezultat intr-un index al bancii.
+     */
+    public void recordIndexMiss() {
+        if (enabled) {
+            indexMisses.increment();
+        }
+    }
+
+    /**
+     * Numara o conversie valutara.
+     */
+    public void recordFxConversion() {
+        if (enabled) {
+            fxConversions.increment();
+        }
+    }
+
+    /**
+     * Numara o tranzactie adaugata in istoricul unui utilizator.
+     */
+    public void recordTransactionAppended() {
+        if (enabled) {
+            transactionsAppended.increment();
+        }
+    }
+
+    /**
+     * Scrie valorile curente ale metricilor ca obiect JSON. Latentele sunt in
+     * nanosecunde; tipurile de comenzi neexecutate sunt omise.
+     *
+     * @param json Generatorul in care se scrie obiectul.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public void writeTo(final JsonGenerator json) throws IOException {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        long totalCommands = 0;
+        long totalErrors = 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            totalCommands += latencies[i].getCount();
+            totalErrors += errors[i].sum();
+        }
+
+        json.writeStartObject();
+        json.writeNumberField("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        json.writeNumberField("commands", totalCommands);
+        json.writeNumberField("commandsPerSecond", totalCommands / elapsedSeconds);
+        json.writeNumberField("errors", totalErrors);
+        json.writeNumberField("unknownCommands", unknownCommands.sum());
+        json.writeNumberField("indexMisses", indexMisses.sum());
+        json.writeNumberField("fxConversions", fxConversions.sum());
+        json.writeNumberField("transactionsAppended", transactionsAppended.sum());
+
+        json.writeObjectFieldStart("commandTypes");
+        for (CommandType type : TYPES) {
+            LatencyHistogram latency = latencies[type.ordinal()];
+            long count = latency.getCount();
+            if (count == 0) {
+                continue;
+            }
+            json.writeObjectFieldStart(type.getCommandName());
+            json.writeNumberField("count", count);
+            json.writeNumberField("errors", errors[type.ordinal()].sum());
+            json.writeNumberField("commandsPerSecond", count / elapsedSeconds);
+            json.writeObjectFieldStart("latencyNanos");
+            json.writeNumberField("min", latency.getMin());
+            json.writeNumberField("mean", latency.getMean());
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                json.writeNumberField(PERCENTILE_NAMES[i],
+                        latency.getValueAtPercentile(PERCENTILES[i]));
+            }
+            json.writeNumberField("max", latency.getMax());
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+}
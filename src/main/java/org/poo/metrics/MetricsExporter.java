@@ -0,0 +1,122 @@
+package org.poo.metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exporta metricile unei rulari intr-un fisier JSON: periodic, de pe un fir daemon
+ * comun tuturor rularilor, si o ultima data la {@link #close()}, apelat la finalul
+ * rularii. Un hook de oprire a procesului scrie fisierul doar daca rularea este
+ * intrerupta inainte de {@link #close()}; la o oprire fortata (SIGKILL) ramane ultimul
+ * export periodic. Fiecare export scrie un fisier temporar si il redenumeste atomic
+ * peste cel vechi, astfel incat fisierul poate fi citit oricand in timpul rularii.
+ */
+public final class MetricsExporter implements Closeable {
+    /** Numarul implicit de secunde intre doua exporturi periodice. */
+    public static final int DEFAULT_INTERVAL_SECONDS = 10;
+
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-exporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Metrics metrics;
+    private final Path path;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ScheduledFuture<?> periodic;
+    private final Thread shutdownHook;
+    private boolean closed;
+
+    private MetricsExporter(final Metrics metrics, final Path path, final long interval) {
+        this.metrics = metrics;
+        this.path = path;
+        this.periodic = SCHEDULER.scheduleAtFixedRate(this::exportQuietly, interval,
+                interval, TimeUnit.SECONDS);
+        this.shutdownHook = new Thread(this::exportQuietly, "metrics-final-export");
+    }
+
+    /**
+     * Porneste colectarea metricilor unei rulari si exportul lor in fisierul dat.
+     *
+     * @param metrics Metricile rularii.
+     * @param path Fisierul in care se scriu metricile.
+     * @param intervalSeconds Numarul de secunde intre doua exporturi periodice.
+     * @return Exportul pornit; trebuie inchis la finalul rularii.
+     */
+    public static MetricsExporter start(final Metrics metrics, final Path path,
+                                        final int intervalSeconds) {
+        metrics.enable();
+        MetricsExporter exporter =
+                new MetricsExporter(metrics, path, Math.max(1, intervalSeconds));
+        Runtime.getRuntime().addShutdownHook(exporter.shutdownHook);
+        return exporter;
+    }
+
+    /**
+     * Scrie valorile curente ale metricilor in fisier.
+     *
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public synchronized void export() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (JsonGenerator json = jsonFactory.createGenerator(temporary.toFile(),
+                JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            metrics.writeTo(json);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Opreste exportul periodic si scrie valorile finale ale rularii. Dupa inchidere
+     * fisierul nu mai este modificat, chiar daca metricile sunt golite pentru rularea
+     * urmatoare.
+     *
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    @Override
+    public void close() throws IOException {
+        periodic.cancel(false);
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // procesul se opreste deja; hook-ul scrie exportul final
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            export();
+            closed = true;
+        }
+    }
+
+    private synchronized void exportQuietly() {
+        if (closed) {
+            return;
+        }
+        try {
+            export();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package org.poo.observer;
+
+import org.poo.banking.User;
+import org.poo.transactions.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Magistrala de evenimente a unei banci: este observatorul fiecarui utilizator si
+ * transforma fiecare tranzactie noua intr-un {@link TransactionEvent}.
+ *
+ * Abonatii sincroni sunt apelati imediat, pe firul care a adaugat tranzactia, in
+ * ordinea abonarii; logica care influenteaza rezultatul comenzilor (de exemplu
+ * {@link PlanUpgradeObserver}) trebuie abonata sincron, ca sa ramana determinista.
+ * Pentru abonatii asincroni evenimentele sunt puse intr-un buffer circular marginit
+ * si livrate in loturi de un fir daemon; cand buffer-ul este plin, publicarea
+ * asteapta livrarea, deci niciun eveniment nu se pierde. Fara abonati asincroni
+ * buffer-ul nu este folosit.
+ *
+ * Un abonat asincron care adauga la randul lui tranzactii publica de pe firul de
+ * livrare; acesta nu poate astepta eliberarea buffer-ului, deci evenimentele lui sunt
+ * puse intr-o coada suplimentara, livrata imediat dupa continutul buffer-ului. O
+ * exceptie sau o eroare aruncata de un abonat este afisata si lotul este considerat
+ * livrat, deci firul de livrare nu se opreste. {@link #close()} livreaza evenimentele
+ * ramase si opreste firul; dupa inchidere abonatii asincroni nu mai primesc nimic.
+ */
+public final class EventBus implements UserObserver, AutoCloseable {
+    /** Capacitatea implicita a buffer-ului circular. */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private final List<TransactionSubscriber> syncSubscribers = new CopyOnWriteArrayList<>();
+    private final List<AsyncSubscription> asyncSubscribers = new CopyOnWriteArrayList<>();
+
+    private final TransactionEvent[] ring;
+    private final List<TransactionEvent> overflow = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private int head;
+    private int size;
+    private long published;
+    private long delivered;
+    private boolean closed;
+    private boolean dispatching;
+    private Thread dispatcher;
+
+    /**
+     * Creeaza o magistrala cu buffer-ul circular de capacitatea data.
+     *
+     * @param capacity Numarul maxim de evenimente care asteapta livrarea asincrona.
+     */
+    public EventBus(final int capacity) {
+        this.ring = new TransactionEvent[Math.max(1, capacity)];
+    }
+
+    /**
+     * Aboneaza un observator cu livrare sincrona.
+     *
+     * @param subscriber Abonatul.
+     */
+    public void subscribe(final TransactionSubscriber subscriber) {
+        syncSubscribers.add(subscriber);
+    }
+
+    /**
+     * Aboneaza un observator cu livrare asincrona, in loturi de cel mult
+     * {@code batchSize} evenimente. Primul abonat asincron porneste firul de livrare.
+     *
+     * @param subscriber Abonatul.
+     * @param batchSize Dimensiunea maxima a unui lot.
+     * @throws IllegalStateException daca magistrala a fost inchisa.
+     */
+    public void subscribeAsync(final TransactionSubscriber subscriber, final int batchSize) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Event bus closed");
+            }
+            asyncSubscribers.add(new AsyncSubscription(subscriber, Math.max(1, batchSize)));
+            if (dispatcher == null) {
+                dispatcher = new Thread(this::dispatch, "event-bus");
+                dispatcher.setDaemon(true);
+                dispatching = true;
+                dispatcher.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onNewTransaction(final User user, final Transaction transaction) {
+        publish(new TransactionEvent(user, transaction));
+    }
+
+    /**
+     * Publica un eveniment: il livreaza abonatilor sincroni si il pune in buffer
+     * pentru cei asincroni.
+     *
+     * @param event Evenimentul de publicat.
+     */
+    public void publish(final TransactionEvent event) {
+        for (TransactionSubscriber subscriber : syncSubscribers) {
+            subscriber.onEvent(event);
+        }
+        if (asyncSubscribers.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (Thread.currentThread() == dispatcher && size == ring.length) {
+                overflow.add(event);
+                published++;
+                return;
+            }
+            while (size == ring.length && dispatching) {
+                notFull.awaitUninterruptibly();
+            }
+            if (closed || !dispatching) {
+                return;
+            }
+            ring[(head + size) % ring.length] = event;
+            size++;
+            published++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Asteapta pana cand toate evenimentele publicate pana acum au fost livrate
+     * abonatilor asincroni.
+     *
+     * @throws IllegalStateException daca este apelata de un abonat asincron, de pe
+     *         firul de livrare, care nu se poate astepta pe sine.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            if (Thread.currentThread() == dispatcher) {
+                throw new IllegalStateException("flush() called from the event-bus thread");
+            }
+            long target = published;
+            while (delivered < target && dispatching) {
+                drained.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Livreaza evenimentele ramase abonatilor asincroni si opreste firul de livrare.
+     * Apelurile ulterioare nu au efect.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            thread = dispatcher;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (thread == null || thread == Thread.currentThread()) {
+            return;
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch() {
+        List<TransactionEvent> batch = new ArrayList<>(ring.length);
+        try {
+            while (takeBatch(batch)) {
+                try {
+                    for (AsyncSubscription subscription : asyncSubscribers) {
+                        subscription.deliver(batch);
+                    }
+                } finally {
+                    lock.lock();
+                    try {
+                        delivered += batch.size();
+                        drained.signalAll();
+                    } finally {
+                        lock.unlock();
+                    }
+                    batch.clear();
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                dispatching = false;
+                notFull.signalAll();
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Muta in lot continutul buffer-ului si apoi al cozii suplimentare, asteptand
+     * daca ambele sunt goale.
+     *
+     * @return false daca magistrala a fost inchisa si nu mai sunt evenimente.
+     */
+    private boolean takeBatch(final List<TransactionEvent> batch) {
+        lock.lock();
+        try {
+            while (size == 0 && overflow.isEmpty() && !closed) {
+                notEmpty.awaitUninterruptibly();
+            }
+            if (size == 0 && overflow.isEmpty()) {
+                return false;
+            }
+            while (size > 0) {
+                batch.add(ring[head]);
+                ring[head] = null;
+                head = (head + 1) % ring.length;
+                size--;
+            }
+            batch.addAll(overflow);
+            overflow.clear();
+            notFull.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class AsyncSubscription {
+        private final TransactionSubscriber subscriber;
+        private final int batchSize;
+
+        AsyncSubscription(final TransactionSubscriber subscriber, final int batchSize) {
+            this.subscriber = subscriber;
+            this.batchSize = batchSize;
+        }
+
+        void deliver(final List<TransactionEvent> events) {
+            for (int from = 0; from < events.size(); from += batchSize) {
+                int to = Math.min(events.size(), from + batchSize);
+                try {
+                    subscriber.onBatch(events.subList(from, to));
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -10,17 +10,29 @@ import org.poo.banking.User;
 import org.poo.commands.SendMoneyCommand;
 
 
-public final class PlanUpgradeObserver implements UserObserver {
+/**
+ * Numara platile care apropie un utilizator SILVER de upgrade-ul automat la GOLD.
+ * Este abonat sincron pe {@link EventBus}-ul bancii, deci contorul este actualizat
+ * inainte ca tranzactia urmatoare sa fie procesata.
+ */
+public final class PlanUpgradeObserver implements TransactionSubscriber {
     private static final double SILVER_ELIGIBLE_PAYMENTS = 300;
+    private final Bank bank;
+
+    public PlanUpgradeObserver(final Bank bank) {
+        this.bank = bank;
+    }
 
     @Override
-    public void onNewTransaction(final User user, final Transaction transaction) {
+    public void onEvent(final TransactionEvent event) {
+        User user = event.getUser();
+        Transaction transaction = event.getTransaction();
         if (user.getPlanType() == PlanType.SILVER) {
             double amountInAccountCurrency = getAmountFromTransaction(transaction);
             Currency accCurrency = getCurrencyFromTransaction(transaction);
 
             double amountInRON = SendMoneyCommand.convertToRon(amountInAccountCurrency, accCurrency,
-                    Bank.getInstance().getCurrencyGraph());
+                    bank.getCurrencyConverter());
 
             if (amountInRON >= SILVER_ELIGIBLE_PAYMENTS) {
                 user.incrementSilverEligiblePayments();
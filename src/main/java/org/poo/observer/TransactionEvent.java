@@ -0,0 +1,36 @@
+package org.poo.observer;
+
+import org.poo.banking.User;
+import org.poo.transactions.Transaction;
+
+/**
+ * Eveniment publicat pe {@link EventBus} cand un utilizator adauga o tranzactie.
+ * Tipul concret al tranzactiei poate fi verificat de abonati prin {@link #is(Class)}.
+ */
+public final class TransactionEvent {
+    private final User user;
+    private final Transaction transaction;
+
+    public TransactionEvent(final User user, final Transaction transaction) {
+        this.user = user;
+        this.transaction = transaction;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * Verifica daca tranzactia evenimentului este de tipul dat.
+     *
+     * @param type Clasa tranzactiei.
+     * @return true daca tranzactia este o instanta a clasei date.
+     */
+    public boolean is(final Class<? extends Transaction> type) {
+        return type.isInstance(transaction);
+    }
+}
@@ -0,0 +1,29 @@
+package org.poo.observer;
+
+import java.util.List;
+
+/**
+ * Abonat la evenimentele de tranzactie publicate pe {@link EventBus}. Un abonat
+ * sincron primeste evenimentele unul cate unul, pe firul care a adaugat tranzactia;
+ * unul asincron le primeste in loturi, pe firul de livrare al magistralei.
+ */
+public interface TransactionSubscriber {
+    /**
+     * Metoda apelata pentru fiecare tranzactie noua.
+     *
+     * @param event Evenimentul tranzactiei.
+     */
+    void onEvent(TransactionEvent event);
+
+    /**
+     * Metoda apelata pentru un lot de evenimente, in ordinea publicarii. Implicit
+     * fiecare eveniment este transmis lui {@link #onEvent(TransactionEvent)}.
+     *
+     * @param events Evenimentele lotului.
+     */
+    default void onBatch(final List<TransactionEvent> events) {
+        for (TransactionEvent event : events) {
+            onEvent(event);
+        }
+    }
+}
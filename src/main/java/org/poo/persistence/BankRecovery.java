@@ -0,0 +1,105 @@
+package org.poo.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.banking.Bank;
+import org.poo.commands.CommandType;
+import org.poo.fileio.BufferedOutputSink;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.StreamingOutputWriter;
+import org.poo.main.Main;
+import org.poo.utils.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reface starea unei banci dupa o oprire neasteptata, pe baza jurnalului scris de
+ * {@link JournalWriter}. Daca langa jurnal exista un {@link BankSnapshot}, starea
+ * este incarcata din el si sunt reluate doar comenzile scrise dupa snapshot; altfel,
+ * inclusiv cand snapshot-ul este intr-o versiune mai veche a formatului, jurnalul
+ * este reluat de la inceput. Sunt reluate doar comenzile care modifica
+ * starea, fara parsarea JSON a intrarii si fara rezultatele comenzilor.
+ */
+public final class BankRecovery {
+    /**
+     * for coding style
+     */
+    private BankRecovery() {
+    }
+
+    /**
+     * Reface in banca data starea descrisa de snapshot si de jurnal. Banca trebuie sa
+     * fie goala; generatoarele de IBAN-uri / numere de card ale firului curent sunt
+     * repozitionate, pentru ca reluarea sa produca aceleasi identificatori ca rularea
+     * initiala.
+     *
+     * @param journal Calea jurnalului.
+     * @param bank Banca in care se reface starea.
+     * @return Numarul de comenzi reluate.
+     * @throws IOException daca jurnalul nu poate fi citit.
+     */
+    public static long recover(final Path journal, final Bank bank) throws IOException {
+        Path snapshot = Checkpointer.snapshotPathFor(journal);
+        long offset = 0;
+        if (Files.exists(snapshot) && BankSnapshot.isCompatible(snapshot)) {
+            offset = BankSnapshot.read(snapshot, bank);
+        } else {
+            if (Files.exists(snapshot)) {
+                System.err.println("Ignored snapshot in an older format " + snapshot
+                        + "; replaying the whole journal");
+            }
+            Utils.resetRandom();
+        }
+        try (JournalReader reader = new JournalReader(journal, offset)) {
+            if (offset == 0) {
+                Main.createUsers(reader.getUsers(), bank);
+                Main.createCommerciants(reader.getCommerciants(), bank);
+                Main.createCurrencyConverter(reader.getExchangeRates(), bank);
+            }
+
+            BufferedOutputSink discarded = new BufferedOutputSink();
+            long replayed = 0;
+            CommandInput command = reader.nextCommand();
+            while (command != null) {
+                Main.executeBuffered(command, bank, discarded);
+                discarded.clear();
+                replayed++;
+                command = reader.nextCommand();
+            }
+            if (reader.isTruncated()) {
+                System.err.println("Ignored incomplete journal tail in " + journal);
+            }
+            return replayed;
+        }
+    }
+
+    /**
+     * Reface starea dintr-un jurnal si scrie utilizatorii rezultati, in formatul
+     * comenzii printUsers. Argumente: jurnal fisierIesire.
+     *
+     * @param args from command line
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BankRecovery <journal> <output.json>");
+            return;
+        }
+        Bank bank = Bank.createInstance();
+        long start = System.nanoTime();
+        long replayed = recover(Paths.get(args[0]), bank);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("Recovered " + replayed + " commands in " + millis + " ms");
+
+        try (StreamingOutputWriter output =
+                     new StreamingOutputWriter(new File(args[1]), new ObjectMapper())) {
+            CommandInput printUsers = new CommandInput();
+            printUsers.setCommand(CommandType.PRINT_USERS.getCommandName());
+            Main.executeCommand(printUsers, bank, output);
+        }
+    }
+}
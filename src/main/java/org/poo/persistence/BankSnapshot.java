@@ -0,0 +1,534 @@
+package org.poo.persistence;
+
+import org.poo.banking.Bank;
+import org.poo.banking.BusinessAccount;
+import org.poo.banking.ClassicAccount;
+import org.poo.banking.ClassicCard;
+import org.poo.banking.Currency;
+import org.poo.banking.Graph;
+import org.poo.banking.OneTimeCard;
+import org.poo.banking.PlanType;
+import org.poo.banking.SavingsAccount;
+import org.poo.banking.SplitPaymentEvent;
+import org.poo.banking.User;
+import org.poo.commerciants.Commerciant;
+import org.poo.commerciants.CommerciantRegistry;
+import org.poo.transactions.BusinessTransaction;
+import org.poo.transactions.TransactionCursor;
+import org.poo.transactions.TransactionType;
+import org.poo.utils.Identifiers;
+import org.poo.utils.Utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot binar, versionat, al intregii stari a unei banci: graful de conversie,
+ * comerciantii, utilizatorii cu conturile lor (clasice, de economii, business),
+ * cardurile, contoarele de cashback, istoricele de tranzactii si platile impartite
+ * inca in asteptare. Snapshot-ul retine si pozitia din jurnal pana la care starea
+ * este inclusa, precum si pozitia generatoarelor de IBAN-uri / numere de card,
+ * astfel incat recuperarea continua cu coada jurnalului.
+ *
+ * Fisierul este scris in blocuri de dimensiune fixa intr-un fisier temporar,
+ * sincronizat pe disc si apoi redenumit atomic, deci un snapshot existent este
+ * intotdeauna complet. La citire fisierul este mapat in memorie
+ * ({@link java.nio.MappedByteBuffer}, in regiuni de cel mult 1 GiB) si decodificat direct din
+ * pagini, fara copii intermediare.
+ *
+ * Structura: antet, muchiile grafului, comercianti, utilizatori cu conturi si carduri,
+ * istoricele de tranzactii (dupa toate conturile, pentru ca o plata cu cardul poate
+ * referi contul altui utilizator) si, la final, platile impartite in asteptare, o
+ * singura data fiecare, cu referinte din listele utilizatorilor.
+ */
+public final class BankSnapshot {
+    static final int MAGIC = 0x504F4F53;
+    static final int VERSION = 3;
+
+    private static final byte CLASSIC = 0;
+    private static final byte SAVINGS = 1;
+    private static final byte BUSINESS = 2;
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final PlanType[] PLAN_TYPES = PlanType.values();
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+    /**
+     * for coding style
+     */
+    private BankSnapshot() {
+    }
+
+    /**
+     * Scrie starea bancii. Trebuie apelata pe firul care a procesat comenzile, pentru
+     * ca pozitia generatoarelor de IBAN-uri / numere de card este per fir.
+     *
+     * @param bank Banca salvata.
+     * @param path Calea snapshot-ului.
+     * @param journalOffset Pozitia din jurnal a primei comenzi neincluse in snapshot.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public static void write(final Bank bank, final Path path, final long journalOffset)
+            throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SnapshotOutput out = new SnapshotOutput(channel);
+            writeState(bank, journalOffset, out);
+            out.flush();
+            channel.force(true);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Verifica daca fisierul este un snapshot in versiunea curenta a formatului. Un
+     * snapshot scris de o versiune anterioara nu poate fi citit; recuperarea il ignora
+     * si reia jurnalul de la inceput.
+     *
+     * @param path Calea snapshot-ului.
+     * @return true daca snapshot-ul poate fi citit de {@link #read(Path, Bank)}.
+     * @throws IOException daca fisierul nu poate fi citit.
+     */
+    public static boolean isCompatible(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return false;
+                }
+            }
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == VERSION;
+        }
+    }
+
+    private static void writeState(final Bank bank, final long journalOffset,
+                                   final SnapshotOutput out) {
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(journalOffset);
+        out.putInt(Utils.getGeneratedIbanCount());
+        out.putInt(Utils.getGeneratedCardCount());
+
+        writeGraph(bank.getCurrencyGraph(), out);
+        out.putInt(bank.getCommerciants().size());
+        for (Commerciant commerciant : bank.getCommerciants()) {
+            out.putString(commerciant.getName());
+            out.putInt(commerciant.getId());
+            out.putString(commerciant.getAccount());
+            out.putString(commerciant.getType());
+            out.putString(commerciant.getCashBackStrategy());
+        }
+
+        List<User> users = bank.getUsers();
+        out.putInt(users.size());
+        for (User user : users) {
+            writeUser(user, bank.getCommerciantRegistry(), out);
+        }
+        for (User user : users) {
+            out.putInt(user.getTransactionCount());
+            TransactionCursor transactions = user.getTransactions();
+            while (transactions.next()) {
+                TransactionCodec.write(transactions, out);
+            }
+        }
+        writeSplitPayments(users, out);
+    }
+
+    private static void writeGraph(final Graph<Currency> graph, final SnapshotOutput out) {
+        if (graph == null) {
+            out.putInt(-1);
+            return;
+        }
+        List<Graph<Currency>.Edge> edges = graph.getEdges();
+        out.putInt(edges.size());
+        for (Graph<Currency>.Edge edge : edges) {
+            out.putEnum(edge.getSource());
+            out.putEnum(edge.getDestination());
+            out.putDouble(edge.getCost());
+        }
+    }
+
+    private static void writeUser(final User user, final CommerciantRegistry commerciants,
+                                  final SnapshotOutput out) {
+        out.putString(user.getFirstName());
+        out.putString(user.getLastName());
+        out.putString(user.getEmail());
+        out.putString(user.getBirthdate());
+        out.putString(user.getOccupation());
+        out.putEnum(user.getPlanType());
+        out.putInt(user.getSilverEligiblePayments());
+        out.putInt(user.getAccounts().size());
+        for (ClassicAccount account : user.getAccounts()) {
+            writeAccount(account, commerciants, out);
+        }
+    }
+
+    private static void writeAccount(final ClassicAccount account,
+                                     final CommerciantRegistry commerciants,
+                                     final SnapshotOutput out) {
+        if (account.isBusinessAccount()) {
+            out.putByte(BUSINESS);
+        } else {
+            out.putByte(account.isSavingsAccount() ? SAVINGS : CLASSIC);
+        }
+        out.putString(account.getIban());
+        out.putEnum(account.getCurrency());
+        out.putLong(account.getBalanceUnits());
+        out.putDouble(account.getMinimumBalance());
+        if (account.isSavingsAccount()) {
+            out.putDouble(((SavingsAccount) account).getInterestRate());
+        }
+        if (account.isBusinessAccount()) {
+            writeBusinessRoles((BusinessAccount) account, out);
+        }
+
+        out.putInt(account.getCards().size());
+        for (ClassicCard card : account.getCards()) {
+            out.putBoolean(card.isOneTimeCard());
+            out.putString(card.getCardNumber());
+            out.putBoolean(card.isActive());
+        }
+
+        // contoarele sunt scrise pe numele comerciantului, deci nu depind de id-urile dense
+        int counterCount = 0;
+        for (int id = 0; id < commerciants.idCount(); id++) {
+            if (account.getTransactionCount(id) > 0) {
+                counterCount++;
+            }
+        }
+        out.putInt(counterCount);
+        for (int id = 0; id < commerciants.idCount(); id++) {
+            if (account.getTransactionCount(id) > 0) {
+                out.putString(commerciants.get(id).getName());
+                out.putInt(account.getTransactionCount(id));
+            }
+        }
+        out.putLong(account.getTotalSpendingThresholdUnits());
+        out.putInt(account.getCashbacks().size());
+        for (Map.Entry<String, Double> entry : account.getCashbacks().entrySet()) {
+            out.putString(entry.getKey());
+            out.putDouble(entry.getValue());
+        }
+    }
+
+    private static void writeBusinessRoles(final BusinessAccount account,
+                                           final SnapshotOutput out) {
+        out.putString(account.getOwnerEmail());
+        out.putStrings(account.getManagers());
+        out.putStrings(account.getEmployees());
+        out.putInt(account.getCustomLimits().size());
+        for (Map.Entry<String, Double> entry : account.getCustomLimits().entrySet()) {
+            out.putString(entry.getKey());
+            out.putDouble(entry.getValue());
+        }
+        out.putInt(account.getCardOwnershipCount());
+        account.forEachCardOwnership((cardNumber, email) -> {
+            out.putString(Identifiers.decodeCardNumber(cardNumber));
+            out.putString(email);
+        });
+        out.putInt(account.getBusinessTransactions().size());
+        for (BusinessTransaction transaction : account.getBusinessTransactions()) {
+            out.putString(transaction.getUserEmail());
+            out.putDouble(transaction.getAmount());
+            out.putEnum(transaction.getType());
+            out.putInt(transaction.getTimestamp());
+            out.putEnum(transaction.getCurrency());
+        }
+        out.putInt(account.getCommerciantPaymentCount());
+        account.forEachCommerciantPayment((commerciant, email, timestamp, amount) -> {
+            out.putString(commerciant);
+            out.putString(email);
+            out.putInt(timestamp);
+            out.putDouble(amount);
+        });
+    }
+
+    private static void writeSplitPayments(final List<User> users, final SnapshotOutput out) {
+        Map<SplitPaymentEvent, Integer> ids = new IdentityHashMap<>();
+        List<SplitPaymentEvent> events = new ArrayList<>();
+        for (User user : users) {
+            out.putInt(user.getSplitPaymentEvents().size());
+            for (SplitPaymentEvent event : user.getSplitPaymentEvents()) {
+                Integer id = ids.get(event);
+                if (id == null) {
+                    id = events.size();
+                    ids.put(event, id);
+                    events.add(event);
+                }
+                out.putInt(id);
+            }
+        }
+
+        out.putInt(events.size());
+        for (SplitPaymentEvent event : events) {
+            out.putEnum(event.getCurrency());
+            out.putDouble(event.getAmount());
+            out.putDoubles(event.getAmountsToPay());
+            out.putString(event.getType());
+            out.putInt(event.getTimestamp());
+            out.putInt(event.getAccountsInvolved().size());
+            for (int i = 0; i < event.getAccountsInvolved().size(); i++) {
+                ClassicAccount account = event.getAccountsInvolved().get(i);
+                out.putString(account.getIban());
+                out.putEnum(account.getCurrency());
+                out.putLong(account.getBalanceUnits());
+                out.putBoolean(event.getAccepted()[i]);
+            }
+        }
+    }
+
+    /**
+     * Reface starea din snapshot in banca data, care trebuie sa fie goala, si
+     * repozitioneaza generatoarele de IBAN-uri / numere de card ale firului curent.
+     *
+     * @param path Calea snapshot-ului.
+     * @param bank Banca in care se reface starea.
+     * @return Pozitia din jurnal de la care trebuie reluate comenzile.
+     * @throws IOException daca fisierul nu poate fi citit sau nu este un snapshot valid.
+     */
+    public static long read(final Path path, final Bank bank) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            SnapshotInput in = new SnapshotInput(channel);
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            long journalOffset = in.getLong();
+            int ibanCount = in.getInt();
+            int cardCount = in.getInt();
+
+            readGraph(in, bank);
+            int commerciantCount = in.getInt();
+            for (int i = 0; i < commerciantCount; i++) {
+                bank.addCommerciant(new Commerciant(in.getString(), in.getInt(),
+                        in.getString(), in.getString(), in.getString()));
+            }
+
+            Map<String, ClassicAccount> accounts = new HashMap<>();
+            int userCount = in.getInt();
+            List<User> users = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                users.add(readUser(in, bank, accounts));
+            }
+            for (User user : users) {
+                int transactionCount = in.getInt();
+                for (int i = 0; i < transactionCount; i++) {
+                    user.addTransaction(TransactionCodec.read(in,
+                            iban -> resolveAccount(accounts, iban)));
+                }
+                user.addObserver(bank.getEventBus());
+            }
+            readSplitPayments(in, bank, users, accounts);
+
+            Utils.restoreRandom(ibanCount, cardCount);
+            return journalOffset;
+        }
+    }
+
+    /**
+     * Contul unei plati cu cardul; pentru un cont sters intre timp se foloseste un
+     * cont detasat cu acelasi IBAN, singurul camp citit din tranzactie.
+     */
+    private static ClassicAccount resolveAccount(final Map<String, ClassicAccount> accounts,
+                                                 final String iban) {
+        ClassicAccount account = accounts.get(iban);
+        return account != null ? account : new ClassicAccount(iban, null);
+    }
+
+    private static void readGraph(final SnapshotInput in, final Bank bank) throws IOException {
+        int edgeCount = in.getInt();
+        if (edgeCount < 0) {
+            return;
+        }
+        Graph<Currency> graph = new Graph<>();
+        for (int i = 0; i < edgeCount; i++) {
+            graph.addEdge(in.getEnum(CURRENCIES), in.getEnum(CURRENCIES), in.getDouble());
+        }
+        bank.setCurrencyGraph(graph);
+    }
+
+    /**
+     * Citeste un utilizator si conturile lui. Observatorii sunt adaugati abia dupa
+     * refacerea istoricului, pentru ca tranzactiile citite sa nu fie numarate din nou.
+     */
+    private static User readUser(final SnapshotInput in, final Bank bank,
+                                 final Map<String, ClassicAccount> accounts)
+            throws IOException {
+        User user = new User(in.getString(), in.getString(), in.getString(),
+                in.getString(), in.getString());
+        user.setPlanType(in.getEnum(PLAN_TYPES));
+        user.setSilverEligiblePayments(in.getInt());
+        bank.addUser(user);
+
+        int accountCount = in.getInt();
+        for (int i = 0; i < accountCount; i++) {
+            ClassicAccount account = readAccount(in, bank);
+            bank.addAccount(user, account);
+            accounts.putIfAbsent(account.getIban(), account);
+            readCards(in, bank, account);
+            readCashbackCounters(in, bank.getCommerciantRegistry(), account);
+        }
+        return user;
+    }
+
+    private static ClassicAccount readAccount(final SnapshotInput in, final Bank bank)
+            throws IOException {
+        byte kind = in.getByte();
+        String iban = in.getString();
+        Currency currency = in.getEnum(CURRENCIES);
+        long balance = in.getLong();
+        double minimumBalance = in.getDouble();
+
+        ClassicAccount account;
+        switch (kind) {
+            case CLASSIC:
+                account = new ClassicAccount(iban, currency);
+                break;
+            case SAVINGS:
+                account = new SavingsAccount(iban, currency, in.getDouble());
+                break;
+            case BUSINESS:
+                BusinessAccount business = new BusinessAccount(iban, currency,
+                        in.getString(), bank);
+                readBusinessRoles(in, business);
+                account = business;
+                break;
+            default:
+                throw new IOException("Unknown account type " + kind);
+        }
+        account.addFundsUnits(balance);
+        account.setMinimumBalance(minimumBalance);
+        return account;
+    }
+
+    private static void readBusinessRoles(final SnapshotInput in,
+                                          final BusinessAccount account) throws IOException {
+        for (String manager : in.getStrings()) {
+            account.addManager(manager);
+        }
+        for (String employee : in.getStrings()) {
+            account.addEmployee(employee);
+        }
+        int limitCount = in.getInt();
+        for (int i = 0; i < limitCount; i++) {
+            account.setTransactionLimit(in.getString(), in.getDouble());
+        }
+        int cardCount = in.getInt();
+        for (int i = 0; i < cardCount; i++) {
+            account.recordCardCreation(in.getString(), in.getString());
+        }
+        int transactionCount = in.getInt();
+        for (int i = 0; i < transactionCount; i++) {
+            account.logTransaction(new BusinessTransaction(in.getString(), in.getDouble(),
+                    in.getEnum(TRANSACTION_TYPES), in.getInt(), in.getEnum(CURRENCIES)));
+        }
+        int paymentCount = in.getInt();
+        for (int i = 0; i < paymentCount; i++) {
+            account.recordCommerciantPayment(in.getString(), in.getString(), in.getInt(),
+                    in.getDouble());
+        }
+    }
+
+    private static void readCards(final SnapshotInput in, final Bank bank,
+                                  final ClassicAccount account) throws IOException {
+        int cardCount = in.getInt();
+        for (int i = 0; i < cardCount; i++) {
+            boolean oneTime = in.getBoolean();
+            String cardNumber = in.getString();
+            ClassicCard card = oneTime ? new OneTimeCard(cardNumber)
+                    : new ClassicCard(cardNumber);
+            card.setStatus(in.getBoolean());
+            bank.addCard(account, card);
+        }
+    }
+
+    private static void readCashbackCounters(final SnapshotInput in,
+                                             final CommerciantRegistry commerciants,
+                                             final ClassicAccount account)
+            throws IOException {
+        int counterCount = in.getInt();
+        for (int i = 0; i < counterCount; i++) {
+            int id = commerciants.idOf(in.getString());
+            int count = in.getInt();
+            if (id >= 0) {
+                account.setTransactionCount(id, count);
+            }
+        }
+        account.addSpendingThresholdUnits(in.getLong());
+        int cashbackCount = in.getInt();
+        for (int i = 0; i < cashbackCount; i++) {
+            account.addCashback(in.getString(), in.getDouble());
+        }
+    }
+
+    private static void readSplitPayments(final SnapshotInput in, final Bank bank,
+                                          final List<User> users,
+                                          final Map<String, ClassicAccount> accounts)
+            throws IOException {
+        List<int[]> references = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            int[] ids = new int[in.getInt()];
+            for (int j = 0; j < ids.length; j++) {
+                ids[j] = in.getInt();
+            }
+            references.add(ids);
+        }
+
+        int eventCount = in.getInt();
+        List<SplitPaymentEvent> events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            Currency currency = in.getEnum(CURRENCIES);
+            double amount = in.getDouble();
+            List<Double> amountsToPay = in.getDoubles();
+            String type = in.getString();
+            int timestamp = in.getInt();
+            int accountCount = in.getInt();
+            List<ClassicAccount> involved = new ArrayList<>(accountCount);
+            boolean[] accepted = new boolean[accountCount];
+            for (int j = 0; j < accountCount; j++) {
+                String iban = in.getString();
+                Currency accountCurrency = in.getEnum(CURRENCIES);
+                long balance = in.getLong();
+                involved.add(accounts.computeIfAbsent(iban, detached -> {
+                    ClassicAccount account = new ClassicAccount(detached, accountCurrency);
+                    account.addFundsUnits(balance);
+                    return account;
+                }));
+                accepted[j] = in.getBoolean();
+            }
+            SplitPaymentEvent event = new SplitPaymentEvent(currency, involved, amount,
+                    amountsToPay, type, timestamp, bank, bank.getCurrencyConverter());
+            event.restoreVotes(accepted);
+            events.add(event);
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            for (int id : references.get(i)) {
+                if (id < 0 || id >= events.size()) {
+                    throw new IOException("Invalid split payment reference " + id);
+                }
+                users.get(i).addSplitPayment(events.get(id));
+                bank.getSplitPayments().track(users.get(i), events.get(id));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.poo.persistence;
+
+import org.poo.banking.Bank;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Decide cand se scrie un nou {@link BankSnapshot} pentru un jurnal: dupa fiecare
+ * {@code interval} comenzi jurnalizate. Snapshot-ul se afla langa jurnal, cu
+ * extensia {@code .snapshot}, si inlocuieste atomic snapshot-ul anterior; recuperarea
+ * il incarca si reia doar comenzile scrise in jurnal dupa el.
+ *
+ * Apelantul trebuie sa se asigure ca toate comenzile scrise in jurnal au fost deja
+ * aplicate bancii inainte de {@link #checkpoint(Bank)}.
+ */
+public final class Checkpointer {
+    /** Numarul implicit de comenzi jurnalizate intre doua snapshot-uri. */
+    public static final int DEFAULT_INTERVAL = 50_000;
+
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    private final JournalWriter journal;
+    private final Path snapshotPath;
+    private final int interval;
+    private long lastCheckpoint;
+
+    /**
+     * Creeaza politica de snapshot pentru un jurnal nou. Un snapshot ramas de la o
+     * rulare anterioara este sters, pentru ca nu mai corespunde jurnalului.
+     *
+     * @param journal Jurnalul asociat.
+     * @param journalPath Calea jurnalului.
+     * @param interval Numarul de comenzi jurnalizate intre doua snapshot-uri.
+     * @throws IOException daca snapshot-ul vechi nu poate fi sters.
+     */
+    public Checkpointer(final JournalWriter journal, final Path journalPath,
+                        final int interval) throws IOException {
+        this.journal = journal;
+        this.snapshotPath = snapshotPathFor(journalPath);
+        this.interval = Math.max(1, interval);
+        Files.deleteIfExists(snapshotPath);
+    }
+
+    /**
+     * Returneaza calea snapshot-ului asociat unui jurnal.
+     *
+     * @param journalPath Calea jurnalului.
+     * @return Calea snapshot-ului.
+     */
+    public static Path snapshotPathFor(final Path journalPath) {
+        String name = journalPath.getFileName().toString();
+        if (name.endsWith(JOURNAL_EXTENSION)) {
+            name = name.substring(0, name.length() - JOURNAL_EXTENSION.length());
+        }
+        return journalPath.resolveSibling(name + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Indica daca de la ultimul snapshot au fost jurnalizate cel putin
+     * {@code interval} comenzi.
+     *
+     * @return true daca trebuie scris un snapshot.
+     */
+    public boolean isDue() {
+        return journal.getCommandCount() - lastCheckpoint >= interval;
+    }
+
+    /**
+     * Sincronizeaza jurnalul si scrie snapshot-ul starii curente a bancii.
+     *
+     * @param bank Banca, cu toate comenzile jurnalizate deja aplicate.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public void checkpoint(final Bank bank) throws IOException {
+        journal.sync();
+        BankSnapshot.write(bank, snapshotPath, journal.position());
+        lastCheckpoint = journal.getCommandCount();
+    }
+}
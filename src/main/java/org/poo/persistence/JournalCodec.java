@@ -0,0 +1,260 @@
+package org.poo.persistence;
+
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommerciantInput;
+import org.poo.fileio.ExchangeInput;
+import org.poo.fileio.UserInput;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Codificarea binara a intrarilor din jurnal. O comanda incepe cu o masca de biti
+ * cu campurile prezente (siruri nenule, numere diferite de zero, liste nenule),
+ * urmata doar de valorile acestor campuri, in ordinea fixa de mai jos.
+ */
+final class JournalCodec {
+    private static final List<Function<CommandInput, String>> STRING_GETTERS = List.of(
+            CommandInput::getCommand, CommandInput::getEmail, CommandInput::getAccount,
+            CommandInput::getNewPlanType, CommandInput::getRole, CommandInput::getCurrency,
+            CommandInput::getTarget, CommandInput::getDescription, CommandInput::getCardNumber,
+            CommandInput::getCommerciant, CommandInput::getReceiver, CommandInput::getAlias,
+            CommandInput::getAccountType, CommandInput::getSplitPaymentType,
+            CommandInput::getType, CommandInput::getLocation);
+    private static final List<BiConsumer<CommandInput, String>> STRING_SETTERS = List.of(
+            CommandInput::setCommand, CommandInput::setEmail, CommandInput::setAccount,
+            CommandInput::setNewPlanType, CommandInput::setRole, CommandInput::setCurrency,
+            CommandInput::setTarget, CommandInput::setDescription, CommandInput::setCardNumber,
+            CommandInput::setCommerciant, CommandInput::setReceiver, CommandInput::setAlias,
+            CommandInput::setAccountType, CommandInput::setSplitPaymentType,
+            CommandInput::setType, CommandInput::setLocation);
+    private static final List<ToIntFunction<CommandInput>> INT_GETTERS = List.of(
+            CommandInput::getTimestamp, CommandInput::getStartTimestamp,
+            CommandInput::getEndTimestamp);
+    private static final List<ObjIntConsumer<CommandInput>> INT_SETTERS = List.of(
+            CommandInput::setTimestamp, CommandInput::setStartTimestamp,
+            CommandInput::setEndTimestamp);
+    private static final List<ToDoubleFunction<CommandInput>> DOUBLE_GETTERS = List.of(
+            CommandInput::getInterestRate, CommandInput::getSpendingLimit,
+            CommandInput::getDepositLimit, CommandInput::getAmount,
+            CommandInput::getMinBalance);
+    private static final List<BiConsumer<CommandInput, Double>> DOUBLE_SETTERS = List.of(
+            CommandInput::setInterestRate, CommandInput::setSpendingLimit,
+            CommandInput::setDepositLimit, CommandInput::setAmount,
+            CommandInput::setMinBalance);
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Scrie o comanda.
+     *
+     * @param command Comanda de scris.
+     * @param out Destinatia.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    static void writeCommand(final CommandInput command, final DataOutput out)
+            throws IOException {
+        int mask = 0;
+        int bit = 0;
+        for (Function<CommandInput, String> getter : STRING_GETTERS) {
+            mask |= getter.apply(command) != null ? 1 << bit : 0;
+            bit++;
+        }
+        for (ToIntFunction<CommandInput> getter : INT_GETTERS) {
+            mask |= getter.applyAsInt(command) != 0 ? 1 << bit : 0;
+            bit++;
+        }
+        for (ToDoubleFunction<CommandInput> getter : DOUBLE_GETTERS) {
+            mask |= Double.doubleToRawLongBits(getter.applyAsDouble(command)) != 0
+                    ? 1 << bit : 0;
+            bit++;
+        }
+        mask |= command.getAccounts() != null ? 1 << bit : 0;
+        bit++;
+        mask |= command.getAmountForUsers() != null ? 1 << bit : 0;
+        out.writeInt(mask);
+
+        bit = 0;
+        for (Function<CommandInput, String> getter : STRING_GETTERS) {
+            if (isSet(mask, bit++)) {
+                out.writeUTF(getter.apply(command));
+            }
+        }
+        for (ToIntFunction<CommandInput> getter : INT_GETTERS) {
+            if (isSet(mask, bit++)) {
+                out.writeInt(getter.applyAsInt(command));
+            }
+        }
+        for (ToDoubleFunction<CommandInput> getter : DOUBLE_GETTERS) {
+            if (isSet(mask, bit++)) {
+                out.writeDouble(getter.applyAsDouble(command));
+            }
+        }
+        if (isSet(mask, bit++)) {
+            out.writeInt(command.getAccounts().size());
+            for (String account : command.getAccounts()) {
+                out.writeUTF(account);
+            }
+        }
+        if (isSet(mask, bit)) {
+            out.writeInt(command.getAmountForUsers().size());
+            for (Double amount : command.getAmountForUsers()) {
+                out.writeDouble(amount);
+            }
+        }
+    }
+
+    /**
+     * Citeste o comanda scrisa de {@link #writeCommand}.
+     *
+     * @param in Sursa.
+     * @return Comanda citita.
+     * @throws IOException in cazul unei erori de citire.
+     */
+    static CommandInput readCommand(final DataInput in) throws IOException {
+        CommandInput command = new CommandInput();
+        int mask = in.readInt();
+        int bit = 0;
+        for (BiConsumer<CommandInput, String> setter : STRING_SETTERS) {
+            if (isSet(mask, bit++)) {
+                setter.accept(command, in.readUTF());
+            }
+        }
+        for (ObjIntConsumer<CommandInput> setter : INT_SETTERS) {
+            if (isSet(mask, bit++)) {
+                setter.accept(command, in.readInt());
+            }
+        }
+        for (BiConsumer<CommandInput, Double> setter : DOUBLE_SETTERS) {
+            if (isSet(mask, bit++)) {
+                setter.accept(command, in.readDouble());
+            }
+        }
+        if (isSet(mask, bit++)) {
+            int size = in.readInt();
+            List<String> accounts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                accounts.add(in.readUTF());
+            }
+            command.setAccounts(accounts);
+        }
+        if (isSet(mask, bit)) {
+            int size = in.readInt();
+            List<Double> amounts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                amounts.add(in.readDouble());
+            }
+            command.setAmountForUsers(amounts);
+        }
+        return command;
+    }
+
+    private static boolean isSet(final int mask, final int bit) {
+        return (mask & (1 << bit)) != 0;
+    }
+
+    /**
+     * Scrie un utilizator din sectiunea de inceput.
+     *
+     * @param user Utilizatorul.
+     * @param out Destinatia.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    static void writeUser(final UserInput user, final DataOutput out) throws IOException {
+        out.writeUTF(user.getFirstName());
+        out.writeUTF(user.getLastName());
+        out.writeUTF(user.getEmail());
+        out.writeUTF(user.getBirthDate());
+        out.writeUTF(user.getOccupation());
+    }
+
+    /**
+     * Citeste un utilizator scris de {@link #writeUser}.
+     *
+     * @param in Sursa.
+     * @return Utilizatorul citit.
+     * @throws IOException in cazul unei erori de citire.
+     */
+    static UserInput readUser(final DataInput in) throws IOException {
+        UserInput user = new UserInput();
+        user.setFirstName(in.readUTF());
+        user.setLastName(in.readUTF());
+        user.setEmail(in.readUTF());
+        user.setBirthDate(in.readUTF());
+        user.setOccupation(in.readUTF());
+        return user;
+    }
+
+    /**
+     * Scrie un comerciant din sectiunea de inceput.
+     *
+     * @param commerciant Comerciantul.
+     * @param out Destinatia.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    static void writeCommerciant(final CommerciantInput commerciant, final DataOutput out)
+            throws IOException {
+        out.writeUTF(commerciant.getCommerciant());
+        out.writeInt(commerciant.getId());
+        out.writeUTF(commerciant.getAccount());
+        out.writeUTF(commerciant.getType());
+        out.writeUTF(commerciant.getCashbackStrategy());
+    }
+
+    /**
+     * Citeste un comerciant scris de {@link #writeCommerciant}.
+     *
+     * @param in Sursa.
+     * @return Comerciantul citit.
+     * @throws IOException in cazul unei erori de citire.
+     */
+    static CommerciantInput readCommerciant(final DataInput in) throws IOException {
+        CommerciantInput commerciant = new CommerciantInput();
+        commerciant.setCommerciant(in.readUTF());
+        commerciant.setId(in.readInt());
+        commerciant.setAccount(in.readUTF());
+        commerciant.setType(in.readUTF());
+        commerciant.setCashbackStrategy(in.readUTF());
+        return commerciant;
+    }
+
+    /**
+     * Scrie o rata de schimb din sectiunea de inceput.
+     *
+     * @param rate Rata de schimb.
+     * @param out Destinatia.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    static void writeExchangeRate(final ExchangeInput rate, final DataOutput out)
+            throws IOException {
+        out.writeUTF(rate.getFrom());
+        out.writeUTF(rate.getTo());
+        out.writeDouble(rate.getRate());
+        out.writeInt(rate.getTimestamp());
+    }
+
+    /**
+     * Citeste o rata de schimb scrisa de {@link #writeExchangeRate}.
+     *
+     * @param in Sursa.
+     * @return Rata de schimb citita.
+     * @throws IOException in cazul unei erori de citire.
+     */
+    static ExchangeInput readExchangeRate(final DataInput in) throws IOException {
+        ExchangeInput rate = new ExchangeInput();
+        rate.setFrom(in.readUTF());
+        rate.setTo(in.readUTF());
+        rate.setRate(in.readDouble());
+        rate.setTimestamp(in.readInt());
+        return rate;
+    }
+}
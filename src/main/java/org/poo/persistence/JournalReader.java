@@ -0,0 +1,202 @@
+package org.poo.persistence;
+
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommerciantInput;
+import org.poo.fileio.ExchangeInput;
+import org.poo.fileio.UserInput;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Citeste un jurnal scris de {@link JournalWriter}. Sectiunile de inceput sunt citite
+ * la deschidere, iar comenzile una cate una, prin {@link #nextCommand()}, la fel ca
+ * in {@link org.poo.fileio.StreamingInputReader}.
+ *
+ * Citirea se opreste la prima inregistrare incompleta sau cu suma de control gresita
+ * (coada unei scrieri intrerupte); tot ce urmeaza dupa ea este ignorat.
+ */
+public final class JournalReader implements Closeable {
+    private static final int MAX_RECORD_SIZE = 16_777_216;
+
+    private final DataInputStream in;
+    private final CRC32 crc = new CRC32();
+
+    private final List<UserInput> users = new ArrayList<>();
+    private final List<CommerciantInput> commerciants = new ArrayList<>();
+    private final List<ExchangeInput> exchangeRates = new ArrayList<>();
+
+    private CommandInput firstCommand;
+    private boolean truncated;
+
+    /**
+     * Deschide jurnalul si citeste sectiunile de inceput.
+     *
+     * @param path Calea fisierului de jurnal.
+     * @throws IOException daca fisierul nu exista sau nu este un jurnal valid.
+     */
+    public JournalReader(final Path path) throws IOException {
+        this(path, 0);
+    }
+
+    /**
+     * Deschide jurnalul pentru citirea comenzilor incepand cu pozitia data, de obicei
+     * cea retinuta intr-un {@link BankSnapshot}. Pentru pozitia 0 se citesc si
+     * sectiunile de inceput; altfel acestea raman goale.
+     *
+     * @param path Calea fisierului de jurnal.
+     * @param offset Pozitia primei inregistrari citite.
+     * @throws IOException daca fisierul nu exista sau nu este un jurnal valid.
+     */
+    public JournalReader(final Path path, final long offset) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        try {
+            if (in.readInt() != JournalWriter.MAGIC) {
+                throw new IOException("Not a journal file: " + path);
+            }
+            int version = in.readInt();
+            if (version != JournalWriter.VERSION) {
+                throw new IOException("Unsupported journal version " + version);
+            }
+            if (offset > JournalWriter.HEADER_SIZE) {
+                in.skipNBytes(offset - JournalWriter.HEADER_SIZE);
+            } else {
+                readGenesis();
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private void readGenesis() throws IOException {
+        DataInputStream record = nextRecord();
+        while (record != null) {
+            byte type = record.readByte();
+            switch (type) {
+                case JournalWriter.USER:
+                    users.add(JournalCodec.readUser(record));
+                    break;
+                case JournalWriter.COMMERCIANT:
+                    commerciants.add(JournalCodec.readCommerciant(record));
+                    break;
+                case JournalWriter.EXCHANGE_RATE:
+                    exchangeRates.add(JournalCodec.readExchangeRate(record));
+                    break;
+                case JournalWriter.COMMAND:
+                    firstCommand = JournalCodec.readCommand(record);
+                    return;
+                default:
+                    break;
+            }
+            record = nextRecord();
+        }
+    }
+
+    /**
+     * Returneaza urmatoarea inregistrare valida, fara antet, sau null la sfarsitul
+     * jurnalului.
+     */
+    private DataInputStream nextRecord() throws IOException {
+        if (truncated) {
+            return null;
+        }
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        try {
+            int checksum = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                truncated = true;
+                return null;
+            }
+            byte[] data = new byte[length];
+            in.readFully(data);
+            crc.reset();
+            crc.update(data, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                truncated = true;
+                return null;
+            }
+            return new DataInputStream(new ByteArrayInputStream(data));
+        } catch (EOFException e) {
+            truncated = true;
+            return null;
+        }
+    }
+
+    /**
+     * Returneaza urmatoarea comanda din jurnal.
+     *
+     * @return Comanda urmatoare sau null daca nu mai exista comenzi.
+     * @throws IOException in cazul unei erori de citire.
+     */
+    public CommandInput nextCommand() throws IOException {
+        if (firstCommand != null) {
+            CommandInput command = firstCommand;
+            firstCommand = null;
+            return command;
+        }
+        DataInputStream record = nextRecord();
+        while (record != null) {
+            if (record.readByte() == JournalWriter.COMMAND) {
+                return JournalCodec.readCommand(record);
+            }
+            record = nextRecord();
+        }
+        return null;
+    }
+
+    /**
+     * Returneaza utilizatorii din sectiunea de inceput.
+     *
+     * @return Vectorul de utilizatori.
+     */
+    public UserInput[] getUsers() {
+        return users.toArray(new UserInput[0]);
+    }
+
+    /**
+     * Returneaza comerciantii din sectiunea de inceput.
+     *
+     * @return Vectorul de comercianti.
+     */
+    public CommerciantInput[] getCommerciants() {
+        return commerciants.toArray(new CommerciantInput[0]);
+    }
+
+    /**
+     * Returneaza ratele de schimb din sectiunea de inceput.
+     *
+     * @return Vectorul de rate de schimb.
+     */
+    public ExchangeInput[] getExchangeRates() {
+        return exchangeRates.toArray(new ExchangeInput[0]);
+    }
+
+    /**
+     * Indica daca citirea s-a oprit la o inregistrare incompleta sau corupta.
+     *
+     * @return true daca jurnalul are o coada invalida.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,201 @@
+package org.poo.persistence;
+
+import org.poo.commands.CommandType;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommerciantInput;
+import org.poo.fileio.ExchangeInput;
+import org.poo.fileio.UserInput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Jurnal de tip write-ahead, doar cu adaugare la final, al comenzilor care modifica
+ * starea bancii. Fisierul incepe cu sectiunile de inceput ale intrarii (utilizatori,
+ * comercianti, rate de schimb), urmate de comenzi, in ordinea in care sunt aplicate.
+ * Executia este determinista, deci reluarea comenzilor reface exact aceleasi
+ * modificari: solduri, carduri create / sterse, planuri, voturi pentru plati impartite,
+ * dar si istoricele de tranzactii si contoarele de cashback de care depind rapoartele.
+ *
+ * Fiecare inregistrare are forma [lungime][crc32][tip][date]. Inregistrarile sunt
+ * adunate intr-un buffer si scrise cu un singur apel pe canal; dupa fiecare grup de
+ * {@code groupSize} comenzi fisierul este sincronizat pe disc ({@code force}).
+ * La o cadere se pierde cel mult grupul nesincronizat, iar o inregistrare scrisa
+ * partial este ignorata la citire.
+ */
+public final class JournalWriter implements Closeable {
+    /** Numarul implicit de comenzi dintr-un grup sincronizat impreuna. */
+    public static final int DEFAULT_GROUP_SIZE = 256;
+
+    static final int MAGIC = 0x504F4F4A;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+    static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    static final byte USER = 1;
+    static final byte COMMERCIANT = 2;
+    static final byte EXCHANGE_RATE = 3;
+    static final byte COMMAND = 4;
+
+    private static final int BUFFER_SIZE = 65_536;
+
+    private final FileChannel channel;
+    private final int groupSize;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final RecordBuffer record = new RecordBuffer();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final CRC32 crc = new CRC32();
+    private int pending;
+    private long commandCount;
+
+    /**
+     * Creeaza (sau suprascrie) jurnalul de la calea data.
+     *
+     * @param path Calea fisierului de jurnal.
+     * @param groupSize Numarul de comenzi dupa care fisierul este sincronizat pe disc.
+     * @throws IOException daca fisierul nu poate fi deschis.
+     */
+    public JournalWriter(final Path path, final int groupSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.groupSize = Math.max(1, groupSize);
+        buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    /**
+     * Scrie sectiunile de inceput ale intrarii. Trebuie apelata inaintea oricarei comenzi.
+     *
+     * @param users Utilizatorii.
+     * @param commerciants Comerciantii.
+     * @param exchangeRates Ratele de schimb.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public void appendGenesis(final UserInput[] users, final CommerciantInput[] commerciants,
+                              final ExchangeInput[] exchangeRates) throws IOException {
+        for (UserInput user : users) {
+            startRecord(USER);
+            JournalCodec.writeUser(user, recordOut);
+            endRecord();
+        }
+        for (CommerciantInput commerciant : commerciants) {
+            startRecord(COMMERCIANT);
+            JournalCodec.writeCommerciant(commerciant, recordOut);
+            endRecord();
+        }
+        for (ExchangeInput rate : exchangeRates) {
+            startRecord(EXCHANGE_RATE);
+            JournalCodec.writeExchangeRate(rate, recordOut);
+            endRecord();
+        }
+        sync();
+    }
+
+    /**
+     * Adauga o comanda in jurnal, inainte de executia ei. Comenzile care doar
+     * afiseaza starea ({@link CommandType#isReadOnly()}) si cele necunoscute sunt
+     * ignorate.
+     *
+     * @param command Comanda care urmeaza sa fie aplicata.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public void append(final CommandInput command) throws IOException {
+        CommandType type = CommandType.fromName(command.getCommand());
+        if (type == null || type.isReadOnly()) {
+            return;
+        }
+        startRecord(COMMAND);
+        JournalCodec.writeCommand(command, recordOut);
+        endRecord();
+        commandCount++;
+        if (++pending >= groupSize) {
+            sync();
+        }
+    }
+
+    private void startRecord(final byte type) throws IOException {
+        record.reset();
+        recordOut.writeByte(type);
+    }
+
+    private void endRecord() throws IOException {
+        int length = record.size();
+        crc.reset();
+        crc.update(record.array(), 0, length);
+
+        if (buffer.remaining() < RECORD_HEADER_SIZE + length) {
+            drain();
+        }
+        if (buffer.remaining() < RECORD_HEADER_SIZE + length) {
+            ByteBuffer large = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+            large.putInt(length).putInt((int) crc.getValue()).put(record.array(), 0, length);
+            large.flip();
+            while (large.hasRemaining()) {
+                channel.write(large);
+            }
+            return;
+        }
+        buffer.putInt(length).putInt((int) crc.getValue()).put(record.array(), 0, length);
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Scrie inregistrarile din buffer si sincronizeaza fisierul pe disc.
+     *
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public void sync() throws IOException {
+        drain();
+        channel.force(false);
+        pending = 0;
+    }
+
+    /**
+     * Returneaza pozitia din fisier la care va fi scrisa urmatoarea inregistrare,
+     * inclusiv inregistrarile aflate inca in buffer.
+     *
+     * @return Pozitia in octeti.
+     * @throws IOException in cazul unei erori a canalului.
+     */
+    public long position() throws IOException {
+        return channel.position() + buffer.position();
+    }
+
+    /**
+     * Returneaza numarul de comenzi scrise in jurnal.
+     *
+     * @return Numarul de comenzi.
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /** Buffer de octeti care permite accesul la tabloul intern, fara copiere. */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        byte[] array() {
+            return buf;
+        }
+    }
+}
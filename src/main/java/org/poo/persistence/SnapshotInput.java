@@ -0,0 +1,165 @@
+package org.poo.persistence;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Citeste valorile scrise de {@link SnapshotOutput} direct din fisierul mapat in
+ * memorie. Un {@link MappedByteBuffer} acopera cel mult 2 GiB, deci fisierul este
+ * mapat in regiuni consecutive de cel mult {@link #REGION_SIZE} octeti; o valoare
+ * care trece peste granita a doua regiuni este citita octet cu octet. Sirurile sunt
+ * decodificate o singura data; referintele ulterioare primesc aceeasi instanta.
+ */
+final class SnapshotInput {
+    /** Dimensiunea maxima a unei regiuni mapate. */
+    static final long REGION_SIZE = 1_073_741_824L;
+
+    private static final int BITS_PER_BYTE = 8;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    private final long fileSize;
+    private final long regionSize;
+    private int region;
+    private ByteBuffer buffer;
+
+    SnapshotInput(final FileChannel channel) throws IOException {
+        this(channel, REGION_SIZE);
+    }
+
+    SnapshotInput(final FileChannel channel, final long regionSize) throws IOException {
+        this.fileSize = channel.size();
+        this.regionSize = regionSize;
+        for (long start = 0; start < fileSize; start += regionSize) {
+            regions.add(channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(regionSize, fileSize - start)));
+        }
+        this.buffer = regions.isEmpty() ? ByteBuffer.allocate(0) : regions.get(0);
+    }
+
+    byte getByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            nextRegion();
+        }
+        return buffer.get();
+    }
+
+    boolean getBoolean() throws IOException {
+        return getByte() != 0;
+    }
+
+    int getInt() throws IOException {
+        if (buffer.remaining() >= Integer.BYTES) {
+            return buffer.getInt();
+        }
+        return (int) getSpanning(Integer.BYTES);
+    }
+
+    long getLong() throws IOException {
+        if (buffer.remaining() >= Long.BYTES) {
+            return buffer.getLong();
+        }
+        return getSpanning(Long.BYTES);
+    }
+
+    double getDouble() throws IOException {
+        return Double.longBitsToDouble(getLong());
+    }
+
+    <E extends Enum<E>> E getEnum(final E[] values) throws IOException {
+        byte ordinal = getByte();
+        if (ordinal == SnapshotOutput.NULL_ENUM) {
+            return null;
+        }
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IOException("Invalid enum ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    String getString() throws IOException {
+        int index = getInt();
+        if (index == SnapshotOutput.NULL_STRING) {
+            return null;
+        }
+        if (index != SnapshotOutput.NEW_STRING) {
+            if (index < 0 || index >= strings.size()) {
+                throw new IOException("Invalid string reference " + index);
+            }
+            return strings.get(index);
+        }
+        int length = getInt();
+        if (length < 0 || length > remaining()) {
+            throw truncated();
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining()) {
+                nextRegion();
+            }
+            int chunk = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    List<String> getStrings() throws IOException {
+        int size = getInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(getString());
+        }
+        return values;
+    }
+
+    List<Double> getDoubles() throws IOException {
+        int size = getInt();
+        if (size < 0) {
+            return null;
+        }
+        List<Double> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(getDouble());
+        }
+        return values;
+    }
+
+    /** Citeste o valoare big-endian (ordinea {@link ByteBuffer}) aflata pe doua regiuni. */
+    private long getSpanning(final int bytes) throws IOException {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << BITS_PER_BYTE) | (getByte() & BYTE_MASK);
+        }
+        return value;
+    }
+
+    private long remaining() {
+        return fileSize - (region * regionSize + buffer.position());
+    }
+
+    private void nextRegion() throws IOException {
+        if (region + 1 >= regions.size()) {
+            throw truncated();
+        }
+        region++;
+        buffer = regions.get(region);
+    }
+
+    private static IOException truncated() {
+        return new IOException("Truncated snapshot", new BufferUnderflowException());
+    }
+}
@@ -0,0 +1,128 @@
+package org.poo.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scrie un snapshot pe canalul fisierului, prin blocuri de dimensiune fixa: un bloc
+ * plin este scris pe disc si refolosit, deci memoria folosita nu depinde de marimea
+ * snapshot-ului. Sirurile sunt codificate cu dictionar: prima aparitie este scrisa
+ * integral si primeste un index, iar aparitiile urmatoare (IBAN-uri, email-uri,
+ * descrieri) sunt scrise doar ca index.
+ *
+ * O eroare de scriere este aruncata ca {@link UncheckedIOException}, pentru ca
+ * valorile sunt scrise si din lambda-uri; {@link BankSnapshot} o transforma inapoi
+ * in {@link IOException}.
+ */
+final class SnapshotOutput {
+    static final int NULL_STRING = -1;
+    static final int NEW_STRING = -2;
+    static final byte NULL_ENUM = -1;
+
+    private static final int CHUNK_SIZE = 1_048_576;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    SnapshotOutput(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    void putByte(final int value) {
+        ensure(Byte.BYTES);
+        buffer.put((byte) value);
+    }
+
+    void putBoolean(final boolean value) {
+        putByte(value ? 1 : 0);
+    }
+
+    void putInt(final int value) {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(final long value) {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putDouble(final double value) {
+        ensure(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    void putEnum(final Enum<?> value) {
+        putByte(value == null ? NULL_ENUM : value.ordinal());
+    }
+
+    void putString(final String value) {
+        if (value == null) {
+            putInt(NULL_STRING);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index != null) {
+            putInt(index);
+            return;
+        }
+        strings.put(value, strings.size());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(NEW_STRING);
+        putInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensure(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    void putStrings(final Collection<String> values) {
+        putInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : values) {
+                putString(value);
+            }
+        }
+    }
+
+    void putDoubles(final List<Double> values) {
+        putInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (Double value : values) {
+                putDouble(value);
+            }
+        }
+    }
+
+    private void ensure(final int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Scrie pe canal valorile ramase in bloc.
+     */
+    void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,244 @@
+package org.poo.persistence;
+
+import org.poo.banking.ClassicAccount;
+import org.poo.banking.Currency;
+import org.poo.banking.PlanType;
+import org.poo.transactions.AccountCreatedTransaction;
+import org.poo.transactions.AddInterestTransaction;
+import org.poo.transactions.CardCreatedTransaction;
+import org.poo.transactions.CardDestroyedTransaction;
+import org.poo.transactions.CardFrozenTransaction;
+import org.poo.transactions.CardPaymentTransaction;
+import org.poo.transactions.CashWithdrawalTransaction;
+import org.poo.transactions.ChangeInterestRateTransaction;
+import org.poo.transactions.DeleteAccountTransaction;
+import org.poo.transactions.FreezeCardTransaction;
+import org.poo.transactions.InsufficientFundsTransaction;
+import org.poo.transactions.MinimumAgeTransaction;
+import org.poo.transactions.SplitPaymentTransaction;
+import org.poo.transactions.Transaction;
+import org.poo.transactions.TransactionCursor;
+import org.poo.transactions.TransferTransaction;
+import org.poo.transactions.UpgradePlanTransaction;
+import org.poo.transactions.WithdrawSavingsTransaction;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Codificarea tranzactiilor din istoricul utilizatorilor. Scrierea citeste randurile
+ * printr-un {@link TransactionCursor}, la fel ca
+ * {@link org.poo.transactions.TransactionPrinter}: fiecare tip scrie o eticheta si
+ * campurile din care poate fi reconstruit prin constructorul lui. Descrierile calculate
+ * in constructori (de exemplu la plati impartite) nu sunt scrise, ci refacute la citire.
+ */
+final class TransactionCodec {
+    private static final byte ACCOUNT_CREATED = 1;
+    private static final byte INSUFFICIENT_FUNDS = 2;
+    private static final byte TRANSFER = 3;
+    private static final byte CARD_CREATED = 4;
+    private static final byte CARD_PAYMENT = 5;
+    private static final byte CARD_DESTROYED = 6;
+    private static final byte FREEZE_CARD = 7;
+    private static final byte CARD_FROZEN = 8;
+    private static final byte SPLIT_PAYMENT = 9;
+    private static final byte DELETE_ACCOUNT = 10;
+    private static final byte CHANGE_INTEREST_RATE = 11;
+    private static final byte MINIMUM_AGE = 12;
+    private static final byte UPGRADE_PLAN = 13;
+    private static final byte CASH_WITHDRAWAL = 14;
+    private static final byte ADD_INTEREST = 15;
+    private static final byte WITHDRAW_SAVINGS = 16;
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final PlanType[] PLAN_TYPES = PlanType.values();
+
+    private TransactionCodec() {
+    }
+
+    /**
+     * Scrie tranzactia curenta a cursorului.
+     *
+     * @param cursor Cursorul pozitionat pe tranzactie.
+     * @param out Buffer-ul snapshot-ului.
+     */
+    static void write(final TransactionCursor cursor, final SnapshotOutput out) {
+        out.putInt(cursor.getTimestamp());
+        switch (cursor.getKind()) {
+            case ACCOUNT_CREATED:
+                out.putByte(ACCOUNT_CREATED);
+                break;
+            case INSUFFICIENT_FUNDS:
+                out.putByte(INSUFFICIENT_FUNDS);
+                break;
+            case TRANSFER:
+                out.putByte(TRANSFER);
+                out.putString(cursor.getDescription());
+                out.putString(cursor.getSenderIban());
+                out.putString(cursor.getReceiverIban());
+                out.putDouble(cursor.getAmount());
+                out.putEnum(cursor.getCurrency());
+                out.putString(cursor.getTransferType());
+                out.putString(cursor.getIban());
+                break;
+            case CARD_CREATED:
+                out.putByte(CARD_CREATED);
+                writeCard(cursor, out);
+                break;
+            case CARD_PAYMENT:
+                out.putByte(CARD_PAYMENT);
+                out.putString(cursor.getIban());
+                out.putString(cursor.getCommerciant());
+                out.putDouble(cursor.getAmount());
+                out.putEnum(cursor.getCurrency());
+                break;
+            case CARD_DESTROYED:
+                out.putByte(CARD_DESTROYED);
+                writeCard(cursor, out);
+                break;
+            case FREEZE_CARD:
+                out.putByte(FREEZE_CARD);
+                break;
+            case CARD_FROZEN:
+                out.putByte(CARD_FROZEN);
+                break;
+            case SPLIT_PAYMENT:
+                out.putByte(SPLIT_PAYMENT);
+                writeSplitPayment(cursor, out);
+                break;
+            case DELETE_ACCOUNT:
+                out.putByte(DELETE_ACCOUNT);
+                out.putString(cursor.getDescription());
+                break;
+            case CHANGE_INTEREST_RATE:
+                out.putByte(CHANGE_INTEREST_RATE);
+                out.putDouble(cursor.getAmount());
+                break;
+            case MINIMUM_AGE:
+                out.putByte(MINIMUM_AGE);
+                break;
+            case UPGRADE_PLAN:
+                out.putByte(UPGRADE_PLAN);
+                out.putString(cursor.getIban());
+                out.putEnum(cursor.getNewPlanType());
+                break;
+            case CASH_WITHDRAWAL:
+                out.putByte(CASH_WITHDRAWAL);
+                out.putString(cursor.getIban());
+                out.putDouble(cursor.getAmount());
+                out.putString(cursor.getError());
+                break;
+            case ADD_INTEREST:
+                out.putByte(ADD_INTEREST);
+                out.putString(cursor.getIban());
+                out.putDouble(cursor.getAmount());
+                out.putEnum(cursor.getCurrency());
+                break;
+            case WITHDRAW_SAVINGS:
+                out.putByte(WITHDRAW_SAVINGS);
+                out.putString(cursor.getIban());
+                out.putString(cursor.getError());
+                break;
+            default:
+                throw new IllegalStateException("Unknown transaction kind " + cursor.getKind());
+        }
+    }
+
+    private static void writeCard(final TransactionCursor cursor, final SnapshotOutput out) {
+        out.putString(cursor.getEmail());
+        out.putString(cursor.getCardNumber());
+        out.putString(cursor.getIban());
+    }
+
+    /** Listele sunt scrise in formatul lui putStrings si putDoubles. */
+    private static void writeSplitPayment(final TransactionCursor cursor,
+                                          final SnapshotOutput out) {
+        out.putDouble(cursor.getAmount());
+        out.putEnum(cursor.getCurrency());
+        int accounts = cursor.getInvolvedAccountCount();
+        out.putInt(accounts);
+        for (int i = 0; i < accounts; i++) {
+            out.putString(cursor.getInvolvedAccount(i));
+        }
+        out.putString(cursor.getIban());
+        int amounts = cursor.getAmountForUserCount();
+        out.putInt(amounts);
+        for (int i = 0; i < amounts; i++) {
+            out.putDouble(cursor.getAmountForUser(i));
+        }
+        out.putString(cursor.getSplitPaymentType());
+        out.putString(cursor.getError());
+    }
+
+    /**
+     * Citeste o tranzactie scrisa de {@link #write}.
+     *
+     * @param in Sursa.
+     * @param accounts Rezolva IBAN-ul unei plati cu cardul in obiectul contului.
+     * @return Tranzactia citita.
+     * @throws IOException daca datele sunt invalide.
+     */
+    static Transaction read(final SnapshotInput in,
+                            final Function<String, ClassicAccount> accounts)
+            throws IOException {
+        int timestamp = in.getInt();
+        byte tag = in.getByte();
+        switch (tag) {
+            case ACCOUNT_CREATED:
+                return new AccountCreatedTransaction(timestamp);
+            case INSUFFICIENT_FUNDS:
+                return new InsufficientFundsTransaction(timestamp);
+            case TRANSFER:
+                return new TransferTransaction(timestamp, in.getString(), in.getString(),
+                        in.getString(), in.getDouble(), in.getEnum(CURRENCIES),
+                        in.getString(), in.getString());
+            case CARD_CREATED:
+                return new CardCreatedTransaction(timestamp, in.getString(), in.getString(),
+                        in.getString());
+            case CARD_PAYMENT:
+                return new CardPaymentTransaction(timestamp, accounts.apply(in.getString()),
+                        in.getString(), in.getDouble(), in.getEnum(CURRENCIES));
+            case CARD_DESTROYED:
+                return new CardDestroyedTransaction(timestamp, in.getString(),
+                        in.getString(), in.getString());
+            case FREEZE_CARD:
+                return new FreezeCardTransaction(timestamp);
+            case CARD_FROZEN:
+                return new CardFrozenTransaction(timestamp);
+            case SPLIT_PAYMENT:
+                return new SplitPaymentTransaction(timestamp, in.getDouble(),
+                        in.getEnum(CURRENCIES), in.getStrings(), in.getString(),
+                        in.getDoubles(), in.getString(), in.getString());
+            case DELETE_ACCOUNT:
+                return new DeleteAccountTransaction(timestamp, in.getString());
+            case CHANGE_INTEREST_RATE:
+                return new ChangeInterestRateTransaction(timestamp, in.getDouble());
+            case MINIMUM_AGE:
+                return new MinimumAgeTransaction(timestamp);
+            case UPGRADE_PLAN:
+                return new UpgradePlanTransaction(timestamp, in.getString(),
+                        in.getEnum(PLAN_TYPES));
+            case CASH_WITHDRAWAL:
+                return readCashWithdrawal(timestamp, in);
+            case ADD_INTEREST:
+                return new AddInterestTransaction(timestamp, in.getString(), in.getDouble(),
+                        in.getEnum(CURRENCIES));
+            case WITHDRAW_SAVINGS:
+                String iban = in.getString();
+                String error = in.getString();
+                return error == null ? new WithdrawSavingsTransaction(timestamp, iban)
+                        : new WithdrawSavingsTransaction(timestamp, iban, error);
+            default:
+                throw new IOException("Unknown transaction tag " + tag);
+        }
+    }
+
+    private static Transaction readCashWithdrawal(final int timestamp, final SnapshotInput in)
+            throws IOException {
+        String iban = in.getString();
+        double amount = in.getDouble();
+        String error = in.getString();
+        return error == null ? new CashWithdrawalTransaction(timestamp, iban, amount)
+                : new CashWithdrawalTransaction(timestamp, iban, amount, error);
+    }
+}
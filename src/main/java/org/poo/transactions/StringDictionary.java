@@ -0,0 +1,60 @@
+package org.poo.transactions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionar de siruri pentru coloanele text ale {@link TransactionStore}: fiecare sir
+ * distinct este pastrat o singura data si inlocuit in coloane de un id intreg.
+ * Valoarea null are id-ul {@link #NONE}.
+ */
+final class StringDictionary {
+    static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] values = new String[INITIAL_CAPACITY];
+
+    /**
+     * Returneaza id-ul sirului, adaugandu-l in dictionar daca lipseste.
+     *
+     * @param value Sirul sau null.
+     * @return Id-ul sirului.
+     */
+    int encode(final String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        int next = ids.size();
+        if (next == values.length) {
+            values = Arrays.copyOf(values, next * 2);
+        }
+        values[next] = value;
+        ids.put(value, next);
+        return next;
+    }
+
+    /**
+     * Returneaza id-ul unui sir fara sa il adauge.
+     *
+     * @param value Sirul cautat.
+     * @return Id-ul sirului sau {@link #NONE} daca nu apare in dictionar.
+     */
+    int find(final String value) {
+        Integer id = value == null ? null : ids.get(value);
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * @param id Id-ul intors de {@link #encode}.
+     * @return Sirul cu id-ul dat sau null pentru {@link #NONE}.
+     */
+    String decode(final int id) {
+        return id == NONE ? null : values[id];
+    }
+}
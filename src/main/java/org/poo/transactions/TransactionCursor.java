@@ -0,0 +1,184 @@
+package org.poo.transactions;
+
+import org.poo.banking.Currency;
+import org.poo.banking.PlanType;
+
+/**
+ * Cursor peste o secventa de randuri dintr-un {@link TransactionStore}, in ordinea
+ * timestamp-urilor. Dupa fiecare {@link #next()} reusit, accesorii citesc campurile
+ * randului curent direct din coloane. Un cursor este valabil pana la urmatoarea
+ * adaugare in istoricul din care a fost obtinut.
+ *
+ * Accesorii specifici unui tip au sens doar pentru randurile de acel tip (de exemplu
+ * {@link #getCommerciant()} pentru {@link TransactionKind#CARD_PAYMENT}).
+ */
+public final class TransactionCursor {
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final PlanType[] PLAN_TYPES = PlanType.values();
+
+    private final TransactionStore store;
+    private final int[] rows;
+    private final int end;
+    private int position;
+    private int row;
+
+    TransactionCursor(final TransactionStore store, final int[] rows, final int from,
+                      final int to) {
+        this.store = store;
+        this.rows = rows;
+        this.end = to;
+        this.position = from - 1;
+    }
+
+    /**
+     * Avanseaza la urmatorul rand.
+     *
+     * @return false daca secventa s-a terminat.
+     */
+    public boolean next() {
+        if (position + 1 >= end) {
+            position = end;
+            return false;
+        }
+        row = rows[++position];
+        return true;
+    }
+
+    /**
+     * @return Tipul tranzactiei curente.
+     */
+    public TransactionKind getKind() {
+        return store.getKind(row);
+    }
+
+    /**
+     * @return Timestamp-ul tranzactiei curente.
+     */
+    public int getTimestamp() {
+        return store.getTimestamp(row);
+    }
+
+    /**
+     * @return Descrierea tranzactiei curente.
+     */
+    public String getDescription() {
+        return store.getDescription(row);
+    }
+
+    /**
+     * @return IBAN-ul contului tranzactiei curente sau null daca nu apartine unui cont.
+     */
+    public String getIban() {
+        return store.getIban(row);
+    }
+
+    /**
+     * @return Suma unui transfer, a unei plati cu cardul, a unei retrageri sau a unei
+     *         dobanzi, totalul unei plati impartite sau noua rata a dobanzii.
+     */
+    public double getAmount() {
+        return store.getAmount(row);
+    }
+
+    /**
+     * @return Moneda unui transfer, a unei plati sau a unei dobanzi.
+     */
+    public Currency getCurrency() {
+        return CURRENCIES[store.getOrdinal(row)];
+    }
+
+    /**
+     * @return Planul nou al unei tranzactii de schimbare a planului.
+     */
+    public PlanType getNewPlanType() {
+        return PLAN_TYPES[store.getOrdinal(row)];
+    }
+
+    /**
+     * @return IBAN-ul expeditorului unui transfer.
+     */
+    public String getSenderIban() {
+        return store.getFirstText(row);
+    }
+
+    /**
+     * @return IBAN-ul destinatarului unui transfer.
+     */
+    public String getReceiverIban() {
+        return store.getSecondText(row);
+    }
+
+    /**
+     * @return Tipul unui transfer ("sent" sau "received").
+     */
+    public String getTransferType() {
+        return store.getThirdText(row);
+    }
+
+    /**
+     * @return Numarul cardului creat sau distrus.
+     */
+    public String getCardNumber() {
+        return store.getFirstText(row);
+    }
+
+    /**
+     * @return Titularul cardului creat sau distrus.
+     */
+    public String getEmail() {
+        return store.getSecondText(row);
+    }
+
+    /**
+     * @return Comerciantul unei plati cu cardul.
+     */
+    public String getCommerciant() {
+        return store.getFirstText(row);
+    }
+
+    /**
+     * @return Eroarea unei plati impartite sau a unei retrageri ori null daca
+     *         operatia a reusit.
+     */
+    public String getError() {
+        return store.getFirstText(row);
+    }
+
+    /**
+     * @return Tipul unei plati impartite.
+     */
+    public String getSplitPaymentType() {
+        return store.getSecondText(row);
+    }
+
+    /**
+     * @return Numarul conturilor implicate intr-o plata impartita.
+     */
+    public int getInvolvedAccountCount() {
+        return store.getListSize(row);
+    }
+
+    /**
+     * @param index Pozitia contului in plata impartita.
+     * @return IBAN-ul contului.
+     */
+    public String getInvolvedAccount(final int index) {
+        return store.getListString(row, index);
+    }
+
+    /**
+     * @return Numarul sumelor individuale ale unei plati impartite sau -1 daca lista
+     *         lipseste.
+     */
+    public int getAmountForUserCount() {
+        return store.getListAmountCount(row);
+    }
+
+    /**
+     * @param index Pozitia contului in plata impartita.
+     * @return Suma platita de cont.
+     */
+    public double getAmountForUser(final int index) {
+        return store.getListAmount(row, index);
+    }
+}
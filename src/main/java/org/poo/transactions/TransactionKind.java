@@ -0,0 +1,25 @@
+package org.poo.transactions;
+
+/**
+ * Tipul unui rand din {@link TransactionStore}, cate unul pentru fiecare clasa de
+ * tranzactie. Determina ce inseamna coloanele generice ale randului (vezi
+ * {@link TransactionCursor}).
+ */
+public enum TransactionKind {
+    ACCOUNT_CREATED,
+    INSUFFICIENT_FUNDS,
+    TRANSFER,
+    CARD_CREATED,
+    CARD_PAYMENT,
+    CARD_DESTROYED,
+    FREEZE_CARD,
+    CARD_FROZEN,
+    SPLIT_PAYMENT,
+    DELETE_ACCOUNT,
+    CHANGE_INTEREST_RATE,
+    MINIMUM_AGE,
+    UPGRADE_PLAN,
+    CASH_WITHDRAWAL,
+    ADD_INTEREST,
+    WITHDRAW_SAVINGS
+}
@@ -0,0 +1,128 @@
+package org.poo.transactions;
+
+import java.util.Arrays;
+
+/**
+ * Index al randurilor dintr-un {@link TransactionStore}, pastrat sortat dupa timestamp.
+ * Un rand nou este inserat dupa toate randurile cu timestamp mai mic sau egal,
+ * deci ordinea este aceeasi ca la o adaugare la final urmata de o sortare stabila.
+ * Interogarile pe interval folosesc cautare binara si intorc cursori, nu copii;
+ * un cursor este valabil pana la urmatoarea adaugare in istoric.
+ */
+public final class TransactionLog {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final TransactionStore store;
+    private int[] rows = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Creeaza un index gol peste randurile istoricului dat.
+     *
+     * @param store Istoricul indexat.
+     */
+    public TransactionLog(final TransactionStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Adauga un rand, pastrand ordinea dupa timestamp.
+     * Cazul obisnuit (timestamp-ul cel mai recent) este o simpla adaugare la final.
+     *
+     * @param row Randul tranzactiei din istoric.
+     */
+    public void add(final int row) {
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        int timestamp = store.getTimestamp(row);
+        if (size == 0 || store.getTimestamp(rows[size - 1]) <= timestamp) {
+            rows[size++] = row;
+            return;
+        }
+        int position = upperBound(timestamp);
+        System.arraycopy(rows, position, rows, position + 1, size - position);
+        rows[position] = row;
+        size++;
+    }
+
+    /**
+     * Construieste indexul unui cont: randurile cu IBAN-ul dat sau fara IBAN, in
+     * aceeasi ordine.
+     *
+     * @param iban IBAN-ul contului.
+     * @return Indexul nou.
+     */
+    public TransactionLog forAccount(final String iban) {
+        TransactionLog log = new TransactionLog(store);
+        int id = store.findString(iban);
+        for (int i = 0; i < size; i++) {
+            int ibanId = store.getIbanId(rows[i]);
+            if (ibanId == TransactionStore.NONE || (id != TransactionStore.NONE && ibanId == id)) {
+                log.add(rows[i]);
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Returneaza toate tranzactiile, in ordinea timestamp-urilor.
+     *
+     * @return Cursor peste istoric.
+     */
+    public TransactionCursor all() {
+        return new TransactionCursor(store, rows, 0, size);
+    }
+
+    /**
+     * Returneaza tranzactiile cu timestamp-ul in intervalul [startTimestamp, endTimestamp].
+     *
+     * @param startTimestamp Inceputul intervalului (inclusiv).
+     * @param endTimestamp Sfarsitul intervalului (inclusiv).
+     * @return Cursor peste tranzactiile din interval.
+     */
+    public TransactionCursor window(final int startTimestamp, final int endTimestamp) {
+        int from = lowerBound(startTimestamp);
+        int to = Math.max(from, upperBound(endTimestamp));
+        return new TransactionCursor(store, rows, from, to);
+    }
+
+    /**
+     * Returneaza numarul de tranzactii din istoric.
+     *
+     * @return Numarul de tranzactii.
+     */
+    public int size() {
+        return size;
+    }
+
+    /** Prima pozitie cu timestamp >= valoarea data. */
+    private int lowerBound(final int timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (store.getTimestamp(rows[mid]) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Prima pozitie cu timestamp > valoarea data. */
+    private int upperBound(final int timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (store.getTimestamp(rows[mid]) <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -1,273 +1,124 @@
 package org.poo.transactions;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.poo.banking.Visitor;
+import com.fasterxml.jackson.core.JsonGenerator;
 
+import java.io.IOException;
 
-public class TransactionPrinter implements Visitor {
-    private ArrayNode transactionsArray;
-    private ObjectMapper mapper;
 
-    public TransactionPrinter(final ArrayNode transactionsArray, final ObjectMapper mapper) {
-        this.transactionsArray = transactionsArray;
-        this.mapper = mapper;
-    }
-
-    /**
-     * Viziteaza o tranzactie de creare a unui cont si adauga informatia in JSON.
-     *
-     * @param accountCreated tranzactia de creare a unui cont.
-     */
-    @Override
-    public void visit(final AccountCreatedTransaction accountCreated) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", accountCreated.getTimestamp());
-        node.put("description", accountCreated.getDescription());
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Viziteaza o tranzactie de fonduri insuficiente si adauga informatia in JSON.
-     *
-     * @param insufficientFunds tranzactia de fonduri insuficiente.
-     */
-    @Override
-    public void visit(final InsufficientFundsTransaction insufficientFunds) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", insufficientFunds.getTimestamp());
-        node.put("description", insufficientFunds.getDescription());
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Viziteaza o tranzactie de transfer si adauga informatia in JSON.
-     *
-     * @param transferTransaction tranzactia de transfer.
-     */
-    @Override
-    public void visit(final TransferTransaction transferTransaction) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", transferTransaction.getTimestamp());
-        node.put("description", transferTransaction.getDescription());
-        node.put("senderIBAN", transferTransaction.getSenderIBAN());
-        node.put("receiverIBAN", transferTransaction.getReceiverIBAN());
-        node.put("amount", transferTransaction.getAmount() + " " + transferTransaction.getType());
-        node.put("transferType", transferTransaction.getTransferType());
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Viziteaza o tranzactie de creare a unui card si adauga informatia in JSON.
-     *
-     * @param cardCreated tranzactia de creare a unui card.
-     */
-    @Override
-    public void visit(final CardCreatedTransaction cardCreated) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", cardCreated.getTimestamp());
-        node.put("description", cardCreated.getDescription());
-        node.put("card", cardCreated.getCardNumber());
-        node.put("cardHolder", cardCreated.getEmail());
-        node.put("account", cardCreated.getAccountIban());
-        transactionsArray.add(node);
-    }
+public class TransactionPrinter {
+    private final JsonGenerator json;
 
     /**
-     * Viziteaza o tranzactie de plata cu cardul si adauga informatia in JSON.
+     * Creeaza un printer care scrie fiecare tranzactie ca obiect JSON, in vectorul
+     * deschis in generator.
      *
-     * @param cardPayment tranzactia de plata cu cardul.
+     * @param json Generatorul in care se scriu tranzactiile.
      */
-    @Override
-    public void visit(final CardPaymentTransaction cardPayment) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", cardPayment.getTimestamp());
-        node.put("description", cardPayment.getDescription());
-        node.put("amount", cardPayment.getAmount());
-        node.put("commerciant", cardPayment.getCommerciant());
-        transactionsArray.add(node);
+    public TransactionPrinter(final JsonGenerator json) {
+        this.json = json;
     }
 
     /**
-     * Viziteaza o tranzactie de distrugere a unui card si adauga informatia in JSON.
+     * Scrie toate tranzactiile ramase in cursor.
      *
-     * @param cardDestroyed tranzactia de distrugere a unui card.
+     * @param cursor Cursorul peste istoric.
+     * @throws IOException in cazul unei erori de scriere.
      */
-    @Override
-    public void visit(final CardDestroyedTransaction cardDestroyed) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", cardDestroyed.getTimestamp());
-        node.put("description", cardDestroyed.getDescription());
-        node.put("card", cardDestroyed.getCardNumber());
-        node.put("cardHolder", cardDestroyed.getEmail());
-        node.put("account", cardDestroyed.getAccountIban());
-        transactionsArray.add(node);
+    public void printAll(final TransactionCursor cursor) throws IOException {
+        while (cursor.next()) {
+            print(cursor);
+        }
     }
 
     /**
-     * Viziteaza o tranzactie de blocare temporara a unui card si adauga informatia in JSON.
-     *
-     * @param freezeCard tranzactia de blocare temporara a unui card.
-     */
-    @Override
-    public void visit(final FreezeCardTransaction freezeCard) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", freezeCard.getTimestamp());
-        node.put("description", freezeCard.getDescription());
-        transactionsArray.add(node);
+     * Scrie tranzactia curenta a cursorului, cu campurile si ordinea specifice tipului ei.
+     *
+     * @param cursor Cursorul pozitionat pe tranzactie.
+     * @throws IOException in cazul unei erori de scriere.
+     */
+    public void print(final TransactionCursor cursor) throws IOException {
+        json.writeStartObject();
+        switch (cursor.getKind()) {
+            case TRANSFER:
+                writeHeader(cursor);
+                json.writeStringField("senderIBAN", cursor.getSenderIban());
+                json.writeStringField("receiverIBAN", cursor.getReceiverIban());
+                json.writeStringField("amount",
+                        cursor.getAmount() + " " + cursor.getCurrency());
+                json.writeStringField("transferType", cursor.getTransferType());
+                break;
+            case CARD_CREATED:
+            case CARD_DESTROYED:
+                writeHeader(cursor);
+                json.writeStringField("card", cursor.getCardNumber());
+                json.writeStringField("cardHolder", cursor.getEmail());
+                json.writeStringField("account", cursor.getIban());
+                break;
+            case CARD_PAYMENT:
+                writeHeader(cursor);
+                json.writeNumberField("amount", cursor.getAmount());
+                json.writeStringField("commerciant", cursor.getCommerciant());
+                break;
+            case SPLIT_PAYMENT:
+                writeSplitPayment(cursor);
+                break;
+            case MINIMUM_AGE:
+                json.writeStringField("description", cursor.getDescription());
+                json.writeNumberField("timestamp", cursor.getTimestamp());
+                break;
+            case UPGRADE_PLAN:
+                json.writeStringField("accountIBAN", cursor.getIban());
+                json.writeStringField("description", cursor.getDescription());
+                json.writeStringField("newPlanType",
+                        cursor.getNewPlanType().toString().toLowerCase());
+                json.writeNumberField("timestamp", cursor.getTimestamp());
+                break;
+            case CASH_WITHDRAWAL:
+                json.writeStringField("description", cursor.getDescription());
+                json.writeNumberField("timestamp", cursor.getTimestamp());
+                if (cursor.getError() == null) {
+                    json.writeNumberField("amount", cursor.getAmount());
+                }
+                break;
+            case ADD_INTEREST:
+                writeHeader(cursor);
+                json.writeNumberField("amount", cursor.getAmount());
+                json.writeStringField("currency", cursor.getCurrency().toString());
+                break;
+            default:
+                writeHeader(cursor);
+                break;
+        }
+        json.writeEndObject();
     }
 
-    /**
-     * Viziteaza o tranzactie de blocare a unui card si adauga informatia in JSON.
-     *
-     * @param cardFrozen tranzactia de blocare a unui card.
-     */
-    @Override
-    public void visit(final CardFrozenTransaction cardFrozen) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", cardFrozen.getTimestamp());
-        node.put("description", cardFrozen.getDescription());
-        transactionsArray.add(node);
+    private void writeHeader(final TransactionCursor cursor) throws IOException {
+        json.writeNumberField("timestamp", cursor.getTimestamp());
+        json.writeStringField("description", cursor.getDescription());
     }
 
-    /**
-     * Viziteaza o tranzactie de plata impartita si adauga informatia in JSON.
-     *
-     * @param splitPayment tranzactia de plata impartita.
-     */
-    @Override
-    public void visit(final SplitPaymentTransaction splitPayment) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", splitPayment.getTimestamp());
-        node.put("description", splitPayment.getDescription());
-        node.put("currency", splitPayment.getCurrency().toString());
-        node.put("splitPaymentType", splitPayment.getSplitPaymentType());
-        if (splitPayment.getSplitPaymentType().equals("custom")) {
-            ArrayNode localTransactionsArray = mapper.createArrayNode();
-            for (Double amount : splitPayment.getAmountsForUsers()) {
-                localTransactionsArray.add(amount);
+    private void writeSplitPayment(final TransactionCursor cursor) throws IOException {
+        writeHeader(cursor);
+        json.writeStringField("currency", cursor.getCurrency().toString());
+        json.writeStringField("splitPaymentType", cursor.getSplitPaymentType());
+        int accounts = cursor.getInvolvedAccountCount();
+        if (cursor.getSplitPaymentType().equals("custom")) {
+            json.writeArrayFieldStart("amountForUsers");
+            for (int i = 0; i < cursor.getAmountForUserCount(); i++) {
+                json.writeNumber(cursor.getAmountForUser(i));
             }
-            node.put("amountForUsers", localTransactionsArray);
+            json.writeEndArray();
         } else {
-            node.put("amount", splitPayment.getTotalAmount()
-                    / splitPayment.getInvolvedAccounts().size());
+            json.writeNumberField("amount", cursor.getAmount() / accounts);
         }
-        ArrayNode involvedAccountsArray = mapper.createArrayNode();
-        for (String iban : splitPayment.getInvolvedAccounts()) {
-            involvedAccountsArray.add(iban);
+        json.writeArrayFieldStart("involvedAccounts");
+        for (int i = 0; i < accounts; i++) {
+            json.writeString(cursor.getInvolvedAccount(i));
         }
-        node.put("involvedAccounts", involvedAccountsArray);
+        json.writeEndArray();
 
-        if (splitPayment.getError() != null) {
-            node.put("error", splitPayment.getError());
+        if (cursor.getError() != null) {
+            json.writeStringField("error", cursor.getError());
         }
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Viziteaza o tranzactie de stergere a unui cont si adauga informatia in JSON.
-     *
-     * @param deleteAccount tranzactia de stergere a unui cont.
-     */
-    @Override
-    public void visit(final DeleteAccountTransaction deleteAccount) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", deleteAccount.getTimestamp());
-        node.put("description", deleteAccount.getDescription());
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Viziteaza o tranzactie de modificare a ratei dobanzii si adauga informatia in JSON.
-     *
-     * @param changeInterestRate tranzactia de modificare a ratei dobanzii.
-     */
-    @Override
-    public void visit(final ChangeInterestRateTransaction changeInterestRate) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", changeInterestRate.getTimestamp());
-        node.put("description", changeInterestRate.getDescription());
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Proceseaza o tranzactie de tip MinimumAgeTransaction si adauga informatiile
-     * corespunzatoare in nodul JSON al tranzactiilor.
-     *
-     * @param minimumAge Tranzactia de tip MinimumAgeTransaction.
-     */
-    @Override
-    public void visit(final MinimumAgeTransaction minimumAge) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("description", minimumAge.getDescription());
-        node.put("timestamp", minimumAge.getTimestamp());
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Proceseaza o tranzactie de tip UpgradePlanTransaction si adauga informatiile
-     * corespunzatoare in nodul JSON al tranzactiilor.
-     *
-     * @param upgradePlan Tranzactia de tip UpgradePlanTransaction.
-     */
-    @Override
-    public void visit(final UpgradePlanTransaction upgradePlan) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("accountIBAN", upgradePlan.getAccountIban());
-        node.put("description", upgradePlan.getDescription());
-        node.put("newPlanType", upgradePlan.getNewPlanType().toString().toLowerCase());
-        node.put("timestamp", upgradePlan.getTimestamp());
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Proceseaza o tranzactie de tip CashWithdrawalTransaction si adauga informatiile
-     * corespunzatoare in nodul JSON al tranzactiilor.
-     *
-     * @param cashWithdrawal Tranzactia de tip CashWithdrawalTransaction.
-     */
-    @Override
-    public void visit(final CashWithdrawalTransaction cashWithdrawal) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("description", cashWithdrawal.getDescription());
-        node.put("timestamp", cashWithdrawal.getTimestamp());
-        if (cashWithdrawal.getErrorMessage() == null) {
-            node.put("amount", cashWithdrawal.getAmount());
-        }
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Proceseaza o tranzactie de tip AddInterestTransaction si adauga informatiile
-     * corespunzatoare in nodul JSON al tranzactiilor.
-     *
-     * @param addInterestTransaction Tranzactia de tip AddInterestTransaction.
-     */
-    @Override
-    public void visit(final AddInterestTransaction addInterestTransaction) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", addInterestTransaction.getTimestamp());
-        node.put("description", addInterestTransaction.getDescription());
-        node.put("amount", addInterestTransaction.getAmount());
-        node.put("currency", addInterestTransaction.getCurrency().toString());
-        transactionsArray.add(node);
-    }
-
-    /**
-     * Proceseaza o tranzactie de tip WithdrawSavingsTransaction si adauga informatiile
-     * corespunzatoare in nodul JSON al tranzactiilor.
-     *
-     * @param withdrawSavingsTransaction Tranzactia de tip WithdrawSavingsTransaction.
-     */
-    @Override
-    public void visit(final WithdrawSavingsTransaction withdrawSavingsTransaction) {
-        ObjectNode node = mapper.createObjectNode();
-        node.put("timestamp", withdrawSavingsTransaction.getTimestamp());
-        node.put("description", withdrawSavingsTransaction.getDescription());
-//        if (!withdrawSavingsTransaction.isError()) {
-//            // TODO
-//        }
-        transactionsArray.add(node);
     }
 }
@@ -0,0 +1,316 @@
+package org.poo.transactions;
+
+import org.poo.banking.Visitor;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Istoricul de tranzactii al unui utilizator, pastrat pe coloane: fiecare tranzactie
+ * este un rand, iar fiecare camp un vector primitiv (timestamp, tip, suma, moneda).
+ * Campurile text sunt codificate printr-un {@link StringDictionary}, deci un sir care
+ * se repeta (descrieri, IBAN-uri, comercianti) este pastrat o singura data, iar listele
+ * platilor impartite sunt puse intr-un pool separat. Tranzactiile noi sunt adaugate la
+ * final; ordinea dupa timestamp este pastrata de {@link TransactionLog}, iar citirea
+ * se face printr-un {@link TransactionCursor}, fara obiecte pe rand.
+ *
+ * Semnificatia coloanelor generice depinde de tipul randului:
+ * <ul>
+ *   <li>{@code firstTexts}: IBAN-ul expeditorului, numarul cardului, comerciantul sau
+ *   eroarea;</li>
+ *   <li>{@code secondTexts}: IBAN-ul destinatarului, titularul cardului sau tipul
+ *   platii impartite;</li>
+ *   <li>{@code thirdTexts}: tipul transferului;</li>
+ *   <li>{@code ordinals}: moneda sau, la schimbarea planului, planul nou.</li>
+ * </ul>
+ */
+public final class TransactionStore {
+    static final int NONE = StringDictionary.NONE;
+    private static final int INITIAL_CAPACITY = 16;
+    /** Intrarile fixe ale unei liste din pool: conturile, sumele si pozitia sumelor. */
+    private static final int LIST_HEADER = 3;
+    private static final TransactionKind[] KINDS = TransactionKind.values();
+
+    private final StringDictionary strings = new StringDictionary();
+    private final RowWriter writer = new RowWriter();
+    private int size;
+    private int[] timestamps = new int[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private double[] amounts = new double[INITIAL_CAPACITY];
+    private byte[] ordinals = new byte[INITIAL_CAPACITY];
+    private int[] descriptions = new int[INITIAL_CAPACITY];
+    private int[] ibans = new int[INITIAL_CAPACITY];
+    private int[] firstTexts = new int[INITIAL_CAPACITY];
+    private int[] secondTexts = new int[INITIAL_CAPACITY];
+    private int[] thirdTexts = new int[INITIAL_CAPACITY];
+    private int[] lists = new int[INITIAL_CAPACITY];
+
+    /**
+     * Pool-ul listelor platilor impartite. Lista unui rand incepe la {@code lists[row]}:
+     * numarul de conturi, id-urile IBAN-urilor, numarul de sume (-1 pentru lista nula)
+     * si pozitia primei sume in {@link #amountPool}.
+     */
+    private int[] listPool = new int[INITIAL_CAPACITY];
+    private int listPoolSize;
+    private double[] amountPool = new double[INITIAL_CAPACITY];
+    private int amountPoolSize;
+
+    /**
+     * Adauga o tranzactie la finalul istoricului. Obiectul nu este retinut.
+     *
+     * @param transaction Tranzactia de adaugat.
+     * @return Randul tranzactiei.
+     */
+    public int append(final Transaction transaction) {
+        if (size == timestamps.length) {
+            grow();
+        }
+        int row = size;
+        timestamps[row] = transaction.getTimestamp();
+        descriptions[row] = strings.encode(transaction.getDescription());
+        ibans[row] = strings.encode(transaction.getIban());
+        amounts[row] = 0.0;
+        ordinals[row] = -1;
+        firstTexts[row] = NONE;
+        secondTexts[row] = NONE;
+        thirdTexts[row] = NONE;
+        lists[row] = NONE;
+        writer.row = row;
+        transaction.accept(writer);
+        size++;
+        return row;
+    }
+
+    /**
+     * @return Numarul de tranzactii din istoric.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returneaza id-ul unui IBAN in dictionarul istoricului, fara sa il adauge.
+     *
+     * @param iban IBAN-ul cautat.
+     * @return Id-ul sau {@link #NONE} daca niciun rand nu foloseste IBAN-ul.
+     */
+    int findString(final String iban) {
+        return strings.find(iban);
+    }
+
+    int getTimestamp(final int row) {
+        return timestamps[row];
+    }
+
+    TransactionKind getKind(final int row) {
+        return KINDS[kinds[row]];
+    }
+
+    double getAmount(final int row) {
+        return amounts[row];
+    }
+
+    int getOrdinal(final int row) {
+        return ordinals[row];
+    }
+
+    int getIbanId(final int row) {
+        return ibans[row];
+    }
+
+    String getDescription(final int row) {
+        return strings.decode(descriptions[row]);
+    }
+
+    String getIban(final int row) {
+        return strings.decode(ibans[row]);
+    }
+
+    String getFirstText(final int row) {
+        return strings.decode(firstTexts[row]);
+    }
+
+    String getSecondText(final int row) {
+        return strings.decode(secondTexts[row]);
+    }
+
+    String getThirdText(final int row) {
+        return strings.decode(thirdTexts[row]);
+    }
+
+    int getListSize(final int row) {
+        return lists[row] == NONE ? -1 : listPool[lists[row]];
+    }
+
+    String getListString(final int row, final int index) {
+        return strings.decode(listPool[lists[row] + 1 + index]);
+    }
+
+    int getListAmountCount(final int row) {
+        int offset = lists[row];
+        return offset == NONE ? -1 : listPool[offset + 1 + listPool[offset]];
+    }
+
+    double getListAmount(final int row, final int index) {
+        int offset = lists[row];
+        return amountPool[listPool[offset + 2 + listPool[offset]] + index];
+    }
+
+    private void grow() {
+        int capacity = timestamps.length * 2;
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        ordinals = Arrays.copyOf(ordinals, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        ibans = Arrays.copyOf(ibans, capacity);
+        firstTexts = Arrays.copyOf(firstTexts, capacity);
+        secondTexts = Arrays.copyOf(secondTexts, capacity);
+        thirdTexts = Arrays.copyOf(thirdTexts, capacity);
+        lists = Arrays.copyOf(lists, capacity);
+    }
+
+    private int appendList(final List<String> accounts, final List<Double> amountsForUsers) {
+        int accountCount = accounts == null ? 0 : accounts.size();
+        int needed = listPoolSize + accountCount + LIST_HEADER;
+        if (needed > listPool.length) {
+            listPool = Arrays.copyOf(listPool, Math.max(needed, listPool.length * 2));
+        }
+        int offset = listPoolSize;
+        listPool[listPoolSize++] = accountCount;
+        for (int i = 0; i < accountCount; i++) {
+            listPool[listPoolSize++] = strings.encode(accounts.get(i));
+        }
+        if (amountsForUsers == null) {
+            listPool[listPoolSize++] = -1;
+            listPool[listPoolSize++] = amountPoolSize;
+            return offset;
+        }
+        listPool[listPoolSize++] = amountsForUsers.size();
+        listPool[listPoolSize++] = amountPoolSize;
+        if (amountPoolSize + amountsForUsers.size() > amountPool.length) {
+            amountPool = Arrays.copyOf(amountPool,
+                    Math.max(amountPoolSize + amountsForUsers.size(), amountPool.length * 2));
+        }
+        for (Double amount : amountsForUsers) {
+            amountPool[amountPoolSize++] = amount;
+        }
+        return offset;
+    }
+
+    /** Completeaza coloanele specifice fiecarui tip de tranzactie. */
+    private final class RowWriter implements Visitor {
+        private int row;
+
+        private void kind(final TransactionKind kind) {
+            kinds[row] = (byte) kind.ordinal();
+        }
+
+        @Override
+        public void visit(final AccountCreatedTransaction accountCreated) {
+            kind(TransactionKind.ACCOUNT_CREATED);
+        }
+
+        @Override
+        public void visit(final InsufficientFundsTransaction insufficientFunds) {
+            kind(TransactionKind.INSUFFICIENT_FUNDS);
+        }
+
+        @Override
+        public void visit(final TransferTransaction transfer) {
+            kind(TransactionKind.TRANSFER);
+            firstTexts[row] = strings.encode(transfer.getSenderIBAN());
+            secondTexts[row] = strings.encode(transfer.getReceiverIBAN());
+            thirdTexts[row] = strings.encode(transfer.getTransferType());
+            amounts[row] = transfer.getAmount();
+            ordinals[row] = (byte) transfer.getType().ordinal();
+        }
+
+        @Override
+        public void visit(final CardCreatedTransaction cardCreated) {
+            kind(TransactionKind.CARD_CREATED);
+            firstTexts[row] = strings.encode(cardCreated.getCardNumber());
+            secondTexts[row] = strings.encode(cardCreated.getEmail());
+        }
+
+        @Override
+        public void visit(final CardPaymentTransaction cardPayment) {
+            kind(TransactionKind.CARD_PAYMENT);
+            firstTexts[row] = strings.encode(cardPayment.getCommerciant());
+            amounts[row] = cardPayment.getAmount();
+            ordinals[row] = (byte) cardPayment.getCurrency().ordinal();
+        }
+
+        @Override
+        public void visit(final CardDestroyedTransaction cardDestroyed) {
+            kind(TransactionKind.CARD_DESTROYED);
+            firstTexts[row] = strings.encode(cardDestroyed.getCardNumber());
+            secondTexts[row] = strings.encode(cardDestroyed.getEmail());
+        }
+
+        @Override
+        public void visit(final FreezeCardTransaction freezeCard) {
+            kind(TransactionKind.FREEZE_CARD);
+        }
+
+        @Override
+        public void visit(final CardFrozenTransaction cardFrozen) {
+            kind(TransactionKind.CARD_FROZEN);
+        }
+
+        @Override
+        public void visit(final SplitPaymentTransaction splitPayment) {
+            kind(TransactionKind.SPLIT_PAYMENT);
+            firstTexts[row] = strings.encode(splitPayment.getError());
+            secondTexts[row] = strings.encode(splitPayment.getSplitPaymentType());
+            amounts[row] = splitPayment.getTotalAmount();
+            ordinals[row] = (byte) splitPayment.getCurrency().ordinal();
+            lists[row] = appendList(splitPayment.getInvolvedAccounts(),
+                    splitPayment.getAmountsForUsers());
+        }
+
+        @Override
+        public void visit(final DeleteAccountTransaction deleteAccount) {
+            kind(TransactionKind.DELETE_ACCOUNT);
+        }
+
+        @Override
+        public void visit(final ChangeInterestRateTransaction changeInterestRate) {
+            kind(TransactionKind.CHANGE_INTEREST_RATE);
+            amounts[row] = changeInterestRate.getInterestRate();
+        }
+
+        @Override
+        public void visit(final MinimumAgeTransaction minimumAge) {
+            kind(TransactionKind.MINIMUM_AGE);
+        }
+
+        @Override
+        public void visit(final UpgradePlanTransaction upgradePlan) {
+            kind(TransactionKind.UPGRADE_PLAN);
+            ordinals[row] = (byte) upgradePlan.getNewPlanType().ordinal();
+        }
+
+        @Override
+        public void visit(final CashWithdrawalTransaction cashWithdrawal) {
+            kind(TransactionKind.CASH_WITHDRAWAL);
+            firstTexts[row] = strings.encode(cashWithdrawal.getErrorMessage());
+            amounts[row] = cashWithdrawal.getAmount();
+        }
+
+        @Override
+        public void visit(final AddInterestTransaction addInterest) {
+            kind(TransactionKind.ADD_INTEREST);
+            amounts[row] = addInterest.getAmount();
+            ordinals[row] = (byte) addInterest.getCurrency().ordinal();
+        }
+
+        @Override
+        public void visit(final WithdrawSavingsTransaction withdrawSavings) {
+            kind(TransactionKind.WITHDRAW_SAVINGS);
+            if (withdrawSavings.isError()) {
+                firstTexts[row] = descriptions[row];
+            }
+        }
+    }
+}
@@ -2,12 +2,10 @@ package org.poo.utils;
 
 import org.poo.banking.ClassicAccount;
 import org.poo.banking.Currency;
-import org.poo.banking.Graph;
+import org.poo.banking.CurrencyConverter;
 import org.poo.banking.User;
 import org.poo.commerciants.Commerciant;
 
-import java.util.ArrayList;
-
 public final class CashbackHandler {
     // Rate
     private static final double FOOD_CASHBACK_RATE = 0.02;
@@ -30,7 +28,7 @@ public final class CashbackHandler {
     public static void applyNrOfTransactions(final ClassicAccount account,
                                              final Commerciant currentCommerciant) {
 
-        Integer currentNr = account.incrementTransactionCount(currentCommerciant.getName());
+        int currentNr = account.incrementTransactionCount(currentCommerciant.getRegistryId());
         if (currentNr == FOOD_CASHBACK_THRESHOLD
                 && account.isGotFoodCashback()) {
             account.addCashback("Food", FOOD_CASHBACK_RATE);
@@ -49,28 +47,18 @@ public final class CashbackHandler {
      * @param account Contul clasic pentru care se verifica pragul de cheltuieli.
      * @param convertedAmount Suma convertita in valuta contului.
      * @param currentAccountCurrency Moneda contului curent.
-     * @param currencyGraph Graful de conversie valutara.
+     * @param converter Convertorul valutar.
      * @param user Utilizatorul asociat contului.
      * @param currentCommerciant Comerciantul asociat tranzactiei.
      */
     public static void applySpendingThreshold(final ClassicAccount account,
                                               final double convertedAmount,
                                               final Currency currentAccountCurrency,
-                                              final Graph<Currency> currencyGraph,
+                                              final CurrencyConverter converter,
                                               final User user,
                                               final Commerciant currentCommerciant) {
-        double amountInRON = convertedAmount;
-        if (currentAccountCurrency != Currency.RON) {
-            ArrayList<Graph<Currency>.Edge> pathToRON =
-                    currencyGraph.getPath(currentAccountCurrency, Currency.RON);
-            if (pathToRON != null) {
-                double totalRateToRON = 1.0;
-                for (Graph<Currency>.Edge edge : pathToRON) {
-                    totalRateToRON *= edge.getCost();
-                }
-                amountInRON = convertedAmount * totalRateToRON;
-            }
-        }
+        double amountInRON =
+                converter.convert(convertedAmount, currentAccountCurrency, Currency.RON);
 
         double cashback = CashBackCalculator.calculateSpendingThresholdCashBack(
                 account, amountInRON, convertedAmount, user.getPlanType());
@@ -0,0 +1,126 @@
+package org.poo.utils;
+
+/**
+ * Codifica IBAN-urile si numerele de card generate de {@link Utils} ca valori {@code long}.
+ *
+ * Un IBAN are forma {@code RO} + 2 cifre de control + {@code POOB} + 16 cifre; doar cele
+ * 18 cifre variaza, deci identificatorul este {@code control * 10^16 + cont}. Un numar de
+ * card este chiar numarul format din cele 16 cifre. Ambele codificari sunt pozitive si mai
+ * mici decat 10^18; un sir in orice alt format devine {@link #INVALID}, valoare pe care
+ * niciun identificator generat nu o poate avea, deci o cautare cu un astfel de sir nu
+ * gaseste nimic.
+ */
+public final class Identifiers {
+    /** Codificarea oricarui sir care nu este un IBAN sau un numar de card valid. */
+    public static final long INVALID = -1L;
+
+    private static final String IBAN_COUNTRY = "RO";
+    private static final String IBAN_BANK = "POOB";
+    private static final int CHECK_DIGITS = 2;
+    private static final int ACCOUNT_DIGITS = 16;
+    private static final int CARD_DIGITS = 16;
+    private static final int BANK_START = IBAN_COUNTRY.length() + CHECK_DIGITS;
+    private static final int ACCOUNT_START = BANK_START + IBAN_BANK.length();
+    private static final int IBAN_LENGTH = ACCOUNT_START + ACCOUNT_DIGITS;
+    private static final long ACCOUNT_RANGE = 10_000_000_000_000_000L;
+    private static final int RADIX = 10;
+
+    private Identifiers() {
+        // Checkstyle error free constructor
+    }
+
+    /**
+     * Codifica un IBAN.
+     *
+     * @param iban IBAN-ul, poate fi null.
+     * @return IBAN-ul codificat sau {@link #INVALID} daca sirul nu este un IBAN generat.
+     */
+    public static long encodeIban(final String iban) {
+        if (iban == null || iban.length() != IBAN_LENGTH
+                || !iban.startsWith(IBAN_COUNTRY) || !iban.startsWith(IBAN_BANK, BANK_START)) {
+            return INVALID;
+        }
+        long check = parseDigits(iban, IBAN_COUNTRY.length(), BANK_START);
+        long account = parseDigits(iban, ACCOUNT_START, IBAN_LENGTH);
+        if (check == INVALID || account == INVALID) {
+            return INVALID;
+        }
+        return check * ACCOUNT_RANGE + account;
+    }
+
+    /**
+     * Decodifica un IBAN codificat cu {@link #encodeIban(String)}.
+     *
+     * @param id IBAN-ul codificat.
+     * @return IBAN-ul sub forma de String.
+     */
+    public static String decodeIban(final long id) {
+        StringBuilder sb = new StringBuilder(IBAN_LENGTH);
+        sb.append(IBAN_COUNTRY);
+        appendDigits(sb, id / ACCOUNT_RANGE, CHECK_DIGITS);
+        sb.append(IBAN_BANK);
+        appendDigits(sb, id % ACCOUNT_RANGE, ACCOUNT_DIGITS);
+        return sb.toString();
+    }
+
+    /**
+     * Codifica un numar de card.
+     *
+     * @param cardNumber Numarul cardului, poate fi null.
+     * @return Numarul codificat sau {@link #INVALID} daca sirul nu are exact 16 cifre.
+     */
+    public static long encodeCardNumber(final String cardNumber) {
+        if (cardNumber == null || cardNumber.length() != CARD_DIGITS) {
+            return INVALID;
+        }
+        return parseDigits(cardNumber, 0, CARD_DIGITS);
+    }
+
+    /**
+     * Decodifica un numar de card codificat cu {@link #encodeCardNumber(String)}.
+     *
+     * @param id Numarul de card codificat.
+     * @return Numarul cardului sub forma de String.
+     */
+    public static String decodeCardNumber(final long id) {
+        StringBuilder sb = new StringBuilder(CARD_DIGITS);
+        appendDigits(sb, id, CARD_DIGITS);
+        return sb.toString();
+    }
+
+    /**
+     * Codifica un numar de card care trebuie sa fie valid.
+     *
+     * @param cardNumber Numarul cardului.
+     * @return Numarul codificat.
+     * @throws IllegalArgumentException daca numarul cardului nu are exact 16 cifre.
+     */
+    public static long requireCardNumber(final String cardNumber) {
+        long id = encodeCardNumber(cardNumber);
+        if (id == INVALID) {
+            throw new IllegalArgumentException("Invalid card number: " + cardNumber);
+        }
+        return id;
+    }
+
+    private static long parseDigits(final String s, final int from, final int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit >= RADIX) {
+                return INVALID;
+            }
+            value = value * RADIX + digit;
+        }
+        return value;
+    }
+
+    private static void appendDigits(final StringBuilder sb, final long value,
+                                     final int digits) {
+        String number = Long.toString(value);
+        for (int i = number.length(); i < digits; i++) {
+            sb.append('0');
+        }
+        sb.append(number);
+    }
+}
@@ -0,0 +1,187 @@
+package org.poo.utils;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de dispersie cu adresare deschisa si chei primitive {@code long}, folosita pentru
+ * indecsii bancii cheiati dupa {@link Identifiers}. Cheile sunt pastrate intr-un
+ * {@code long[]}, alaturi de un vector paralel de valori, deci o intrare ocupa doua pozitii
+ * din vectori in loc de o cheie impachetata si un nod. Coliziunile sunt rezolvate prin
+ * sondare liniara intr-o tabela cu dimensiune putere a lui 2; la stergere intrarile
+ * urmatoare sunt mutate inapoi, deci nu raman marcaje de stergere. Valorile null nu sunt
+ * permise (o pozitie libera este una cu valoarea null).
+ *
+ * @param <V> Tipul valorilor.
+ */
+public final class LongHashMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    /** Primeste intrarile tabelei. */
+    public interface EntryConsumer<V> {
+        /**
+         * Prelucreaza o intrare.
+         * @param key Cheia intrarii.
+         * @param value Valoarea intrarii.
+         */
+        void accept(long key, V value);
+    }
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int shift;
+
+    /**
+     * Creeaza o tabela goala.
+     */
+    public LongHashMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Cauta valoarea asociata unei chei.
+     * @param key Cheia cautata.
+     * @return Valoarea asociata cheii sau null.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Asociaza cheii valoarea data, inlocuind eventuala valoare anterioara.
+     *
+     * @param key Cheia.
+     * @param value Valoarea, nenula.
+     * @return Valoarea anterioara sau null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final long key, final V value) {
+        int mask = keys.length - 1;
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Asociaza cheii valoarea data doar daca cheia nu are inca o valoare.
+     *
+     * @param key Cheia.
+     * @param value Valoarea, nenula.
+     * @return Valoarea existenta sau null daca valoarea a fost adaugata.
+     */
+    public V putIfAbsent(final long key, final V value) {
+        V current = get(key);
+        if (current == null) {
+            put(key, value);
+        }
+        return current;
+    }
+
+    /**
+     * Sterge asocierea cheii.
+     *
+     * @param key Cheia.
+     * @return Valoarea stearsa sau null.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final long key) {
+        int mask = keys.length - 1;
+        int i = slot(key);
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == null) {
+            return null;
+        }
+        V removed = (V) values[i];
+        // muta inapoi intrarile a caror secventa de sondare trece prin pozitia eliberata
+        int hole = i;
+        for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Returneaza numarul de intrari.
+     * @return Numarul de intrari.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sterge toate intrarile, pastrand vectorii alocati.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Trimite fiecare intrare consumatorului, in ordinea din tabela.
+     *
+     * @param consumer Consumatorul intrarilor.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private int slot(final long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> shift);
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void rehash(final int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
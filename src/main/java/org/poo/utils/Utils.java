@@ -15,8 +15,15 @@ public final class Utils {
     private static final String POO_STR = "POOB";
 
 
-    private static Random ibanRandom = new Random(IBAN_SEED);
-    private static Random cardRandom = new Random(CARD_SEED);
+    // fiecare fir are propriile generatoare, astfel incat fisierele procesate in paralel
+    // primesc aceleasi IBAN-uri si numere de card ca la o rulare secventiala
+    private static final ThreadLocal<Random> IBAN_RANDOM =
+            ThreadLocal.withInitial(() -> new Random(IBAN_SEED));
+    private static final ThreadLocal<Random> CARD_RANDOM =
+            ThreadLocal.withInitial(() -> new Random(CARD_SEED));
+    // cate IBAN-uri / numere de card a generat firul curent de la ultima resetare
+    private static final ThreadLocal<int[]> GENERATED =
+            ThreadLocal.withInitial(() -> new int[2]);
 
     /**
      * Utility method for generating an IBAN code.
@@ -24,6 +31,8 @@ public final class Utils {
      * @return the IBAN as String
      */
     public static String generateIBAN() {
+        Random ibanRandom = IBAN_RANDOM.get();
+        GENERATED.get()[0]++;
         StringBuilder sb = new StringBuilder(RO_STR);
         for (int i = 0; i < RO_STR.length(); i++) {
             sb.append(ibanRandom.nextInt(DIGIT_BOUND));
@@ -43,6 +52,8 @@ public final class Utils {
      * @return the card number as String
      */
     public static String generateCardNumber() {
+        Random cardRandom = CARD_RANDOM.get();
+        GENERATED.get()[1]++;
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < DIGIT_GENERATION; i++) {
             sb.append(cardRandom.nextInt(DIGIT_BOUND));
@@ -52,10 +63,43 @@ public final class Utils {
     }
 
     /**
-     * Resets the seeds between runs.
+     * Resets the seeds between runs (for the calling thread).
      */
     public static void resetRandom() {
-        ibanRandom = new Random(IBAN_SEED);
-        cardRandom = new Random(CARD_SEED);
+        IBAN_RANDOM.set(new Random(IBAN_SEED));
+        CARD_RANDOM.set(new Random(CARD_SEED));
+        GENERATED.set(new int[2]);
+    }
+
+    /**
+     * @return how many IBANs the calling thread generated since the last reset
+     */
+    public static int getGeneratedIbanCount() {
+        return GENERATED.get()[0];
+    }
+
+    /**
+     * @return how many card numbers the calling thread generated since the last reset
+     */
+    public static int getGeneratedCardCount() {
+        return GENERATED.get()[1];
+    }
+
+    /**
+     * Resets the seeds and advances the generators of the calling thread past the given
+     * number of IBANs and card numbers, so that generation continues where a previous
+     * run stopped.
+     *
+     * @param ibanCount number of IBANs already generated
+     * @param cardCount number of card numbers already generated
+     */
+    public static void restoreRandom(final int ibanCount, final int cardCount) {
+        resetRandom();
+        for (int i = 0; i < ibanCount; i++) {
+            generateIBAN();
+        }
+        for (int i = 0; i < cardCount; i++) {
+            generateCardNumber();
+        }
     }
 }
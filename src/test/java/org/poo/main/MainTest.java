@@ -0,0 +1,75 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.poo.banking.Bank;
+import org.poo.banking.ClassicAccount;
+import org.poo.banking.User;
+import org.poo.fileio.BufferedOutputSink;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.StreamingOutputWriter;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O comanda care arunca o exceptie dupa ce a inceput sa scrie nu strica fisierul de iesire.
+ */
+class MainTest {
+    private static final String BROKEN_IBAN = "RO12POOB0000000000000001";
+    private static final String MISSING_IBAN = "RO12POOB0000000000000002";
+
+    private static Bank bankWithBrokenAccount() {
+        Bank bank = Bank.createInstance();
+        User user = new User("Ana", "Pop", "ana@poo.ro", "2000-01-01", "student");
+        bank.addUser(user);
+        // fara moneda, report arunca NullPointerException dupa writeStartObject
+        bank.addAccount(user, new ClassicAccount(BROKEN_IBAN, null));
+        return bank;
+    }
+
+    private static CommandInput report(final String iban, final int timestamp) {
+        CommandInput command = new CommandInput();
+        command.setCommand("report");
+        command.setAccount(iban);
+        command.setStartTimestamp(0);
+        command.setEndTimestamp(timestamp);
+        command.setTimestamp(timestamp);
+        return command;
+    }
+
+    @Test
+    void failedCommandWritesNothing(@TempDir final File directory) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        File out = new File(directory, "out.json");
+        try (Bank bank = bankWithBrokenAccount();
+             StreamingOutputWriter writer = new StreamingOutputWriter(out, mapper)) {
+            Main.executeCommand(report(BROKEN_IBAN, 1), bank, writer);
+            Main.executeCommand(report(MISSING_IBAN, 2), bank, writer);
+        }
+
+        JsonNode results = mapper.readTree(out);
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).get("timestamp").asInt());
+        assertEquals("Account not found",
+                results.get(0).get("output").get("description").asText());
+    }
+
+    @Test
+    void failedBufferedCommandIsCleared() {
+        try (Bank bank = bankWithBrokenAccount()) {
+            BufferedOutputSink result = new BufferedOutputSink();
+
+            assertFalse(Main.executeBuffered(report(BROKEN_IBAN, 1), bank, result));
+            assertTrue(result.isEmpty());
+            assertTrue(Main.executeBuffered(report(MISSING_IBAN, 2), bank, result));
+            assertFalse(result.isEmpty());
+        }
+    }
+}
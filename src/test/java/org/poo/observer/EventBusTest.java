@@ -0,0 +1,223 @@
+package org.poo.observer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Livrarea asincrona a {@link EventBus}: loturi, back-pressure, erori ale abonatilor,
+ * publicare de pe firul de livrare si inchidere.
+ */
+class EventBusTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static List<TransactionEvent> events(final int count) {
+        List<TransactionEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new TransactionEvent(null, null));
+        }
+        return events;
+    }
+
+    /** Abonat care retine loturile primite. */
+    private static final class Recorder implements TransactionSubscriber {
+        private final List<List<TransactionEvent>> batches =
+                Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onEvent(final TransactionEvent event) {
+            batches.add(List.of(event));
+        }
+
+        @Override
+        public void onBatch(final List<TransactionEvent> events) {
+            batches.add(new ArrayList<>(events));
+        }
+
+        List<TransactionEvent> received() {
+            List<TransactionEvent> all = new ArrayList<>();
+            synchronized (batches) {
+                for (List<TransactionEvent> batch : batches) {
+                    all.addAll(batch);
+                }
+            }
+            return all;
+        }
+    }
+
+    @Test
+    void deliversEveryEventInOrderInBoundedBatches() {
+        try (EventBus bus = new EventBus(4)) {
+            Recorder recorder = new Recorder();
+            bus.subscribeAsync(recorder, 3);
+            List<TransactionEvent> published = events(100);
+
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                published.forEach(bus::publish);
+                bus.flush();
+            });
+
+            assertEquals(published, recorder.received());
+            for (List<TransactionEvent> batch : recorder.batches) {
+                assertTrue(batch.size() <= 3);
+            }
+        }
+    }
+
+    @Test
+    void syncSubscribersRunOnThePublishingThread() {
+        try (EventBus bus = new EventBus(4)) {
+            List<Thread> threads = new ArrayList<>();
+            bus.subscribe(event -> threads.add(Thread.currentThread()));
+
+            bus.publish(new TransactionEvent(null, null));
+
+            assertEquals(List.of(Thread.currentThread()), threads);
+        }
+    }
+
+    @Test
+    void publishWaitsWhileTheRingIsFull() throws InterruptedException {
+        try (EventBus bus = new EventBus(2)) {
+            CountDownLatch release = new CountDownLatch(1);
+            Recorder recorder = new Recorder();
+            bus.subscribeAsync(event -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                recorder.onEvent(event);
+            }, 1);
+            List<TransactionEvent> published = events(10);
+            AtomicInteger done = new AtomicInteger();
+            Thread publisher = new Thread(() -> {
+                for (TransactionEvent event : published) {
+                    bus.publish(event);
+                    done.incrementAndGet();
+                }
+            });
+            publisher.start();
+
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (publisher.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(Thread.State.WAITING, publisher.getState());
+            assertTrue(done.get() < published.size());
+
+            release.countDown();
+            publisher.join(TIMEOUT.toMillis());
+            assertFalse(publisher.isAlive());
+            assertTimeoutPreemptively(TIMEOUT, bus::flush);
+            assertEquals(published, recorder.received());
+        }
+    }
+
+    @Test
+    void subscriberErrorsDoNotStopDelivery() {
+        try (EventBus bus = new EventBus(2)) {
+            AtomicInteger calls = new AtomicInteger();
+            Recorder recorder = new Recorder();
+            bus.subscribeAsync(event -> {
+                if (calls.getAndIncrement() == 0) {
+                    throw new AssertionError("subscriber failure");
+                }
+                recorder.onEvent(event);
+            }, 1);
+            List<TransactionEvent> published = events(20);
+
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                published.forEach(bus::publish);
+                bus.flush();
+            });
+
+            assertEquals(published.subList(1, published.size()), recorder.received());
+        }
+    }
+
+    @Test
+    void publishingFromTheDispatcherDoesNotDeadlock() {
+        try (EventBus bus = new EventBus(1)) {
+            int chain = 50;
+            AtomicInteger remaining = new AtomicInteger(chain);
+            AtomicInteger republished = new AtomicInteger();
+            Recorder recorder = new Recorder();
+            bus.subscribeAsync(event -> {
+                recorder.onEvent(event);
+                for (int i = 0; i < 2 && remaining.getAndDecrement() > 0; i++) {
+                    bus.publish(new TransactionEvent(null, null));
+                    republished.incrementAndGet();
+                }
+            }, 1);
+
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                bus.publish(new TransactionEvent(null, null));
+                while (republished.get() < chain) {
+                    bus.flush();
+                }
+                bus.flush();
+            });
+
+            assertEquals(chain + 1, recorder.received().size());
+        }
+    }
+
+    @Test
+    void flushFromTheDispatcherFailsFast() {
+        try (EventBus bus = new EventBus(4)) {
+            List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+            bus.subscribeAsync(event -> {
+                try {
+                    bus.flush();
+                } catch (IllegalStateException e) {
+                    failures.add(e);
+                }
+            }, 1);
+
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                bus.publish(new TransactionEvent(null, null));
+                bus.flush();
+            });
+
+            assertEquals(1, failures.size());
+        }
+    }
+
+    @Test
+    void closeDeliversPendingEventsAndStopsTheDispatcher() {
+        EventBus bus = new EventBus(8);
+        List<Thread> dispatchers = Collections.synchronizedList(new ArrayList<>());
+        Recorder recorder = new Recorder();
+        bus.subscribeAsync(event -> {
+            dispatchers.add(Thread.currentThread());
+            recorder.onEvent(event);
+        }, 2);
+        List<TransactionEvent> published = events(30);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            published.forEach(bus::publish);
+            bus.close();
+        });
+
+        assertEquals(published, recorder.received());
+        assertFalse(dispatchers.get(0).isAlive());
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            bus.publish(new TransactionEvent(null, null));
+            bus.flush();
+        });
+        assertEquals(published.size(), recorder.received().size());
+        assertThrows(IllegalStateException.class, () -> bus.subscribeAsync(recorder, 1));
+    }
+}